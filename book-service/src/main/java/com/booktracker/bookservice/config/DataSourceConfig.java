@@ -0,0 +1,96 @@
+package com.booktracker.bookservice.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary/replica DataSource setup, active only when booktracker.datasource.replica.url is set.
+ * Without it the application keeps Spring Boot's single auto-configured pool.
+ */
+@Configuration
+@ConditionalOnExpression("!'${booktracker.datasource.replica.url:}'.isEmpty()")
+public class DataSourceConfig {
+
+    @Value("${booktracker.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${booktracker.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${booktracker.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${booktracker.datasource.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int replicaPoolSize;
+
+    @Value("${booktracker.datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${booktracker.datasource.replica.sticky-seconds:10}")
+    private long stickySeconds;
+
+    // Shared pool settings (spring.datasource.hikari.*) applied to both pools
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig hikariSettings() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public DataSource primaryDataSource(DataSourceProperties properties, HikariConfig hikariSettings) {
+        HikariConfig config = new HikariConfig();
+        hikariSettings.copyStateTo(config);
+        config.setJdbcUrl(properties.determineUrl());
+        config.setUsername(properties.determineUsername());
+        config.setPassword(properties.determinePassword());
+        config.setDriverClassName(properties.determineDriverClassName());
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public DataSource replicaDataSource(DataSourceProperties properties, HikariConfig hikariSettings) {
+        HikariConfig config = new HikariConfig();
+        hikariSettings.copyStateTo(config);
+        config.setJdbcUrl(replicaUrl);
+        config.setUsername(replicaUsername);
+        config.setPassword(replicaPassword);
+        config.setDriverClassName(properties.determineDriverClassName());
+        config.setPoolName(hikariSettings.getPoolName() + "-replica");
+        config.setMaximumPoolSize(replicaPoolSize);
+        config.setMinimumIdle(replicaPoolSize);
+        config.setReadOnly(true);
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new ReplicaRouting(replicaDataSource, maxLagSeconds, stickySeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaRouting replicaRouting) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(replicaRouting);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.PRIMARY, primaryDataSource,
+                ReplicaRoutingDataSource.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        // Defers the physical connection until the first statement, after the read-only flag is set
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
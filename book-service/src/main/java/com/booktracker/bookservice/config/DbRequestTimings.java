@@ -0,0 +1,49 @@
+package com.booktracker.bookservice.config;
+
+/**
+ * Connection acquire and usage time accumulated by the current request thread.
+ * Filled by {@link TimedDataSource} and reported per endpoint by {@link DbTimingInterceptor}.
+ */
+public class DbRequestTimings {
+
+    private static final ThreadLocal<DbRequestTimings> CURRENT = new ThreadLocal<>();
+
+    private long acquireNanos;
+    private long usageNanos;
+    private int connections;
+
+    static DbRequestTimings start() {
+        DbRequestTimings timings = new DbRequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static DbRequestTimings current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void recordAcquire(long nanos) {
+        acquireNanos += nanos;
+        connections++;
+    }
+
+    void recordUsage(long nanos) {
+        usageNanos += nanos;
+    }
+
+    public long getAcquireNanos() {
+        return acquireNanos;
+    }
+
+    public long getUsageNanos() {
+        return usageNanos;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+}
@@ -0,0 +1,72 @@
+package com.booktracker.bookservice.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the connection time collected by {@link TimedDataSource} per endpoint:
+ * booktracker.db.acquire (pool wait), booktracker.db.usage (connection held)
+ * and booktracker.db.connections (checkouts per request), tagged by method and uri pattern.
+ */
+public class DbTimingInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public DbTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        DbRequestTimings.start();
+        return true;
+    }
+
+    // Streaming responses (SSE) leave the request thread early; don't leak the timings into its next request
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        DbRequestTimings.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        DbRequestTimings timings = DbRequestTimings.current();
+        DbRequestTimings.clear();
+        if (timings == null || timings.getConnections() == 0) {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        Timer.builder("booktracker.db.acquire")
+                .description("Time spent waiting for a pooled connection per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(timings.getAcquireNanos(), TimeUnit.NANOSECONDS);
+
+        Timer.builder("booktracker.db.usage")
+                .description("Time connections were held per request")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(timings.getUsageNanos(), TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("booktracker.db.connections")
+                .description("Connections checked out per request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(timings.getConnections());
+    }
+}
@@ -0,0 +1,73 @@
+package com.booktracker.bookservice.config;
+
+import com.booktracker.bookservice.dto.AuthorDTO;
+import com.booktracker.bookservice.dto.LibraryEntrySummaryDTO;
+import com.booktracker.bookservice.dto.LibraryListQuery;
+import com.booktracker.bookservice.dto.LibraryPageDTO;
+import com.booktracker.bookservice.dto.LibraryStatusDTO;
+import com.booktracker.bookservice.dto.LibraryTitleDTO;
+import com.booktracker.bookservice.dto.ProgressUpdateDTO;
+import com.booktracker.bookservice.dto.RatingResultDTO;
+import com.booktracker.bookservice.dto.TrendingBookDTO;
+import com.booktracker.bookservice.dto.UserLibraryResponseDTO;
+import com.booktracker.bookservice.entity.Author;
+import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.entity.IdempotencyKey;
+import com.booktracker.bookservice.entity.JobCheckpoint;
+import com.booktracker.bookservice.entity.OutboxEvent;
+import com.booktracker.bookservice.entity.Rating;
+import com.booktracker.bookservice.entity.ReadingProgress;
+import com.booktracker.bookservice.entity.ReadingStatus;
+import com.booktracker.bookservice.entity.User;
+import com.booktracker.bookservice.entity.UserLibrary;
+import com.booktracker.bookservice.event.BookChangedEvent;
+import com.booktracker.bookservice.event.LibraryChangedEvent;
+import com.booktracker.bookservice.event.ProgressUpdatedEvent;
+import com.booktracker.bookservice.event.RatingChangedEvent;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for the native image (mvn -Pnative native:compile) beyond what Spring AOT
+ * infers from the controller signatures: bodies behind ResponseEntity<?>, the domain events
+ * Jackson writes to the outbox and the SSE stream, and the entities, which are both mapped by
+ * Hibernate and serialized as they are. The OAuth2 resource server needs no hints of its own
+ * (Spring Security and Nimbus ship theirs); see the native profile for the URL protocols.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHints.Registrar.class)
+public class NativeHints {
+
+    static final Class<?>[] ENTITIES = {
+            Book.class, User.class, UserLibrary.class, ReadingProgress.class, Rating.class,
+            ReadingStatus.class, OutboxEvent.class, IdempotencyKey.class, IdempotencyKey.Id.class, JobCheckpoint.class,
+            Author.class
+    };
+
+    static final Class<?>[] JSON_TYPES = {
+            AuthorDTO.class, LibraryEntrySummaryDTO.class, LibraryListQuery.class, LibraryPageDTO.class, LibraryStatusDTO.class,
+            LibraryTitleDTO.class, ProgressUpdateDTO.class, RatingResultDTO.class, TrendingBookDTO.class,
+            UserLibraryResponseDTO.class,
+            BookChangedEvent.class, LibraryChangedEvent.class, ProgressUpdatedEvent.class, RatingChangedEvent.class
+    };
+
+    public static class Registrar implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> entity : ENTITIES) {
+                // Hibernate reads and writes the fields and instantiates through the no-arg constructor
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            bindings.registerReflectionHints(hints.reflection(), ENTITIES);
+            bindings.registerReflectionHints(hints.reflection(), JSON_TYPES);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.booktracker.bookservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-client API rate limits, route groups from booktracker.rate-limit.groups.<name>.*
+@Configuration
+@ConditionalOnProperty(name = "booktracker.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(Environment environment, MeterRegistry meterRegistry,
+                                   @Value("${booktracker.rate-limit.idle-eviction-seconds:300}") long idleEvictionSeconds) {
+        Map<String, RateLimiter.GroupSettings> groups = Binder.get(environment)
+                .bind("booktracker.rate-limit.groups", Bindable.mapOf(String.class, RateLimiter.GroupSettings.class))
+                .orElseGet(LinkedHashMap::new);
+        return new RateLimiter(groups, idleEvictionSeconds, meterRegistry);
+    }
+
+    // Right after the security filter chain, so the JWT subject is known and rejected calls never reach MVC
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            RateLimiter rateLimiter,
+            @Value("${booktracker.rate-limit.trusted-proxies:}") String trustedProxies) {
+        List<String> proxies = StringUtils.commaDelimitedListToSet(trustedProxies).stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .toList();
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, proxies));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setName("rateLimitFilter");
+        return registration;
+    }
+}
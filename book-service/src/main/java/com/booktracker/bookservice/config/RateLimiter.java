@@ -0,0 +1,149 @@
+package com.booktracker.bookservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory request limits of one instance, per route group and client (see {@link RateLimitFilter}).
+ * Each client of a group has a token bucket of burst requests refilled at rate-per-second,
+ * kept as a single "theoretical arrival time" updated with compare-and-set (GCRA), so the
+ * check takes no lock. Buckets live in a ConcurrentHashMap per group, whose lookups of
+ * existing keys are lock-free too; buckets idle long enough to be full again are evicted,
+ * which loses nothing since a new bucket starts full.
+ *
+ * Metrics: booktracker.ratelimit.requests (by group and outcome) and booktracker.ratelimit.clients.
+ */
+public class RateLimiter {
+
+    // Settings of a route group, bound from booktracker.rate-limit.groups.<name>.*
+    public static class GroupSettings {
+        private List<String> paths = new ArrayList<>();
+        private double ratePerSecond = 10;
+        private int burst = 20;
+
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+        public double getRatePerSecond() { return ratePerSecond; }
+        public void setRatePerSecond(double ratePerSecond) { this.ratePerSecond = ratePerSecond; }
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+    }
+
+    static final class Group {
+        final String name;
+        final List<PathPattern> patterns;
+        final long intervalNanos;
+        // How far ahead of now the arrival time may run: burst - 1 requests
+        final long toleranceNanos;
+        final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+        Counter allowed;
+        Counter rejected;
+
+        Group(String name, GroupSettings settings) {
+            if (settings.getRatePerSecond() <= 0 || settings.getBurst() < 1) {
+                throw new IllegalArgumentException("Rate limit group " + name + ": rate must be positive, burst at least 1");
+            }
+            this.name = name;
+            this.patterns = settings.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.getRatePerSecond());
+            this.toleranceNanos = intervalNanos * (settings.getBurst() - 1);
+        }
+    }
+
+    // Theoretical arrival time of the next request in System.nanoTime() units
+    static final class Bucket extends AtomicLong {
+
+        Bucket(long now) {
+            super(now);
+        }
+
+        // 0 when the request may pass, otherwise nanoseconds until it would
+        long tryAcquire(long now, long intervalNanos, long toleranceNanos) {
+            while (true) {
+                long arrival = get();
+                long start = Math.max(arrival, now);
+                long ahead = start - now;
+                if (ahead > toleranceNanos) {
+                    return ahead - toleranceNanos;
+                }
+                if (compareAndSet(arrival, start + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean idleSince(long cutoff) {
+            return get() < cutoff;
+        }
+    }
+
+    private final List<Group> groups = new ArrayList<>();
+    private final long idleNanos;
+
+    public RateLimiter(Map<String, GroupSettings> settings, long idleEvictionSeconds, MeterRegistry meterRegistry) {
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleEvictionSeconds);
+        settings.forEach((name, groupSettings) -> {
+            Group group = new Group(name, groupSettings);
+            group.allowed = Counter.builder("booktracker.ratelimit.requests")
+                    .description("Requests checked by the rate limiter")
+                    .tags("group", name, "outcome", "allowed")
+                    .register(meterRegistry);
+            group.rejected = Counter.builder("booktracker.ratelimit.requests")
+                    .description("Requests checked by the rate limiter")
+                    .tags("group", name, "outcome", "rejected")
+                    .register(meterRegistry);
+            Gauge.builder("booktracker.ratelimit.clients", group.buckets, Map::size)
+                    .description("Clients with a rate limit bucket")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            groups.add(group);
+        });
+    }
+
+    // First group with a pattern matching the path, or null when the path is not limited
+    Group groupFor(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (Group group : groups) {
+            for (PathPattern pattern : group.patterns) {
+                if (pattern.matches(container)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    // 0 when the client may make the request now, otherwise nanoseconds to wait
+    long tryAcquire(Group group, String client) {
+        long now = System.nanoTime();
+        Bucket bucket = group.buckets.get(client);
+        if (bucket == null) {
+            bucket = group.buckets.computeIfAbsent(client, key -> new Bucket(now));
+        }
+        long waitNanos = bucket.tryAcquire(now, group.intervalNanos, group.toleranceNanos);
+        (waitNanos == 0 ? group.allowed : group.rejected).increment();
+        return waitNanos;
+    }
+
+    // A bucket whose arrival time is idle-eviction-seconds in the past is full again. A request racing
+    // the removal updates the dropped bucket; the next one starts a new, full bucket, as it would anyway.
+    @Scheduled(fixedDelayString = "${booktracker.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - idleNanos;
+        for (Group group : groups) {
+            group.buckets.values().removeIf(bucket -> bucket.idleSince(cutoff));
+        }
+    }
+}
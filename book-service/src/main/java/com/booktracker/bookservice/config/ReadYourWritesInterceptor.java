@@ -0,0 +1,52 @@
+package com.booktracker.bookservice.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.security.Principal;
+
+/**
+ * Pins a user's reads to the primary for a short while after they changed something,
+ * so a page reload right after a write never shows replica-stale data.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final ReplicaRouting routing;
+
+    public ReadYourWritesInterceptor(ReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Writes and everything they read stay on the primary, as do a recent writer's reads
+        routing.forcePrimary(isWrite(request) || routing.wroteRecently(subject(request)));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        routing.forcePrimary(false);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        routing.forcePrimary(false);
+        if (isWrite(request) && ex == null && response.getStatus() < 400) {
+            routing.recordWrite(subject(request));
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static String subject(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? principal.getName() : null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.booktracker.bookservice.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether read-only work may go to the replica.
+ * The replica is skipped while it lags more than the configured tolerance,
+ * and for a user who wrote within the stickiness window (read-your-writes).
+ * Writes are remembered by this instance only: behind several instances without session affinity,
+ * a user's next read may go to another instance, which does not know about the write.
+ */
+public class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagSeconds;
+    private final long stickyMillis;
+
+    // Keycloak subject -> time of the user's last write
+    private final Map<String, Long> lastWriteBySubject = new ConcurrentHashMap<>();
+
+    private volatile boolean replicaAvailable = true;
+
+    public ReplicaRouting(DataSource replicaDataSource, long maxLagSeconds, long stickySeconds) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagSeconds = maxLagSeconds;
+        this.stickyMillis = stickySeconds * 1000;
+    }
+
+    public boolean useReplica() {
+        return replicaAvailable && !Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+
+    // The current request was pinned to the primary (a write, or a read right after one)
+    public boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+
+    public void recordWrite(String subject) {
+        if (subject != null) {
+            lastWriteBySubject.put(subject, System.currentTimeMillis());
+        }
+    }
+
+    public boolean wroteRecently(String subject) {
+        if (subject == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteBySubject.get(subject);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < stickyMillis;
+    }
+
+    void forcePrimary(boolean force) {
+        if (force) {
+            FORCE_PRIMARY.set(true);
+        } else {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booktracker.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        boolean available;
+        try {
+            List<Map<String, Object>> status = replicaJdbcTemplate.queryForList("SHOW REPLICA STATUS");
+            if (status.isEmpty()) {
+                // Standalone stand-in (e.g. a second local MySQL without replication)
+                available = true;
+            } else {
+                Object lag = status.get(0).get("Seconds_Behind_Source");
+                // null lag means the replication threads are stopped
+                available = lag != null && ((Number) lag).longValue() <= maxLagSeconds;
+            }
+        } catch (Exception e) {
+            System.err.println("[REPLICA] Lag check failed: " + e.getMessage());
+            available = false;
+        }
+
+        if (available != replicaAvailable) {
+            System.out.println("[REPLICA] Read routing " + (available ? "resumed on replica" : "moved to primary"));
+        }
+        replicaAvailable = available;
+
+        long cutoff = System.currentTimeMillis() - stickyMillis;
+        lastWriteBySubject.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+}
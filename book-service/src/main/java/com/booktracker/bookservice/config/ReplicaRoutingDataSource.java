@@ -0,0 +1,29 @@
+package com.booktracker.bookservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends @Transactional(readOnly = true) work to the replica when {@link ReplicaRouting} allows it,
+ * everything else to the primary. Must sit behind a LazyConnectionDataSourceProxy so the
+ * read-only flag is known before the connection is fetched.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final ReplicaRouting routing;
+
+    public ReplicaRoutingDataSource(ReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && routing.useReplica()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
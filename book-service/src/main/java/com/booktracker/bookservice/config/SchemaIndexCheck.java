@@ -0,0 +1,92 @@
+package com.booktracker.bookservice.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks at startup that every index the repository queries rely on exists.
+ * An index matches when its leading columns are the expected ones, whatever its name.
+ */
+@Component
+@ConditionalOnProperty(name = "booktracker.schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexCheck {
+
+    // table -> leading index columns needed by the repository queries
+    static final Map<String, List<List<String>>> EXPECTED_INDEXES = Map.of(
+            "user_library", List.of(
+                    List.of("user_id", "status", "added_at"),
+                    List.of("user_id", "added_at"),
+                    List.of("added_at", "book_id"),
+                    List.of("user_id", "book_id")),
+            "users", List.of(
+                    List.of("keycloak_id"),
+                    List.of("email")),
+            "books", List.of(
+                    List.of("isbn"),
+                    List.of("enriched_at", "id"),
+                    List.of("author_id")),
+            "authors", List.of(
+                    List.of("name_key"),
+                    List.of("surname_key"),
+                    List.of("reader_count")),
+            "reading_progress", List.of(
+                    List.of("user_library_id")),
+            "ratings", List.of(
+                    List.of("user_id", "book_id"),
+                    List.of("book_id", "rating", "user_id"),
+                    List.of("first_rated_at", "book_id"))
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        try {
+            List<String> missing = findMissingIndexes();
+            if (missing.isEmpty()) {
+                System.out.println("[SCHEMA] All expected indexes are present");
+            } else {
+                missing.forEach(index -> System.err.println("[SCHEMA] Missing index: " + index));
+            }
+        } catch (Exception e) {
+            System.err.println("[SCHEMA] Could not verify indexes: " + e.getMessage());
+        }
+    }
+
+    List<String> findMissingIndexes() {
+        // table -> index name -> columns in index order
+        Map<String, Map<String, List<String>>> existing = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT table_name, index_name, column_name FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() ORDER BY table_name, index_name, seq_in_index",
+                rs -> {
+                    existing.computeIfAbsent(rs.getString(1).toLowerCase(), t -> new LinkedHashMap<>())
+                            .computeIfAbsent(rs.getString(2), i -> new ArrayList<>())
+                            .add(rs.getString(3).toLowerCase());
+                });
+
+        List<String> missing = new ArrayList<>();
+        EXPECTED_INDEXES.forEach((table, expectedIndexes) -> {
+            Map<String, List<String>> tableIndexes = existing.getOrDefault(table, Map.of());
+            for (List<String> expected : expectedIndexes) {
+                boolean covered = tableIndexes.values().stream()
+                        .anyMatch(columns -> columns.size() >= expected.size()
+                                && columns.subList(0, expected.size()).equals(expected));
+                if (!covered) {
+                    missing.add(table + "(" + String.join(", ", expected) + ")");
+                }
+            }
+        });
+        return missing;
+    }
+}
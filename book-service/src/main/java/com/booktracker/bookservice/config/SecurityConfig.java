@@ -59,6 +59,7 @@
 package com.booktracker.bookservice.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -84,23 +85,24 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Docker internal URL for the public keys; book-service can reach keycloak:8080 inside the Docker network
+    @Value("${booktracker.security.jwk-set-uri:http://keycloak:8080/realms/booktracker/protocol/openid-connect/certs}")
+    private String jwkSetUri;
+
+    // Accepted token issuers: localhost:8180 when the token was fetched from the host/Postman,
+    // keycloak:8080 when it was fetched from inside the Docker network
+    @Value("${booktracker.security.issuers:http://localhost:8180/realms/booktracker,http://keycloak:8080/realms/booktracker}")
+    private List<String> validIssuers;
+
     @Bean
     public JwtDecoder jwtDecoder() {
-        // Use the Docker internal URL for fetching public keys (JWKS endpoint)
-        // This works because book-service can reach keycloak:8080 inside Docker network
+        // Nothing is fetched here: the JWKS is downloaded (and cached) when the first token is decoded,
+        // so startup does not depend on Keycloak being up
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder
-                .withJwkSetUri("http://keycloak:8080/realms/booktracker/protocol/openid-connect/certs")
+                .withJwkSetUri(jwkSetUri)
                 .build();
 
-        // Accept tokens from both issuers:
-        // 1. http://localhost:8180/realms/booktracker (when accessed from host/Postman)
-        // 2. http://keycloak:8080/realms/booktracker (when accessed from Docker network)
-        List<String> validIssuers = Arrays.asList(
-                "http://localhost:8180/realms/booktracker",
-                "http://keycloak:8080/realms/booktracker"
-        );
-
-        // Create a custom issuer validator that accepts both URLs
+        // Create a custom issuer validator that accepts any of the configured issuers
         OAuth2TokenValidator<Jwt> issuerValidator = new JwtClaimValidator<>(
                 "iss",
                 validIssuers::contains
@@ -129,7 +131,8 @@ public class SecurityConfig {
                                 "/actuator/**",
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
-                                "/api/v1/books/**"
+                                "/api/v1/books/**",
+                                "/api/v1/authors/**"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,56 @@
+package com.booktracker.bookservice.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Measures how long the current request waits for a pooled connection
+ * and how long it keeps it before handing it back.
+ */
+public class TimedDataSource extends DelegatingDataSource {
+
+    public TimedDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        return timed(super.getConnection(), start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        return timed(super.getConnection(username, password), start);
+    }
+
+    private Connection timed(Connection connection, long start) {
+        DbRequestTimings timings = DbRequestTimings.current();
+        if (timings == null) {
+            // Not inside a web request (startup, scheduled work): nothing to attribute
+            return connection;
+        }
+        long acquired = System.nanoTime();
+        timings.recordAcquire(acquired - start);
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && !connection.isClosed()) {
+                        timings.recordUsage(System.nanoTime() - acquired);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
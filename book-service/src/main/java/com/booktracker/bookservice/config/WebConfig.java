@@ -0,0 +1,57 @@
+package com.booktracker.bookservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Only present when a read replica is configured (see DataSourceConfig)
+    @Autowired(required = false)
+    private ReplicaRouting replicaRouting;
+
+    // Library and rating entries carry no modification timestamp, so their ETag is
+    // computed from the response body. Clients still get a bodyless 304 when nothing changed.
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/v1/library/*", "/api/v1/ratings/*");
+        registration.setName("shallowEtagHeaderFilter");
+        return registration;
+    }
+
+    // Wraps each connection pool so connection wait and hold times can be attributed to endpoints
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return new TimedDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DbTimingInterceptor(meterRegistry)).addPathPatterns("/api/**");
+        if (replicaRouting != null) {
+            registry.addInterceptor(new ReadYourWritesInterceptor(replicaRouting)).addPathPatterns("/api/**");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.booktracker.bookservice.controller;
+
+import com.booktracker.bookservice.dto.AuthorDTO;
+import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.service.AuthorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/authors")
+@CrossOrigin(origins = "http://localhost:8080")
+public class AuthorRestController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private AuthorService authorService;
+
+    // GET /api/v1/authors?q={prefix}&limit={n} - Typeahead: authors whose name or surname starts
+    // with q (case and accents ignored), most read first; the most read authors without q
+    @GetMapping
+    public ResponseEntity<List<AuthorDTO>> getAuthors(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<AuthorDTO> authors = query != null
+                ? authorService.findAuthorsByPrefix(query, limit)
+                : authorService.findTopAuthors(limit);
+        return ResponseEntity.ok(authors);
+    }
+
+    // GET /api/v1/authors/{id} - Author with book, reader and rating counts
+    @GetMapping("/{id}")
+    public ResponseEntity<AuthorDTO> getAuthorById(@PathVariable Long id) {
+        AuthorDTO author = authorService.findAuthorById(id);
+        return author != null ? ResponseEntity.ok(author) : ResponseEntity.notFound().build();
+    }
+
+    // GET /api/v1/authors/{id}/books - Books of an author, by title
+    @GetMapping("/{id}/books")
+    public ResponseEntity<List<Book>> getAuthorBooks(@PathVariable Long id) {
+        if (authorService.findAuthorById(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(authorService.findBooksByAuthor(id));
+    }
+}
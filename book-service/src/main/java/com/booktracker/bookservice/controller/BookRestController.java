@@ -1,14 +1,21 @@
 package com.booktracker.bookservice.controller;
 
+import com.booktracker.bookservice.dto.TrendingBookDTO;
 import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.service.BookReadCoalescer;
 import com.booktracker.bookservice.service.BookService;
+import com.booktracker.bookservice.service.TrendingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
@@ -19,17 +26,44 @@ public class BookRestController {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookReadCoalescer bookReadCoalescer;
+
+    @Autowired
+    private TrendingService trendingService;
+
     // GET /api/v1/books - Get all books
+    // Answers 304 from (count, max(updatedAt)) before the catalog is loaded. ETag only: a delete
+    // does not advance max(updatedAt), so If-Modified-Since alone would revalidate a stale catalog
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
+    public ResponseEntity<List<Book>> getAllBooks(WebRequest webRequest) {
+        LocalDateTime lastModified = bookService.getCatalogLastModified();
+        if (lastModified != null) {
+            String eTag = "W/\"books-" + bookService.countBooks() + "-" + toEpochMillis(lastModified) + "\"";
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+        }
+
         List<Book> books = bookService.findAllBooks();
         return ResponseEntity.ok(books);
     }
 
     // GET /api/v1/books/{id} - Get book by ID
+    // Answers 304 from the updatedAt column alone, the full row is only loaded when it changed.
+    // Concurrent requests for the same book share both queries (BookReadCoalescer).
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
-        Book book = bookService.findBookById(id);
+    public ResponseEntity<Book> getBookById(@PathVariable Long id, WebRequest webRequest) {
+        LocalDateTime lastModified = bookReadCoalescer.getBookLastModified(id);
+        if (lastModified != null) {
+            long millis = toEpochMillis(lastModified);
+            String eTag = "W/\"book-" + id + "-" + millis + "\"";
+            if (webRequest.checkNotModified(eTag, millis)) {
+                return null;
+            }
+        }
+
+        Book book = bookReadCoalescer.findBookById(id);
         if (book == null) {
             return ResponseEntity.notFound().build();
         }
@@ -43,18 +77,45 @@ public class BookRestController {
         return ResponseEntity.ok(results);
     }
 
-    // POST /api/v1/books - Create a new book
+    // GET /api/v1/books/trending?window=hour|day|week&limit={n} - Most added and rated books lately
+    // Served from the in-memory leaderboard (TrendingService), refreshed every few seconds
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingBookDTO>> getTrendingBooks(
+            @RequestParam(defaultValue = "day") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        TrendingService.Window trendingWindow = TrendingService.Window.parse(window);
+        if (trendingWindow == null || limit < 1 || limit > trendingService.getTopSize()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(trendingService.getTrending(trendingWindow, limit));
+    }
+
+    // POST /api/v1/books - Create a new book, or return the existing one (200) when a book with
+    // the same Open Library key or ISBN is already in the catalog
     @PostMapping
     public ResponseEntity<Book> createBook(@RequestBody Book book) {
-        Book savedBook = bookService.saveBook(book);
-
-        URI location = ServletUriComponentsBuilder
-                .fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(savedBook.getId())
-                .toUri();
+        Book existingBook = bookService.findCatalogMatch(book);
+        if (existingBook == null) {
+            try {
+                Book savedBook = bookService.saveBook(book);
+                return ResponseEntity.created(locationOf(savedBook)).body(savedBook);
+            } catch (DataIntegrityViolationException e) {
+                // Created by a concurrent request between the lookup and the insert
+                existingBook = bookService.findCatalogMatch(book);
+                if (existingBook == null) {
+                    throw e;
+                }
+            }
+        }
+        return ResponseEntity.ok().location(locationOf(existingBook)).body(existingBook);
+    }
 
-        return ResponseEntity.created(location).body(savedBook);
+    // PATCH /api/v1/books/{id}/enrichment - Details looked up on Open Library (description,
+    // totalPages, publisher, publishYear); fills missing fields only and sets enrichedAt
+    @PatchMapping("/{id}/enrichment")
+    public ResponseEntity<Book> enrichBook(@PathVariable Long id, @RequestBody Book details) {
+        Book enrichedBook = bookService.enrichBook(id, details);
+        return enrichedBook != null ? ResponseEntity.ok(enrichedBook) : ResponseEntity.notFound().build();
     }
 
     // PUT /api/v1/books/{id} - Full update (replace entire resource)
@@ -105,4 +166,16 @@ public class BookRestController {
         bookService.deleteBook(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static URI locationOf(Book book) {
+        return ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(book.getId())
+                .toUri();
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 }
\ No newline at end of file
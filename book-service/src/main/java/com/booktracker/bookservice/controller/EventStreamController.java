@@ -0,0 +1,38 @@
+package com.booktracker.bookservice.controller;
+
+import com.booktracker.bookservice.entity.User;
+import com.booktracker.bookservice.event.DomainEventStream;
+import com.booktracker.bookservice.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/events")
+public class EventStreamController {
+
+    @Autowired
+    private DomainEventStream eventStream;
+
+    @Autowired
+    private UserService userService;
+
+    // GET /api/v1/events/users/{userId} - Library, progress and rating changes of a user as SSE
+    // Only the user the token belongs to may subscribe to their stream
+    @GetMapping(value = "/users/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamUserEvents(@PathVariable Long userId, @AuthenticationPrincipal Jwt jwt) {
+        User user = userService.findByKeycloakId(jwt.getSubject());
+        if (user == null) {
+            user = userService.findByEmail(jwt.getClaimAsString("email"));
+        }
+        if (user == null || !user.getId().equals(userId)) {
+            System.err.println("[SSE] Refused stream of user " + userId + " to subject " + jwt.getSubject());
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(eventStream.subscribe(userId));
+    }
+}
@@ -1,10 +1,17 @@
 package com.booktracker.bookservice.controller;
 
+import com.booktracker.bookservice.dto.LibraryEntrySummaryDTO;
+import com.booktracker.bookservice.dto.LibraryListQuery;
+import com.booktracker.bookservice.dto.LibraryPageDTO;
+import com.booktracker.bookservice.dto.LibraryStatusDTO;
+import com.booktracker.bookservice.dto.LibraryTitleDTO;
+import com.booktracker.bookservice.dto.ProgressUpdateDTO;
 import com.booktracker.bookservice.entity.ReadingProgress;
 import com.booktracker.bookservice.entity.ReadingStatus;
 import com.booktracker.bookservice.entity.UserLibrary;
 import com.booktracker.bookservice.service.UserLibraryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -22,7 +29,7 @@ public class LibraryRestController {
     private UserLibraryService libraryService;
 
     @PostMapping
-    public ResponseEntity<UserLibrary> addBook(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<LibraryEntrySummaryDTO> addBook(@RequestBody Map<String, Object> request) {
         try {
             System.out.println("=== Add Book to Library ===");
             System.out.println("Request: " + request);
@@ -44,7 +51,24 @@ public class LibraryRestController {
 
             System.out.println("userId: " + userId + ", bookId: " + bookId + ", status: " + status);
 
-            UserLibrary library = libraryService.addBookToLibrary(userId, bookId, status);
+            // Already in the library (double click, second device): the existing entry, unchanged
+            LibraryEntrySummaryDTO existing = libraryService.findLibraryEntry(userId, bookId);
+            if (existing != null) {
+                return ResponseEntity.ok(existing);
+            }
+
+            LibraryEntrySummaryDTO library;
+            try {
+                library = libraryService.addBookToLibrary(userId, bookId, status);
+            } catch (DataIntegrityViolationException e) {
+                // Added by a concurrent request between the lookup and the insert (uk_user_library_user_book);
+                // a missing user or book violates a foreign key instead and finds no entry
+                existing = libraryService.findLibraryEntry(userId, bookId);
+                if (existing == null) {
+                    throw e;
+                }
+                return ResponseEntity.ok(existing);
+            }
 
             URI location = ServletUriComponentsBuilder
                     .fromCurrentRequest()
@@ -66,14 +90,34 @@ public class LibraryRestController {
         return ResponseEntity.ok(library);
     }
 
+    /**
+     * Filtered, cursor paginated listing with sparse fields, e.g.
+     * ?status=READING&limit=20&fields=title,author,coverUrl,currentPage,totalPages
+     * Follow nextCursor (cursor=...) for the next page.
+     */
+    @GetMapping("/users/{userId}/entries")
+    public ResponseEntity<?> listEntries(@PathVariable Long userId, @ModelAttribute LibraryListQuery query) {
+        try {
+            LibraryPageDTO page = libraryService.listEntries(userId, query);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Lightweight membership listing (book id, title, isbn) for "already in library" badges
+    @GetMapping("/users/{userId}/titles")
+    public ResponseEntity<List<LibraryTitleDTO>> getLibraryTitles(@PathVariable Long userId) {
+        return ResponseEntity.ok(libraryService.getLibraryTitles(userId));
+    }
+
     @GetMapping("/users/{userId}/status/{status}")
     public ResponseEntity<List<UserLibrary>> getBooksByStatus(
-            @PathVariable String userId,
+            @PathVariable Long userId,
             @PathVariable String status) {
         try {
-            Long numericUserId = (long) userId.hashCode();
             ReadingStatus readingStatus = ReadingStatus.valueOf(status.toUpperCase());
-            List<UserLibrary> books = libraryService.getBooksByStatus(numericUserId, readingStatus);
+            List<UserLibrary> books = libraryService.getBooksByStatus(userId, readingStatus);
             return ResponseEntity.ok(books);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -94,12 +138,12 @@ public class LibraryRestController {
     }
 
     @PatchMapping("/{libraryId}/status")
-    public ResponseEntity<UserLibrary> updateStatus(
+    public ResponseEntity<LibraryStatusDTO> updateStatus(
             @PathVariable Long libraryId,
             @RequestBody Map<String, String> request) {
         try {
             ReadingStatus newStatus = ReadingStatus.valueOf(request.get("status"));
-            UserLibrary updated = libraryService.updateStatus(libraryId, newStatus);
+            LibraryStatusDTO updated = libraryService.updateStatus(libraryId, newStatus);
             return ResponseEntity.ok(updated);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -107,12 +151,12 @@ public class LibraryRestController {
     }
 
     @PutMapping("/{libraryId}/status")
-    public ResponseEntity<UserLibrary> updateStatusPut(
+    public ResponseEntity<LibraryStatusDTO> updateStatusPut(
             @PathVariable Long libraryId,
             @RequestBody Map<String, String> request) {
         try {
             ReadingStatus newStatus = ReadingStatus.valueOf(request.get("status"));
-            UserLibrary updated = libraryService.updateStatus(libraryId, newStatus);
+            LibraryStatusDTO updated = libraryService.updateStatus(libraryId, newStatus);
             return ResponseEntity.ok(updated);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -130,7 +174,7 @@ public class LibraryRestController {
     }
 
     @PatchMapping("/{libraryId}/progress")
-    public ResponseEntity<ReadingProgress> updateProgress(
+    public ResponseEntity<ProgressUpdateDTO> updateProgress(
             @PathVariable Long libraryId,
             @RequestBody Map<String, Object> request) {
         try {
@@ -139,7 +183,7 @@ public class LibraryRestController {
                     Integer.valueOf(request.get("totalPages").toString()) : null;
             String notes = request.getOrDefault("notes", "").toString();
 
-            ReadingProgress progress;
+            ProgressUpdateDTO progress;
             if (totalPages != null) {
                 progress = libraryService.updateProgressWithTotal(libraryId, currentPage, totalPages, notes);
             } else {
@@ -180,7 +224,7 @@ public class LibraryRestController {
 
             System.out.println("Parsed - currentPage: " + currentPage + ", totalPages: " + totalPages + ", notes: " + notes);
 
-            ReadingProgress progress;
+            ProgressUpdateDTO progress;
             if (totalPages != null) {
                 progress = libraryService.updateProgressWithTotal(libraryId, currentPage, totalPages, notes);
             } else {
@@ -1,6 +1,9 @@
 package com.booktracker.bookservice.controller;
 
+import com.booktracker.bookservice.dto.RatingResultDTO;
 import com.booktracker.bookservice.entity.Rating;
+import com.booktracker.bookservice.service.BookReadCoalescer;
+import com.booktracker.bookservice.service.IdempotencyKeyReusedException;
 import com.booktracker.bookservice.service.RatingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -8,20 +11,31 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/ratings")
 @CrossOrigin(origins = "*")
 public class RatingRestController {
 
+    // Upper bound on ids per batch request, a catalog page shows 24 books
+    private static final int MAX_BATCH_SIZE = 100;
+
     @Autowired
     private RatingService ratingService;
 
+    @Autowired
+    private BookReadCoalescer bookReadCoalescer;
+
     // POST /api/v1/ratings - Create or update a rating
+    // An Idempotency-Key header makes retries of the same request safe; reusing it for another request is a 422
     @PostMapping
-    public ResponseEntity<Rating> rateBook(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<RatingResultDTO> rateBook(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             System.out.println("=== Rate Book Request ===");
             System.out.println("Request: " + request);
@@ -32,7 +46,11 @@ public class RatingRestController {
 
             System.out.println("userId: " + userId + ", bookId: " + bookId + ", rating: " + rating);
 
-            Rating savedRating = ratingService.rateBook(userId, bookId, rating);
+            if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 64)) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            RatingResultDTO savedRating = ratingService.rateBook(userId, bookId, rating, idempotencyKey);
 
             URI location = ServletUriComponentsBuilder
                     .fromCurrentRequest()
@@ -41,6 +59,9 @@ public class RatingRestController {
                     .toUri();
 
             return ResponseEntity.created(location).body(savedRating);
+        } catch (IdempotencyKeyReusedException e) {
+            System.err.println("Error rating book: " + e.getMessage());
+            return ResponseEntity.unprocessableEntity().build();
         } catch (Exception e) {
             System.err.println("Error rating book: " + e.getMessage());
             e.printStackTrace();
@@ -77,10 +98,11 @@ public class RatingRestController {
     }
 
     // GET /api/v1/ratings/book/{bookId}/stats - Get rating statistics for a book
+    // Concurrent requests for the same book share one query (BookReadCoalescer)
     @GetMapping("/books/{bookId}/stats")
     public ResponseEntity<Map<String, Object>> getBookRatingStats(@PathVariable Long bookId) {
         try {
-            Map<String, Object> stats = ratingService.getBookRatingStats(bookId);
+            Map<String, Object> stats = bookReadCoalescer.getBookRatingStats(bookId);
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
             return ResponseEntity.ok(Map.of(
@@ -90,6 +112,18 @@ public class RatingRestController {
         }
     }
 
+    // GET /api/v1/ratings/books/stats?ids=1,2,3&userId={userId} - Stats and user's rating for several books
+    @GetMapping("/books/stats")
+    public ResponseEntity<Map<Long, Map<String, Object>>> getBatchRatingStats(
+            @RequestParam("ids") List<Long> bookIds,
+            @RequestParam(required = false) Long userId) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(bookIds);
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ratingService.getBatchRatingStats(uniqueIds, userId));
+    }
+
     // GET /api/v1/ratings/book/{bookId} - Get all ratings for a book
     @GetMapping("/books/{bookId}")
     public ResponseEntity<List<Rating>> getBookRatings(@PathVariable Long bookId) {
@@ -0,0 +1,40 @@
+package com.booktracker.bookservice.dto;
+
+import com.booktracker.bookservice.entity.Author;
+
+// An author with the precomputed counts of its books; averageRating is 0.0 without ratings
+public class AuthorDTO {
+    private Long id;
+    private String name;
+    private int bookCount;
+    private int readerCount;
+    private int ratingCount;
+    private double averageRating;
+
+    public AuthorDTO() {}
+
+    public AuthorDTO(Author author) {
+        this.id = author.getId();
+        this.name = author.getName();
+        this.bookCount = author.getBookCount();
+        this.readerCount = author.getReaderCount();
+        this.ratingCount = author.getRatingCount();
+        this.averageRating = author.getRatingCount() > 0
+                ? Math.round(10.0 * author.getRatingSum() / author.getRatingCount()) / 10.0
+                : 0.0;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public int getBookCount() { return bookCount; }
+    public void setBookCount(int bookCount) { this.bookCount = bookCount; }
+    public int getReaderCount() { return readerCount; }
+    public void setReaderCount(int readerCount) { this.readerCount = readerCount; }
+    public int getRatingCount() { return ratingCount; }
+    public void setRatingCount(int ratingCount) { this.ratingCount = ratingCount; }
+    public double getAverageRating() { return averageRating; }
+    public void setAverageRating(double averageRating) { this.averageRating = averageRating; }
+}
@@ -0,0 +1,33 @@
+package com.booktracker.bookservice.dto;
+
+import com.booktracker.bookservice.entity.ReadingStatus;
+import java.time.LocalDateTime;
+
+// Library entry as returned by write endpoints: ids only, no user/book/progress graph
+public class LibraryEntrySummaryDTO {
+    private Long id;
+    private Long userId;
+    private Long bookId;
+    private ReadingStatus status;
+    private LocalDateTime addedAt;
+
+    public LibraryEntrySummaryDTO(Long id, Long userId, Long bookId, ReadingStatus status, LocalDateTime addedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.bookId = bookId;
+        this.status = status;
+        this.addedAt = addedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+    public ReadingStatus getStatus() { return status; }
+    public void setStatus(ReadingStatus status) { this.status = status; }
+    public LocalDateTime getAddedAt() { return addedAt; }
+    public void setAddedAt(LocalDateTime addedAt) { this.addedAt = addedAt; }
+}
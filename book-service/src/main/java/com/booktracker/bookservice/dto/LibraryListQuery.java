@@ -0,0 +1,46 @@
+package com.booktracker.bookservice.dto;
+
+import com.booktracker.bookservice.entity.ReadingStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Query parameters of the library listing: filters, ordering, cursor paging and fields= projection
+public class LibraryListQuery {
+    private ReadingStatus status;
+    // Case-insensitive substring of the book author
+    private String author;
+    // Inclusive range on the date the entry was added
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate addedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate addedTo;
+    // addedAt or lastUpdated (progress change, falls back to addedAt)
+    private String sort = "addedAt";
+    private String order = "desc";
+    // nextCursor of the previous page
+    private String cursor;
+    private Integer limit = 20;
+    // Comma separated field names; id is always returned
+    private String fields;
+
+    // Getters and Setters
+    public ReadingStatus getStatus() { return status; }
+    public void setStatus(ReadingStatus status) { this.status = status; }
+    public String getAuthor() { return author; }
+    public void setAuthor(String author) { this.author = author; }
+    public LocalDate getAddedFrom() { return addedFrom; }
+    public void setAddedFrom(LocalDate addedFrom) { this.addedFrom = addedFrom; }
+    public LocalDate getAddedTo() { return addedTo; }
+    public void setAddedTo(LocalDate addedTo) { this.addedTo = addedTo; }
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+    public String getOrder() { return order; }
+    public void setOrder(String order) { this.order = order; }
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+    public String getFields() { return fields; }
+    public void setFields(String fields) { this.fields = fields; }
+}
@@ -0,0 +1,21 @@
+package com.booktracker.bookservice.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// One page of library entries with only the requested fields; nextCursor is null on the last page
+public class LibraryPageDTO {
+    private List<Map<String, Object>> items;
+    private String nextCursor;
+
+    public LibraryPageDTO(List<Map<String, Object>> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<Map<String, Object>> getItems() { return items; }
+    public void setItems(List<Map<String, Object>> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,20 @@
+package com.booktracker.bookservice.dto;
+
+import com.booktracker.bookservice.entity.ReadingStatus;
+
+// Result of a status change on a library entry
+public class LibraryStatusDTO {
+    private Long id;
+    private ReadingStatus status;
+
+    public LibraryStatusDTO(Long id, ReadingStatus status) {
+        this.id = id;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public ReadingStatus getStatus() { return status; }
+    public void setStatus(ReadingStatus status) { this.status = status; }
+}
@@ -0,0 +1,27 @@
+package com.booktracker.bookservice.dto;
+
+// Minimal view of a library entry, enough for "already in my library" checks
+public class LibraryTitleDTO {
+    private Long bookId;
+    private String title;
+    private String isbn;
+    private boolean hasCover;
+
+    // Used by the JPQL constructor expression in UserLibraryRepository
+    public LibraryTitleDTO(Long bookId, String title, String isbn, String coverUrl) {
+        this.bookId = bookId;
+        this.title = title;
+        this.isbn = isbn;
+        this.hasCover = coverUrl != null && !coverUrl.isEmpty();
+    }
+
+    // Getters and Setters
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getIsbn() { return isbn; }
+    public void setIsbn(String isbn) { this.isbn = isbn; }
+    public boolean isHasCover() { return hasCover; }
+    public void setHasCover(boolean hasCover) { this.hasCover = hasCover; }
+}
@@ -0,0 +1,42 @@
+package com.booktracker.bookservice.dto;
+
+import com.booktracker.bookservice.entity.ReadingStatus;
+import java.time.LocalDateTime;
+
+// Result of a progress update; progressPercent and status are null when the page count is unknown
+public class ProgressUpdateDTO {
+    private Long libraryId;
+    private Integer currentPage;
+    private Integer totalPages;
+    private Double progressPercent;
+    private ReadingStatus status;
+    private String notes;
+    private LocalDateTime lastUpdated;
+
+    public ProgressUpdateDTO(Long libraryId, Integer currentPage, Integer totalPages, Double progressPercent,
+                             ReadingStatus status, String notes, LocalDateTime lastUpdated) {
+        this.libraryId = libraryId;
+        this.currentPage = currentPage;
+        this.totalPages = totalPages;
+        this.progressPercent = progressPercent;
+        this.status = status;
+        this.notes = notes;
+        this.lastUpdated = lastUpdated;
+    }
+
+    // Getters and Setters
+    public Long getLibraryId() { return libraryId; }
+    public void setLibraryId(Long libraryId) { this.libraryId = libraryId; }
+    public Integer getCurrentPage() { return currentPage; }
+    public void setCurrentPage(Integer currentPage) { this.currentPage = currentPage; }
+    public Integer getTotalPages() { return totalPages; }
+    public void setTotalPages(Integer totalPages) { this.totalPages = totalPages; }
+    public Double getProgressPercent() { return progressPercent; }
+    public void setProgressPercent(Double progressPercent) { this.progressPercent = progressPercent; }
+    public ReadingStatus getStatus() { return status; }
+    public void setStatus(ReadingStatus status) { this.status = status; }
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+}
@@ -0,0 +1,36 @@
+package com.booktracker.bookservice.dto;
+
+import java.time.LocalDateTime;
+
+// Rating as returned by the upsert, with ids instead of the user and book graphs
+public class RatingResultDTO {
+    private Long id;
+    private Long userId;
+    private Long bookId;
+    private Integer rating;
+    private LocalDateTime ratedAt;
+
+    // Used by Jackson when an idempotent retry replays the stored response
+    public RatingResultDTO() {}
+
+    // Used by the JPQL constructor expression in RatingRepository
+    public RatingResultDTO(Long id, Long userId, Long bookId, Integer rating, LocalDateTime ratedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.bookId = bookId;
+        this.rating = rating;
+        this.ratedAt = ratedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+    public Integer getRating() { return rating; }
+    public void setRating(Integer rating) { this.rating = rating; }
+    public LocalDateTime getRatedAt() { return ratedAt; }
+    public void setRatedAt(LocalDateTime ratedAt) { this.ratedAt = ratedAt; }
+}
@@ -0,0 +1,30 @@
+package com.booktracker.bookservice.dto;
+
+// A book of the trending leaderboard; score is the time-decayed number of library adds and ratings
+public class TrendingBookDTO {
+    private Long bookId;
+    private String title;
+    private String author;
+    private String coverUrl;
+    private double score;
+
+    public TrendingBookDTO(Long bookId, String title, String author, String coverUrl, double score) {
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.coverUrl = coverUrl;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getAuthor() { return author; }
+    public void setAuthor(String author) { this.author = author; }
+    public String getCoverUrl() { return coverUrl; }
+    public void setCoverUrl(String coverUrl) { this.coverUrl = coverUrl; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
@@ -0,0 +1,342 @@
+package com.booktracker.bookservice.enrichment;
+
+import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.entity.JobCheckpoint;
+import com.booktracker.bookservice.repository.BookRepository;
+import com.booktracker.bookservice.repository.JobCheckpointRepository;
+import com.booktracker.bookservice.service.BookService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backfills catalog books that were never looked up and miss a page count, ISBN, description
+ * or publication year (books added through vitrine are enriched on add, see vitrine's
+ * BookEnrichmentWorker). Books are read in id order, one page at a time, looked up on
+ * concurrency threads under the rate limit of {@link OpenLibraryClient}, and each page is
+ * written back in one transaction together with the checkpoint, so a restart resumes after
+ * the last committed page. When the scan reaches the end it starts over on the next run.
+ *
+ * A failed lookup (after the client's own retries) is tried again on a later pass, waiting
+ * attempt-backoff-minutes and twice as long after every failure, up to max-attempts.
+ * Every replica schedules it, but a run only proceeds while it holds a MySQL named lock
+ * (GET_LOCK), so one instance works through the shared checkpoint at a time.
+ * Results are written column by column (BookService.saveEnrichmentResults), never as whole rows.
+ *
+ * Metrics: booktracker.enrichment.books (by result), .backlog, .checkpoint, .throughput
+ * (books per second of the last page) and .page (lookup and write time of a page).
+ */
+@Component
+@ConditionalOnProperty(name = "booktracker.enrichment.enabled", havingValue = "true", matchIfMissing = true)
+public class BookEnrichmentJob {
+
+    static final String CHECKPOINT = "book-enrichment";
+    private static final String LOCK_NAME = "booktracker." + CHECKPOINT;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private OpenLibraryClient openLibraryClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booktracker.enrichment.page-size:50}")
+    private int pageSize;
+
+    @Value("${booktracker.enrichment.concurrency:4}")
+    private int concurrency;
+
+    @Value("${booktracker.enrichment.max-books-per-run:1000}")
+    private int maxBooksPerRun;
+
+    @Value("${booktracker.enrichment.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${booktracker.enrichment.attempt-backoff-minutes:60}")
+    private long attemptBackoffMinutes;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong checkpointId = new AtomicLong();
+    private volatile double throughput;
+
+    private Counter enrichedCounter;
+    private Counter notFoundCounter;
+    private Counter retryCounter;
+    private Counter gaveUpCounter;
+    private Timer pageTimer;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "book-enrichment-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("booktracker.enrichment.backlog", backlog, AtomicLong::get)
+                .description("Books never looked up that miss a detail")
+                .register(meterRegistry);
+        Gauge.builder("booktracker.enrichment.checkpoint", checkpointId, AtomicLong::get)
+                .description("Id of the last book of the last committed page")
+                .register(meterRegistry);
+        Gauge.builder("booktracker.enrichment.throughput", this, job -> job.throughput)
+                .description("Books per second of the last page")
+                .register(meterRegistry);
+        enrichedCounter = books("enriched");
+        notFoundCounter = books("not_found");
+        retryCounter = books("retry");
+        gaveUpCounter = books("gave_up");
+        pageTimer = Timer.builder("booktracker.enrichment.page")
+                .description("Lookup and write time of a page of books")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(initialDelayString = "${booktracker.enrichment.initial-delay-ms:60000}",
+            fixedDelayString = "${booktracker.enrichment.interval-ms:300000}")
+    public void run() {
+        // The named lock belongs to this connection, which is held (idle) until the run ends
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!lock(connection, "SELECT GET_LOCK(?, 0)")) {
+                System.out.println("[ENRICH] Another instance is running the job, skipping this run");
+                return null;
+            }
+            try {
+                runLocked();
+            } finally {
+                lock(connection, "SELECT RELEASE_LOCK(?)");
+            }
+            return null;
+        });
+    }
+
+    private void runLocked() {
+        try {
+            // Read on the primary: a lagging replica would hand back an older checkpoint
+            long afterId = transactionTemplate.execute(status -> checkpointRepository.findById(CHECKPOINT)
+                    .map(JobCheckpoint::getLastId).orElse(0L));
+            int processed = 0;
+            while (processed < maxBooksPerRun) {
+                List<Book> page = bookRepository.findIncompleteAfter(afterId, LocalDateTime.now(),
+                        PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    if (afterId > 0) {
+                        saveCheckpoint(0L);
+                        System.out.println("[ENRICH] Reached the end of the catalog, next run starts over");
+                    }
+                    break;
+                }
+                afterId = enrichPage(page);
+                processed += page.size();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.println("[ENRICH] Run failed, resuming from the checkpoint next run: " + e.getMessage());
+        } finally {
+            refreshBacklog();
+        }
+    }
+
+    // Looks up a page concurrently and writes it back; returns the id to continue after
+    private long enrichPage(List<Book> page) throws InterruptedException {
+        long start = System.nanoTime();
+        Map<Long, Book> details = new ConcurrentHashMap<>();
+        Map<Long, LocalDateTime> retryAt = new ConcurrentHashMap<>();
+
+        List<Future<?>> lookups = new ArrayList<>();
+        for (Book book : page) {
+            lookups.add(executor.submit(() -> lookUp(book, details, retryAt)));
+        }
+        try {
+            for (Future<?> lookup : lookups) {
+                lookup.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            lookups.forEach(lookup -> lookup.cancel(true));
+        }
+
+        long lastId = page.get(page.size() - 1).getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            bookService.saveEnrichmentResults(details, retryAt);
+            checkpointRepository.save(new JobCheckpoint(CHECKPOINT, lastId));
+        });
+        checkpointId.set(lastId);
+
+        long elapsed = System.nanoTime() - start;
+        pageTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        throughput = page.size() / (elapsed / 1e9);
+        System.out.printf("[ENRICH] %d books up to id %d: %d looked up, %d to retry in %.1f s (%.1f books/s)%n",
+                page.size(), lastId, details.size(), retryAt.size(), elapsed / 1e9, throughput);
+        return lastId;
+    }
+
+    // Runs on an executor thread; an empty Book marks a book Open Library does not know
+    private void lookUp(Book book, Map<Long, Book> details, Map<Long, LocalDateTime> retryAt) {
+        try {
+            Book found = fetchDetails(book);
+            details.put(book.getId(), found != null ? found : new Book());
+            (found != null ? enrichedCounter : notFoundCounter).increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            int attempts = book.getEnrichmentAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                details.put(book.getId(), new Book());
+                gaveUpCounter.increment();
+                System.err.println("[ENRICH] Giving up on book " + book.getId() + ": " + e.getMessage());
+            } else {
+                retryAt.put(book.getId(), LocalDateTime.now().plusMinutes(attemptBackoffMinutes << (attempts - 1)));
+                retryCounter.increment();
+            }
+        }
+    }
+
+    // By work key, then ISBN, then title and author (only kept when the titles match); null when unknown
+    private Book fetchDetails(Book book) throws InterruptedException {
+        Map<String, Object> doc;
+        if (book.getOpenLibraryKey() != null) {
+            doc = openLibraryClient.searchByKey(book.getOpenLibraryKey());
+        } else if (book.getIsbn() != null) {
+            doc = openLibraryClient.searchByIsbn(book.getIsbn());
+        } else {
+            doc = openLibraryClient.searchByTitle(book.getTitle(), book.getAuthor());
+            if (doc != null && !sameTitle(book.getTitle(), doc.get("title"))) {
+                doc = null;
+            }
+        }
+        if (doc == null) {
+            return null;
+        }
+
+        Book details = new Book();
+        details.setOpenLibraryKey(doc.get("key") instanceof String key ? key : null);
+        details.setTotalPages(doc.get("number_of_pages_median") instanceof Number pages ? pages.intValue() : null);
+        details.setPublishYear(doc.get("first_publish_year") instanceof Number year ? year.intValue() : null);
+        details.setPublisher(first(doc.get("publisher")));
+        details.setIsbn(preferredIsbn(doc.get("isbn")));
+        if (book.getDescription() == null && details.getOpenLibraryKey() != null) {
+            Map<String, Object> work = openLibraryClient.getWork(details.getOpenLibraryKey());
+            details.setDescription(work != null ? description(work.get("description")) : null);
+        }
+        return details;
+    }
+
+    // 1 when the lock was taken (or released), 0 when another session holds it
+    private static boolean lock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void saveCheckpoint(long lastId) {
+        transactionTemplate.executeWithoutResult(status ->
+                checkpointRepository.save(new JobCheckpoint(CHECKPOINT, lastId)));
+        checkpointId.set(lastId);
+    }
+
+    private void refreshBacklog() {
+        try {
+            backlog.set(bookRepository.countIncomplete());
+        } catch (RuntimeException e) {
+            System.err.println("[ENRICH] Could not count the backlog: " + e.getMessage());
+        }
+    }
+
+    private Counter books(String result) {
+        return Counter.builder("booktracker.enrichment.books")
+                .description("Books looked up by the enrichment job")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // "The Hobbit" matches "the hobbit" and "The Hobbit: or There and Back Again"
+    static boolean sameTitle(String title, Object found) {
+        return found instanceof String other && comparable(title).equals(comparable(other));
+    }
+
+    private static String comparable(String title) {
+        int subtitle = title.indexOf(':');
+        return (subtitle > 0 ? title.substring(0, subtitle) : title).toLowerCase().replaceAll("[^\\p{L}\\p{N}]", "");
+    }
+
+    private static String first(Object values) {
+        return values instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof String value ? value : null;
+    }
+
+    // An ISBN-13 when the work has one
+    private static String preferredIsbn(Object isbns) {
+        if (!(isbns instanceof List<?> list)) {
+            return null;
+        }
+        return list.stream().filter(String.class::isInstance).map(String.class::cast)
+                .filter(isbn -> isbn.length() == 13).findFirst()
+                .orElse(first(list));
+    }
+
+    // A work description is either a string or {"type": "/type/text", "value": "..."}
+    private static String description(Object description) {
+        if (description instanceof Map<?, ?> text) {
+            description = text.get("value");
+        }
+        return description instanceof String value && !value.isBlank() ? value : null;
+    }
+}
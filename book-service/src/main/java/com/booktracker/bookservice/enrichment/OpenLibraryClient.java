@@ -0,0 +1,162 @@
+package com.booktracker.bookservice.enrichment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open Library (or a compatible endpoint, see booktracker.enrichment.openlibrary-url) calls of the
+ * enrichment job. Every request takes a token from one {@link TokenBucket} shared by all job threads.
+ * Throttling (429), server errors and I/O errors are retried with exponential backoff and jitter,
+ * honouring Retry-After; a 404 is an unknown book, any other error is thrown.
+ *
+ * Metrics: booktracker.enrichment.request (by outcome) and booktracker.enrichment.throttle
+ * (time spent waiting for a token).
+ */
+@Component
+public class OpenLibraryClient {
+
+    static final String SEARCH_FIELDS =
+            "key,title,author_name,isbn,number_of_pages_median,publisher,first_publish_year";
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {};
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final TokenBucket tokenBucket;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final MeterRegistry meterRegistry;
+    private final Timer throttleTimer;
+
+    public OpenLibraryClient(RestTemplateBuilder builder, MeterRegistry meterRegistry,
+                             @Value("${booktracker.enrichment.openlibrary-url:https://openlibrary.org}") String baseUrl,
+                             @Value("${booktracker.enrichment.rate-per-second:2}") double ratePerSecond,
+                             @Value("${booktracker.enrichment.burst:5}") int burst,
+                             @Value("${booktracker.enrichment.max-retries:3}") int maxRetries,
+                             @Value("${booktracker.enrichment.retry-backoff-ms:1000}") long retryBackoffMs) {
+        this.restTemplate = builder
+                .connectTimeout(Duration.ofSeconds(3))
+                .readTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+        this.tokenBucket = new TokenBucket(ratePerSecond, burst);
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+        this.meterRegistry = meterRegistry;
+        this.throttleTimer = Timer.builder("booktracker.enrichment.throttle")
+                .description("Time enrichment requests waited for the rate limit")
+                .register(meterRegistry);
+    }
+
+    // First search result for the work key, or null
+    public Map<String, Object> searchByKey(String workKey) throws InterruptedException {
+        return firstDoc(search().queryParam("q", "key:" + workKey));
+    }
+
+    public Map<String, Object> searchByIsbn(String isbn) throws InterruptedException {
+        return firstDoc(search().queryParam("isbn", isbn));
+    }
+
+    public Map<String, Object> searchByTitle(String title, String author) throws InterruptedException {
+        UriComponentsBuilder uri = search().queryParam("title", title);
+        if (author != null && !author.isBlank()) {
+            uri.queryParam("author", author);
+        }
+        return firstDoc(uri);
+    }
+
+    // works/{id}.json (description, subjects), or null when unknown
+    public Map<String, Object> getWork(String workKey) throws InterruptedException {
+        return get(UriComponentsBuilder.fromUriString(baseUrl).path(workKey + ".json").encode().build().toUri());
+    }
+
+    private UriComponentsBuilder search() {
+        return UriComponentsBuilder.fromUriString(baseUrl).path("/search.json")
+                .queryParam("fields", SEARCH_FIELDS)
+                .queryParam("limit", 1);
+    }
+
+    private Map<String, Object> firstDoc(UriComponentsBuilder uri) throws InterruptedException {
+        Map<String, Object> body = get(uri.encode().build().toUri());
+        if (body != null && body.get("docs") instanceof List<?> docs && !docs.isEmpty()
+                && docs.get(0) instanceof Map<?, ?>) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> doc = (Map<String, Object>) docs.get(0);
+            return doc;
+        }
+        return null;
+    }
+
+    private Map<String, Object> get(URI uri) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            throttleTimer.record(tokenBucket.acquire(), TimeUnit.NANOSECONDS);
+            long start = System.nanoTime();
+            long retryAfterMs = 0;
+            try {
+                Map<String, Object> body = restTemplate.exchange(uri, HttpMethod.GET, null, JSON_OBJECT).getBody();
+                record("ok", start);
+                return body;
+            } catch (HttpStatusCodeException e) {
+                if (e.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+                    record("not_found", start);
+                    return null;
+                }
+                boolean retryable = e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                        || e.getStatusCode().is5xxServerError();
+                record(e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value() ? "throttled" : "error", start);
+                if (!retryable || attempt >= maxRetries) {
+                    throw e;
+                }
+                retryAfterMs = retryAfterMs(e.getResponseHeaders() != null
+                        ? e.getResponseHeaders().getFirst("Retry-After") : null);
+            } catch (ResourceAccessException e) {
+                record("io_error", start);
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+            }
+            // 1x, 2x, 4x... the base, +-50% jitter so the job threads do not retry in step
+            long backoff = retryBackoffMs << attempt;
+            long delay = Math.max(retryAfterMs, backoff / 2 + ThreadLocalRandom.current().nextLong(backoff + 1));
+            TimeUnit.MILLISECONDS.sleep(delay);
+        }
+    }
+
+    private void record(String outcome, long startNanos) {
+        Timer.builder("booktracker.enrichment.request")
+                .description("Open Library requests of the enrichment job")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Retry-After in seconds; the HTTP-date form is rare enough to fall back to the backoff
+    private static long retryAfterMs(String retryAfter) {
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
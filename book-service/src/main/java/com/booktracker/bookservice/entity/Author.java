@@ -0,0 +1,63 @@
+package com.booktracker.bookservice.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// An author of catalog books, identified by the folded name (AuthorService.nameKey);
+// the counts are precomputed and refreshed in the background
+@Entity
+@Table(name = "authors")
+public class Author {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Spelling of the first book linked to the author
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "name_key", nullable = false, unique = true)
+    private String nameKey;
+
+    @Column(name = "surname_key", nullable = false)
+    private String surnameKey;
+
+    @Column(name = "book_count", nullable = false)
+    private int bookCount;
+
+    // Library entries of the author's books
+    @Column(name = "reader_count", nullable = false)
+    private int readerCount;
+
+    @Column(name = "rating_count", nullable = false)
+    private int ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Author() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getNameKey() { return nameKey; }
+    public void setNameKey(String nameKey) { this.nameKey = nameKey; }
+    public String getSurnameKey() { return surnameKey; }
+    public void setSurnameKey(String surnameKey) { this.surnameKey = surnameKey; }
+    public int getBookCount() { return bookCount; }
+    public void setBookCount(int bookCount) { this.bookCount = bookCount; }
+    public int getReaderCount() { return readerCount; }
+    public void setReaderCount(int readerCount) { this.readerCount = readerCount; }
+    public int getRatingCount() { return ratingCount; }
+    public void setRatingCount(int ratingCount) { this.ratingCount = ratingCount; }
+    public long getRatingSum() { return ratingSum; }
+    public void setRatingSum(long ratingSum) { this.ratingSum = ratingSum; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
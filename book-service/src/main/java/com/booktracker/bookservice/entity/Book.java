@@ -16,12 +16,21 @@ public class Book {
 
     private String author;
 
+    // Author row of the author name (AuthorService), set after the book is saved
+    @Column(name = "author_id")
+    private Long authorId;
+
     @Column(length = 500)
     private String coverUrl;
 
-    @Column(length = 13)
+    // Catalog identity, both unique: adding a book with a known key or ISBN returns the existing row
+    @Column(length = 13, unique = true)
     private String isbn;
 
+    // Open Library work key, e.g. /works/OL45883W
+    @Column(length = 32, unique = true)
+    private String openLibraryKey;
+
     @Column(length = 2000)
     private String description;
 
@@ -32,6 +41,15 @@ public class Book {
     // ADDED: totalPages field for reading progress tracking
     private Integer totalPages;
 
+    // Set once description, page count and publisher were looked up on Open Library (vitrine)
+    private LocalDateTime enrichedAt;
+
+    // Failed lookups of the background enrichment job, and when the next one may run
+    @Column(nullable = false)
+    private int enrichmentAttempts;
+
+    private LocalDateTime enrichmentRetryAt;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -72,6 +90,14 @@ public class Book {
         this.author = author;
     }
 
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
     public String getCoverUrl() {
         return coverUrl;
     }
@@ -88,6 +114,38 @@ public class Book {
         this.isbn = isbn;
     }
 
+    public String getOpenLibraryKey() {
+        return openLibraryKey;
+    }
+
+    public void setOpenLibraryKey(String openLibraryKey) {
+        this.openLibraryKey = openLibraryKey;
+    }
+
+    public LocalDateTime getEnrichedAt() {
+        return enrichedAt;
+    }
+
+    public void setEnrichedAt(LocalDateTime enrichedAt) {
+        this.enrichedAt = enrichedAt;
+    }
+
+    public int getEnrichmentAttempts() {
+        return enrichmentAttempts;
+    }
+
+    public void setEnrichmentAttempts(int enrichmentAttempts) {
+        this.enrichmentAttempts = enrichmentAttempts;
+    }
+
+    public LocalDateTime getEnrichmentRetryAt() {
+        return enrichmentRetryAt;
+    }
+
+    public void setEnrichmentRetryAt(LocalDateTime enrichmentRetryAt) {
+        this.enrichmentRetryAt = enrichmentRetryAt;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -0,0 +1,69 @@
+package com.booktracker.bookservice.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// An Idempotency-Key header value a user already sent, with the request it came with and its response
+@Entity
+@Table(name = "idempotency_keys")
+@IdClass(IdempotencyKey.Id.class)
+public class IdempotencyKey {
+
+    // Keys are only unique per user: two users may pick the same value
+    public static class Id implements Serializable {
+        private Long userId;
+        private String key;
+
+        public Id() {}
+
+        public Id(Long userId, String key) {
+            this.userId = userId;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Id id && Objects.equals(userId, id.userId) && Objects.equals(key, id.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, key);
+        }
+    }
+
+    @jakarta.persistence.Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @jakarta.persistence.Id
+    @Column(name = "idempotency_key", length = 64)
+    private String key;
+
+    // SHA-256 (hex) of the request the key was first used with
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    // JSON of the response, set when the request completed
+    @Column(name = "response_body", length = 4000)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public IdempotencyKey() {}
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
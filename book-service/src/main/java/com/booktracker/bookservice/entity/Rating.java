@@ -30,8 +30,17 @@ public class Rating {
     @Column(name = "rated_at")
     private LocalDateTime ratedAt;
 
+    // Set once; rated_at moves with every change of the rating
+    @Column(name = "first_rated_at", nullable = false, updatable = false)
+    private LocalDateTime firstRatedAt;
+
+    // Optimistic lock; also bumped by the upsert in RatingRepository
+    @Version
+    private Long version;
+
     public Rating() {
         this.ratedAt = LocalDateTime.now();
+        this.firstRatedAt = ratedAt;
     }
 
     public Rating(User user, Book book, Integer rating) {
@@ -39,6 +48,7 @@ public class Rating {
         this.book = book;
         this.rating = rating;
         this.ratedAt = LocalDateTime.now();
+        this.firstRatedAt = ratedAt;
     }
 
     // Getters and Setters
@@ -82,4 +92,20 @@ public class Rating {
     public void setRatedAt(LocalDateTime ratedAt) {
         this.ratedAt = ratedAt;
     }
+
+    public LocalDateTime getFirstRatedAt() {
+        return firstRatedAt;
+    }
+
+    public void setFirstRatedAt(LocalDateTime firstRatedAt) {
+        this.firstRatedAt = firstRatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
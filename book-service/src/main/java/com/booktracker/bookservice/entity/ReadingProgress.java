@@ -29,6 +29,9 @@ public class ReadingProgress {
 
     private String notes;
 
+    @Version
+    private Long version;
+
     // Constructors
     public ReadingProgress() {
         this.lastUpdated = LocalDateTime.now();
@@ -139,4 +142,12 @@ public class ReadingProgress {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
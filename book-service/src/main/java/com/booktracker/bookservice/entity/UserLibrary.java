@@ -5,7 +5,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_library")
+@Table(name = "user_library", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_library_user_book", columnNames = {"user_id", "book_id"})
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class UserLibrary {
 
@@ -29,8 +31,12 @@ public class UserLibrary {
     @JsonIgnoreProperties("userLibrary")
     private ReadingProgress readingProgress;
 
+    @Column(nullable = false)
     private LocalDateTime addedAt;
 
+    @Version
+    private Long version;
+
     // Getters/Setters (keep existing ones)
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -49,4 +55,6 @@ public class UserLibrary {
     }
     public LocalDateTime getAddedAt() { return addedAt; }
     public void setAddedAt(LocalDateTime addedAt) { this.addedAt = addedAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
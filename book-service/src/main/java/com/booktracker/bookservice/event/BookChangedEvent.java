@@ -0,0 +1,26 @@
+package com.booktracker.bookservice.event;
+
+// A catalog book was created, updated or deleted; not tied to a user
+public class BookChangedEvent extends DomainEvent {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private final String change;
+    private final Long bookId;
+
+    public BookChangedEvent(String change, Long bookId) {
+        super("book-changed", null);
+        this.change = change;
+        this.bookId = bookId;
+    }
+
+    @Override
+    public String aggregateType() { return "book"; }
+    @Override
+    public Long aggregateId() { return bookId; }
+
+    public String getChange() { return change; }
+    public Long getBookId() { return bookId; }
+}
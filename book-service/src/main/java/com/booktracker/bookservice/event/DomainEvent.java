@@ -0,0 +1,29 @@
+package com.booktracker.bookservice.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Base class of the domain events published on the in-process bus (ApplicationEventPublisher).
+ * Events that belong to a user (userId set) are streamed to that user; all of them are also
+ * recorded in the transactional outbox, keyed by the aggregate they change.
+ */
+public abstract class DomainEvent {
+
+    private final String type;
+    private final Long userId;
+    private final LocalDateTime occurredAt;
+
+    protected DomainEvent(String type, Long userId) {
+        this.type = type;
+        this.userId = userId;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    // Outbox key: events of one aggregate share a Kafka partition (not part of the JSON payload)
+    public abstract String aggregateType();
+    public abstract Long aggregateId();
+
+    public String getType() { return type; }
+    public Long getUserId() { return userId; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
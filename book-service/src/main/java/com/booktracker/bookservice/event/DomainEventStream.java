@@ -0,0 +1,118 @@
+package com.booktracker.bookservice.event;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams committed domain events to subscribers over Server-Sent Events, per user.
+ * Sends run on a few dedicated threads, never on the thread that committed the change:
+ * a slow client must not hold up the request that produced the event.
+ */
+@Component
+public class DomainEventStream {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private static final int SENDER_THREADS = 4;
+    private static final int SENDER_QUEUE_SIZE = 1000;
+
+    private final Map<Long, List<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+
+    // A user always lands on the same single-threaded sender, so their events stay in order
+    private final ExecutorService[] senders = new ExecutorService[SENDER_THREADS];
+
+    public DomainEventStream() {
+        for (int i = 0; i < SENDER_THREADS; i++) {
+            String name = "sse-sender-" + (i + 1);
+            senders[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(SENDER_QUEUE_SIZE), runnable -> {
+                        Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (ExecutorService sender : senders) {
+            sender.shutdownNow();
+        }
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        List<SseEmitter> emitters = emittersByUser.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+
+        Runnable remove = () -> emittersByUser.computeIfPresent(userId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    // Only after commit: a rolled back change must never reach a browser
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(DomainEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        Long userId = event.getUserId();
+        if (!emittersByUser.containsKey(userId)) {
+            return;
+        }
+        sendLater(userId, () -> {
+            List<SseEmitter> emitters = emittersByUser.get(userId);
+            if (emitters == null) {
+                return;
+            }
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().name(event.getType()).data(event, MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+    }
+
+    // Keeps idle connections open through proxies and detects disconnected clients
+    @Scheduled(fixedDelay = 25000)
+    public void heartbeat() {
+        emittersByUser.forEach((userId, emitters) -> sendLater(userId, () -> emitters.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        })));
+    }
+
+    // A full queue means clients are not keeping up: drop the send, they resync on reconnect
+    private void sendLater(Long userId, Runnable send) {
+        try {
+            senders[Math.floorMod(userId.hashCode(), SENDER_THREADS)].execute(send);
+        } catch (RejectedExecutionException e) {
+            System.err.println("[SSE] Send queue full, dropped an event for user " + userId);
+        }
+    }
+}
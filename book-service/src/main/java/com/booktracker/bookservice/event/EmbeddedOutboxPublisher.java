@@ -0,0 +1,49 @@
+package com.booktracker.bookservice.event;
+
+import com.booktracker.bookservice.entity.OutboxEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default outbox transport: delivers each batch to the in-process {@link OutboxSubscriber} beans.
+ * The outbox table itself is the queue, so nothing is lost across restarts.
+ */
+@Component
+@ConditionalOnProperty(name = "booktracker.outbox.publisher", havingValue = "embedded", matchIfMissing = true)
+public class EmbeddedOutboxPublisher implements OutboxPublisher {
+
+    @Autowired(required = false)
+    private List<OutboxSubscriber> subscribers = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        RuntimeException failure = null;
+        for (OutboxSubscriber subscriber : subscribers) {
+            String consumer = subscriber.getClass().getSimpleName();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                subscriber.onEvents(batch);
+            } catch (RuntimeException e) {
+                System.err.println("[OUTBOX] Subscriber " + consumer + " failed: " + e.getMessage());
+                failure = failure != null ? failure : e;
+            } finally {
+                sample.stop(Timer.builder("booktracker.outbox.consumer")
+                        .description("Time an embedded subscriber spent on an outbox batch")
+                        .tag("consumer", consumer)
+                        .register(meterRegistry));
+            }
+        }
+        // The other subscribers still got the batch; it is redelivered to all of them
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.booktracker.bookservice.event;
+
+import com.booktracker.bookservice.entity.OutboxEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox batches to a Kafka topic (booktracker.outbox.publisher=kafka).
+ * Records are keyed by aggregate, so one aggregate's events share a partition (in relay order,
+ * which is not strictly outbox order); the outbox id travels in the "outbox-id" header for
+ * consumers to drop redeliveries.
+ */
+@Component
+@ConditionalOnProperty(name = "booktracker.outbox.publisher", havingValue = "kafka")
+public class KafkaOutboxPublisher implements OutboxPublisher {
+
+    private static final long ACK_TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Value("${booktracker.outbox.kafka.topic:booktracker.domain-events}")
+    private String topic;
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        // Sends are pipelined; the batch only counts once the broker acknowledged all of it
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            ProducerRecord<String, String> record = new ProducerRecord<>(topic, event.getKey(), event.getPayload());
+            record.headers().add("event-type", event.getEventType().getBytes(StandardCharsets.UTF_8));
+            record.headers().add("outbox-id", String.valueOf(event.getId()).getBytes(StandardCharsets.UTF_8));
+            sends[i] = kafkaTemplate.send(record);
+        }
+        try {
+            CompletableFuture.allOf(sends).get(ACK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.booktracker.bookservice.event;
+
+import com.booktracker.bookservice.entity.ReadingStatus;
+
+// A library entry was added, removed or changed status
+public class LibraryChangedEvent extends DomainEvent {
+
+    public static final String ADDED = "ADDED";
+    public static final String REMOVED = "REMOVED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+
+    private final String change;
+    private final Long libraryId;
+    private final Long bookId;
+    private final ReadingStatus status;
+
+    public LibraryChangedEvent(Long userId, String change, Long libraryId, Long bookId, ReadingStatus status) {
+        super("library-changed", userId);
+        this.change = change;
+        this.libraryId = libraryId;
+        this.bookId = bookId;
+        this.status = status;
+    }
+
+    @Override
+    public String aggregateType() { return "library"; }
+    @Override
+    public Long aggregateId() { return libraryId; }
+
+    public String getChange() { return change; }
+    public Long getLibraryId() { return libraryId; }
+    public Long getBookId() { return bookId; }
+    public ReadingStatus getStatus() { return status; }
+}
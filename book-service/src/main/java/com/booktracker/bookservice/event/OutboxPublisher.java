@@ -0,0 +1,16 @@
+package com.booktracker.bookservice.event;
+
+import com.booktracker.bookservice.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Transport the {@link OutboxRelay} hands outbox batches to, oldest first but not strictly in
+ * outbox order (see OutboxRelay).
+ * Returning means every event of the batch was accepted; throwing leaves the whole batch
+ * unpublished, so it is delivered again on the next poll (at-least-once).
+ */
+public interface OutboxPublisher {
+
+    void publish(List<OutboxEvent> batch);
+}
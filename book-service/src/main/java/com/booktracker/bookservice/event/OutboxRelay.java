@@ -0,0 +1,168 @@
+package com.booktracker.bookservice.event;
+
+import com.booktracker.bookservice.entity.OutboxEvent;
+import com.booktracker.bookservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls the outbox and hands unpublished events, oldest first and in batches, to the
+ * configured {@link OutboxPublisher}. A batch is claimed in one short transaction, published
+ * with no lock or transaction open, and marked published in a second short transaction, so
+ * writers adding outbox rows never wait for the publisher. A failure or crash before the mark
+ * redelivers the batch (at-least-once): right away on failure, after the claim lapses on a crash.
+ *
+ * Events are not strictly ordered: ids are assigned at insert, not at commit, so a lower id can
+ * commit after a higher one was relayed, and several instances relay disjoint batches side by side.
+ * Consumers must tolerate events out of id order and deduplicate by outbox id.
+ *
+ * Lag metrics: booktracker.outbox.pending (events waiting), booktracker.outbox.lag
+ * (age of the oldest waiting event, seconds) and booktracker.outbox.delivery (commit to publish).
+ */
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxPublisher publisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booktracker.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${booktracker.outbox.retention-hours:168}")
+    private long retentionHours;
+
+    // Longer than a publish can take (the Kafka publisher waits up to 10 s for acks)
+    @Value("${booktracker.outbox.claim-timeout-ms:60000}")
+    private long claimTimeoutMs;
+
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate claimTemplate;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private Counter publishedCounter;
+    private Counter failureCounter;
+    private DistributionSummary batchSizes;
+    private Timer deliveryTimer;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // READ COMMITTED: the claim locks only the rows it returns, no gaps that would block outbox inserts
+        claimTemplate = new TransactionTemplate(transactionManager);
+        claimTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        Gauge.builder("booktracker.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet published")
+                .register(meterRegistry);
+        Gauge.builder("booktracker.outbox.lag", lagMillis, millis -> millis.get() / 1000.0)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        publishedCounter = Counter.builder("booktracker.outbox.published")
+                .description("Outbox events handed to the publisher")
+                .register(meterRegistry);
+        failureCounter = Counter.builder("booktracker.outbox.failures")
+                .description("Outbox batches that failed and will be redelivered")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("booktracker.outbox.batch.size")
+                .description("Events per published outbox batch")
+                .register(meterRegistry);
+        deliveryTimer = Timer.builder("booktracker.outbox.delivery")
+                .description("Time from the change to its publication")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Drains the backlog batch by batch; a failed batch is released for the next poll
+    @Scheduled(fixedDelayString = "${booktracker.outbox.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            System.err.println("[OUTBOX] Relay failed, retrying on next poll: " + e.getMessage());
+        } finally {
+            refreshLag();
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = claimTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        try {
+            publisher.publish(batch);
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.claim(ids, null));
+            throw e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markPublished(ids, now));
+        publishedCounter.increment(batch.size());
+        batchSizes.record(batch.size());
+        for (OutboxEvent event : batch) {
+            deliveryTimer.record(Duration.between(event.getCreatedAt(), now));
+        }
+        return batch.size();
+    }
+
+    // Rows are locked only until this transaction commits; the claim keeps other relays off them after that
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.findClaimable(now, batchSize);
+        if (!batch.isEmpty()) {
+            outboxEventRepository.claim(batch.stream().map(OutboxEvent::getId).toList(),
+                    now.plus(Duration.ofMillis(claimTimeoutMs)));
+        }
+        return batch;
+    }
+
+    private void refreshLag() {
+        try {
+            pending.set(outboxEventRepository.countByPublishedAtIsNull());
+            LocalDateTime oldest = outboxEventRepository.findOldestUnpublishedCreatedAt();
+            lagMillis.set(oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() : 0);
+        } catch (RuntimeException e) {
+            System.err.println("[OUTBOX] Could not read outbox lag: " + e.getMessage());
+        }
+    }
+
+    // Published rows are only kept for inspection and replays
+    @Scheduled(cron = "0 30 * * * *")
+    public void purgePublished() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+    }
+}
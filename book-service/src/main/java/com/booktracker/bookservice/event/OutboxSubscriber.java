@@ -0,0 +1,16 @@
+package com.booktracker.bookservice.event;
+
+import com.booktracker.bookservice.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Consumer of the embedded outbox queue, for derived data maintained inside this service
+ * (caches, summaries, search indexes). Batches arrive roughly in outbox order, and again after a
+ * failure of any subscriber, so handling must be idempotent (the outbox id identifies an event)
+ * and must not assume that a lower id never arrives after a higher one.
+ */
+public interface OutboxSubscriber {
+
+    void onEvents(List<OutboxEvent> events);
+}
@@ -0,0 +1,42 @@
+package com.booktracker.bookservice.event;
+
+import com.booktracker.bookservice.entity.OutboxEvent;
+import com.booktracker.bookservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records every domain event in the outbox table. Runs synchronously inside the transaction
+ * that published the event, so the row commits or rolls back together with the change.
+ */
+@Component
+public class OutboxWriter {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(DomainEvent event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateType(event.aggregateType());
+        outboxEvent.setAggregateId(event.aggregateId());
+        outboxEvent.setEventType(event.getType());
+        outboxEvent.setUserId(event.getUserId());
+        outboxEvent.setCreatedAt(event.getOccurredAt());
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.getType() + " event", e);
+        }
+        outboxEventRepository.save(outboxEvent);
+    }
+}
@@ -0,0 +1,34 @@
+package com.booktracker.bookservice.event;
+
+import com.booktracker.bookservice.dto.ProgressUpdateDTO;
+import com.booktracker.bookservice.entity.ReadingStatus;
+
+// Reading progress of a library entry changed; status is set when the progress moved it
+public class ProgressUpdatedEvent extends DomainEvent {
+
+    private final Long libraryId;
+    private final Integer currentPage;
+    private final Integer totalPages;
+    private final Double progressPercent;
+    private final ReadingStatus status;
+
+    public ProgressUpdatedEvent(Long userId, ProgressUpdateDTO progress) {
+        super("progress-updated", userId);
+        this.libraryId = progress.getLibraryId();
+        this.currentPage = progress.getCurrentPage();
+        this.totalPages = progress.getTotalPages();
+        this.progressPercent = progress.getProgressPercent();
+        this.status = progress.getStatus();
+    }
+
+    @Override
+    public String aggregateType() { return "library"; }
+    @Override
+    public Long aggregateId() { return libraryId; }
+
+    public Long getLibraryId() { return libraryId; }
+    public Integer getCurrentPage() { return currentPage; }
+    public Integer getTotalPages() { return totalPages; }
+    public Double getProgressPercent() { return progressPercent; }
+    public ReadingStatus getStatus() { return status; }
+}
@@ -0,0 +1,26 @@
+package com.booktracker.bookservice.event;
+
+// A user rated a book for the first time (created) or changed their rating
+public class RatingChangedEvent extends DomainEvent {
+
+    private final Long bookId;
+    private final Integer rating;
+    private final boolean created;
+
+    public RatingChangedEvent(Long userId, Long bookId, Integer rating, boolean created) {
+        super("rating-changed", userId);
+        this.bookId = bookId;
+        this.rating = rating;
+        this.created = created;
+    }
+
+    // Keyed by book so per-book rating summaries read the changes from one partition
+    @Override
+    public String aggregateType() { return "book"; }
+    @Override
+    public Long aggregateId() { return bookId; }
+
+    public Long getBookId() { return bookId; }
+    public Integer getRating() { return rating; }
+    public boolean isCreated() { return created; }
+}
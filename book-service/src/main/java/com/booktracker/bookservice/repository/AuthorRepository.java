@@ -0,0 +1,67 @@
+package com.booktracker.bookservice.repository;
+
+import com.booktracker.bookservice.entity.Author;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AuthorRepository extends JpaRepository<Author, Long> {
+
+    // Typeahead: name or surname starting with the folded prefix (uk_authors_name_key, idx_authors_surname_key)
+    @Query("SELECT a FROM Author a WHERE a.bookCount > 0 " +
+            "AND (a.nameKey LIKE CONCAT(:prefix, '%') OR a.surnameKey LIKE CONCAT(:prefix, '%')) " +
+            "ORDER BY a.readerCount DESC, a.id")
+    List<Author> findByPrefix(@Param("prefix") String prefix, Pageable page);
+
+    // Most read authors (idx_authors_reader_count)
+    @Query("SELECT a FROM Author a WHERE a.bookCount > 0 ORDER BY a.readerCount DESC, a.id")
+    List<Author> findTop(Pageable page);
+
+    /**
+     * Creates the author of a name key unless it exists; either way SELECT LAST_INSERT_ID()
+     * on the same connection returns its id, without a read that could miss a concurrent insert.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO authors (name, name_key, surname_key, updated_at) " +
+            "VALUES (:name, :nameKey, :surnameKey, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)", nativeQuery = true)
+    void upsert(@Param("name") String name, @Param("nameKey") String nameKey, @Param("surnameKey") String surnameKey);
+
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    long lastInsertId();
+
+    // Recounts books, library entries and ratings of the given authors in one statement
+    @Modifying
+    @Query(value = "UPDATE authors a " +
+            "LEFT JOIN (SELECT author_id, COUNT(*) AS books FROM books WHERE author_id IN (:ids) " +
+            "GROUP BY author_id) b ON b.author_id = a.id " +
+            "LEFT JOIN (SELECT bk.author_id, COUNT(*) AS readers FROM user_library ul " +
+            "JOIN books bk ON bk.id = ul.book_id WHERE bk.author_id IN (:ids) GROUP BY bk.author_id) l ON l.author_id = a.id " +
+            "LEFT JOIN (SELECT bk.author_id, COUNT(*) AS ratings, SUM(r.rating) AS total FROM ratings r " +
+            "JOIN books bk ON bk.id = r.book_id WHERE bk.author_id IN (:ids) GROUP BY bk.author_id) r ON r.author_id = a.id " +
+            "SET a.book_count = COALESCE(b.books, 0), a.reader_count = COALESCE(l.readers, 0), " +
+            "a.rating_count = COALESCE(r.ratings, 0), a.rating_sum = COALESCE(r.total, 0), a.updated_at = NOW(6) " +
+            "WHERE a.id IN (:ids)", nativeQuery = true)
+    int refreshCounts(@Param("ids") Collection<Long> ids);
+
+    // The same for every author: corrects counts that no event reported (deleted books, removed entries)
+    @Modifying
+    @Query(value = "UPDATE authors a " +
+            "LEFT JOIN (SELECT author_id, COUNT(*) AS books FROM books WHERE author_id IS NOT NULL " +
+            "GROUP BY author_id) b ON b.author_id = a.id " +
+            "LEFT JOIN (SELECT bk.author_id, COUNT(*) AS readers FROM user_library ul " +
+            "JOIN books bk ON bk.id = ul.book_id WHERE bk.author_id IS NOT NULL GROUP BY bk.author_id) l ON l.author_id = a.id " +
+            "LEFT JOIN (SELECT bk.author_id, COUNT(*) AS ratings, SUM(r.rating) AS total FROM ratings r " +
+            "JOIN books bk ON bk.id = r.book_id WHERE bk.author_id IS NOT NULL GROUP BY bk.author_id) r ON r.author_id = a.id " +
+            "SET a.book_count = COALESCE(b.books, 0), a.reader_count = COALESCE(l.readers, 0), " +
+            "a.rating_count = COALESCE(r.ratings, 0), a.rating_sum = COALESCE(r.total, 0), a.updated_at = NOW(6)",
+            nativeQuery = true)
+    int refreshAllCounts();
+}
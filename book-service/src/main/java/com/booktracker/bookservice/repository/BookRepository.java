@@ -4,12 +4,92 @@ package com.booktracker.bookservice.repository;
 
 
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.booktracker.bookservice.entity.Book;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
-}
\ No newline at end of file
+    // Version lookups for conditional GET - read a single column instead of the whole row
+    @Query("SELECT b.updatedAt FROM Book b WHERE b.id = :id")
+    LocalDateTime findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT MAX(b.updatedAt) FROM Book b")
+    LocalDateTime findLatestUpdatedAt();
+
+    // Catalog identity lookups (unique indexes uk_books_open_library_key, uk_books_isbn)
+    Optional<Book> findByOpenLibraryKey(String openLibraryKey);
+
+    Optional<Book> findByIsbn(String isbn);
+
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query("SELECT b.openLibraryKey FROM Book b WHERE b.openLibraryKey IN :keys")
+    List<String> findExistingOpenLibraryKeys(@Param("keys") Collection<String> keys);
+
+    // Next page for the enrichment job: never looked up, missing a detail, not waiting for a retry
+    // (idx_books_enrichment)
+    @Query("SELECT b FROM Book b WHERE b.enrichedAt IS NULL AND b.id > :afterId " +
+            "AND (b.enrichmentRetryAt IS NULL OR b.enrichmentRetryAt <= :now) " +
+            "AND (b.totalPages IS NULL OR b.totalPages = 0 OR b.isbn IS NULL " +
+            "OR b.description IS NULL OR b.publishYear IS NULL) ORDER BY b.id")
+    List<Book> findIncompleteAfter(@Param("afterId") Long afterId, @Param("now") LocalDateTime now, Pageable page);
+
+    @Query("SELECT COUNT(b) FROM Book b WHERE b.enrichedAt IS NULL " +
+            "AND (b.totalPages IS NULL OR b.totalPages = 0 OR b.isbn IS NULL " +
+            "OR b.description IS NULL OR b.publishYear IS NULL)")
+    long countIncomplete();
+
+    // Enrichment write-back: fills only the detail columns that are still empty and touches no other
+    // column, so an edit committed since the book was read is kept (Book has no @Version)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Book b SET b.description = COALESCE(b.description, :description), " +
+            "b.totalPages = CASE WHEN b.totalPages IS NULL OR b.totalPages = 0 " +
+            "THEN COALESCE(:totalPages, b.totalPages) ELSE b.totalPages END, " +
+            "b.publisher = COALESCE(b.publisher, :publisher), " +
+            "b.publishYear = COALESCE(b.publishYear, :publishYear), " +
+            "b.isbn = COALESCE(b.isbn, :isbn), " +
+            "b.openLibraryKey = COALESCE(b.openLibraryKey, :openLibraryKey), " +
+            "b.enrichedAt = :now, b.enrichmentRetryAt = NULL, b.updatedAt = :now WHERE b.id = :id")
+    int fillEnrichment(@Param("id") Long id, @Param("description") String description,
+                       @Param("totalPages") Integer totalPages, @Param("publisher") String publisher,
+                       @Param("publishYear") Integer publishYear, @Param("isbn") String isbn,
+                       @Param("openLibraryKey") String openLibraryKey, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Book b SET b.enrichmentAttempts = b.enrichmentAttempts + 1, b.enrichmentRetryAt = :retryAt " +
+            "WHERE b.id = :id")
+    int scheduleEnrichmentRetry(@Param("id") Long id, @Param("retryAt") LocalDateTime retryAt);
+
+    // Author pages (idx_books_author)
+    List<Book> findByAuthorIdOrderByTitle(Long authorId);
+
+    @Query("SELECT DISTINCT b.authorId FROM Book b WHERE b.id IN :ids AND b.authorId IS NOT NULL")
+    List<Long> findAuthorIdsByIds(@Param("ids") Collection<Long> ids);
+
+    // Next page for the author backfill: books with an author name but no author row yet
+    @Query("SELECT b FROM Book b WHERE b.id > :afterId AND b.authorId IS NULL AND b.author IS NOT NULL ORDER BY b.id")
+    List<Book> findUnlinkedAfter(@Param("afterId") Long afterId, Pageable page);
+
+    @Query("SELECT b FROM Book b WHERE b.id IN :ids AND b.authorId IS NULL AND b.author IS NOT NULL")
+    List<Book> findUnlinkedByIds(@Param("ids") Collection<Long> ids);
+
+    // Sets author_id only; skipped when the book was linked or given another author name since it was read
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Book b SET b.authorId = :authorId, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.authorId IS NULL AND b.author = :author")
+    int linkAuthor(@Param("id") Long id, @Param("author") String author, @Param("authorId") Long authorId,
+                   @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,36 @@
+package com.booktracker.bookservice.repository;
+
+import com.booktracker.bookservice.entity.IdempotencyKey;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKey.Id> {
+
+    // 1 when the user's key is new, 0 when it was already used; a concurrent retry waits on the row lock
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (user_id, idempotency_key, request_hash, created_at) " +
+            "VALUES (:userId, :key, :requestHash, NOW(6))", nativeQuery = true)
+    int claim(@Param("userId") Long userId, @Param("key") String key, @Param("requestHash") String requestHash);
+
+    // Locking read: sees the row as committed by the first request, not as of this transaction's snapshot
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT k FROM IdempotencyKey k WHERE k.userId = :userId AND k.key = :key")
+    Optional<IdempotencyKey> findForReplay(@Param("userId") Long userId, @Param("key") String key);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.responseBody = :responseBody WHERE k.userId = :userId AND k.key = :key")
+    int saveResponse(@Param("userId") Long userId, @Param("key") String key, @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,9 @@
+package com.booktracker.bookservice.repository;
+
+import com.booktracker.bookservice.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -1,9 +1,15 @@
 package com.booktracker.bookservice.repository;
 
+import com.booktracker.bookservice.dto.RatingResultDTO;
 import com.booktracker.bookservice.entity.Rating;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +21,36 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     List<Rating> findByBookId(Long bookId);
 
     Optional<Rating> findByUserIdAndBookId(Long userId, Long bookId);
-}
\ No newline at end of file
+
+    // One row per rated book: [bookId, average, count, the given user's rating or 0]
+    @Query("SELECT r.book.id, AVG(r.rating), COUNT(r), " +
+            "MAX(CASE WHEN r.user.id = :userId THEN r.rating ELSE 0 END) " +
+            "FROM Rating r WHERE r.book.id IN :bookIds GROUP BY r.book.id")
+    List<Object[]> findRatingStatsByBookIds(@Param("bookIds") Collection<Long> bookIds,
+                                            @Param("userId") Long userId);
+
+    // Insert or update in one statement, racing writers meet on the (user_id, book_id) unique key.
+    // id = LAST_INSERT_ID(ratings.id) makes LAST_INSERT_ID() return the existing row's id on update.
+    // first_rated_at is only written by the insert.
+    @Modifying
+    @Query(value = "INSERT INTO ratings (user_id, book_id, rating, rated_at, first_rated_at, version) " +
+            "VALUES (:userId, :bookId, :rating, :ratedAt, :ratedAt, 0) AS new " +
+            "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(ratings.id), rating = new.rating, " +
+            "rated_at = new.rated_at, version = ratings.version + 1", nativeQuery = true)
+    int upsertRating(@Param("userId") Long userId, @Param("bookId") Long bookId,
+                     @Param("rating") Integer rating, @Param("ratedAt") LocalDateTime ratedAt);
+
+    // First ratings per book and 5-minute bucket since the given time (idx_ratings_first_rated_book):
+    // book id, bucket number counted from since, number of ratings. Re-rates are not counted again.
+    @Query(value = "SELECT book_id, TIMESTAMPDIFF(MINUTE, :since, first_rated_at) DIV 5 AS bucket, COUNT(*) " +
+            "FROM ratings WHERE first_rated_at >= :since GROUP BY book_id, bucket", nativeQuery = true)
+    List<Object[]> countRatedSince(@Param("since") LocalDateTime since);
+
+    // Id of the row written by upsertRating on the same connection
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    Long lastInsertId();
+
+    @Query("SELECT new com.booktracker.bookservice.dto.RatingResultDTO(r.id, r.user.id, r.book.id, r.rating, r.ratedAt) " +
+            "FROM Rating r WHERE r.user.id = :userId AND r.book.id = :bookId")
+    Optional<RatingResultDTO> findResultByUserIdAndBookId(@Param("userId") Long userId, @Param("bookId") Long bookId);
+}
@@ -6,8 +6,12 @@ package com.booktracker.bookservice.repository;
 import com.booktracker.bookservice.entity.ReadingProgress;
 import com.booktracker.bookservice.entity.UserLibrary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +22,24 @@ public interface ReadingProgressRepository extends JpaRepository<ReadingProgress
 
     // Trouver par UserLibrary ID
     Optional<ReadingProgress> findByUserLibraryId(Long userLibraryId);
-}
\ No newline at end of file
+
+    // Null progressPercent, notes or completedAt keep the stored value
+    @Modifying
+    @Query("UPDATE ReadingProgress p SET p.currentPage = :currentPage, " +
+            "p.progressPercent = COALESCE(:progressPercent, p.progressPercent), " +
+            "p.notes = COALESCE(:notes, p.notes), p.lastUpdated = :now, " +
+            "p.completedAt = COALESCE(:completedAt, p.completedAt), p.version = p.version + 1 " +
+            "WHERE p.userLibrary.id = :libraryId")
+    int updateProgress(@Param("libraryId") Long libraryId, @Param("currentPage") Integer currentPage,
+                       @Param("progressPercent") Double progressPercent, @Param("notes") String notes,
+                       @Param("now") LocalDateTime now, @Param("completedAt") LocalDateTime completedAt);
+
+    // Marks the entry's progress as finished, using the book's page count when it is known
+    @Modifying
+    @Query(value = "UPDATE reading_progress p JOIN user_library ul ON ul.id = p.user_library_id " +
+            "JOIN books b ON b.id = ul.book_id " +
+            "SET p.current_page = b.total_pages, p.progress_percent = 100, " +
+            "p.completed_at = COALESCE(p.completed_at, :now), p.last_updated = :now, p.version = p.version + 1 " +
+            "WHERE ul.id = :libraryId AND b.total_pages > 0", nativeQuery = true)
+    int completeProgress(@Param("libraryId") Long libraryId, @Param("now") LocalDateTime now);
+}
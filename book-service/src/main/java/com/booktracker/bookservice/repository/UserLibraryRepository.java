@@ -1,17 +1,21 @@
 package com.booktracker.bookservice.repository;
 
+import com.booktracker.bookservice.dto.LibraryEntrySummaryDTO;
+import com.booktracker.bookservice.dto.LibraryTitleDTO;
 import com.booktracker.bookservice.entity.ReadingStatus;
 import com.booktracker.bookservice.entity.UserLibrary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserLibraryRepository extends JpaRepository<UserLibrary, Long> {
+public interface UserLibraryRepository extends JpaRepository<UserLibrary, Long>, UserLibraryRepositoryCustom {
 
     List<UserLibrary> findByUserId(Long userId);
 
@@ -21,15 +25,53 @@ public interface UserLibraryRepository extends JpaRepository<UserLibrary, Long>
 
     boolean existsByUserIdAndBookId(Long userId, Long bookId);
 
+    // Existing entry for a book, without the entry graph; a list because older data may hold duplicates
+    @Query("SELECT new com.booktracker.bookservice.dto.LibraryEntrySummaryDTO(ul.id, ul.user.id, ul.book.id, ul.status, ul.addedAt) " +
+            "FROM UserLibrary ul WHERE ul.user.id = :userId AND ul.book.id = :bookId ORDER BY ul.id")
+    List<LibraryEntrySummaryDTO> findSummariesByUserIdAndBookId(@Param("userId") Long userId, @Param("bookId") Long bookId);
+
     @Query("SELECT COUNT(ul) FROM UserLibrary ul WHERE ul.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
 
     @Query("SELECT COUNT(ul) FROM UserLibrary ul WHERE ul.user.id = :userId AND ul.status = :status")
     Long countByUserIdAndStatus(@Param("userId") Long userId, @Param("status") ReadingStatus status);
 
-    @Query("SELECT ul.book.author FROM UserLibrary ul WHERE ul.user.id = :userId GROUP BY ul.book.author ORDER BY COUNT(ul.book.author) DESC")
+    // Grouped by author row, so spellings of one author count together (books without one are left out)
+    @Query("SELECT a.name FROM UserLibrary ul JOIN ul.book b JOIN Author a ON a.id = b.authorId " +
+            "WHERE ul.user.id = :userId GROUP BY a.id, a.name ORDER BY COUNT(ul) DESC")
     List<String> findMostReadAuthorsByUser(@Param("userId") Long userId);
 
     @Query("SELECT ul FROM UserLibrary ul WHERE ul.user.id = :userId ORDER BY ul.addedAt DESC")
     List<UserLibrary> findByUserIdOrderByAddedAtDesc(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    // Narrow projection: no EAGER user/progress graph, only the book columns needed for membership checks
+    @Query("SELECT new com.booktracker.bookservice.dto.LibraryTitleDTO(b.id, b.title, b.isbn, b.coverUrl) " +
+            "FROM UserLibrary ul JOIN ul.book b WHERE ul.user.id = :userId")
+    List<LibraryTitleDTO> findTitlesByUserId(@Param("userId") Long userId);
+
+    // Owner of an entry, to address the change events of id-only writes
+    @Query("SELECT ul.user.id FROM UserLibrary ul WHERE ul.id = :libraryId")
+    Optional<Long> findUserIdById(@Param("libraryId") Long libraryId);
+
+    // Single UPDATE, the entry graph is never loaded
+    @Modifying
+    @Query("UPDATE UserLibrary ul SET ul.status = :status, ul.version = ul.version + 1 WHERE ul.id = :libraryId")
+    int updateStatus(@Param("libraryId") Long libraryId, @Param("status") ReadingStatus status);
+
+    // Page count of the entry's book, 0 when unknown; empty when the entry does not exist
+    @Query("SELECT COALESCE(b.totalPages, 0) FROM UserLibrary ul JOIN ul.book b WHERE ul.id = :libraryId")
+    Optional<Integer> findTotalPagesByLibraryId(@Param("libraryId") Long libraryId);
+
+    // Bulk update skips @PreUpdate, so updatedAt is set here to keep book ETags honest
+    @Modifying
+    @Query("UPDATE Book b SET b.totalPages = :totalPages, b.updatedAt = :now " +
+            "WHERE b.id = (SELECT ul.book.id FROM UserLibrary ul WHERE ul.id = :libraryId)")
+    int updateBookTotalPages(@Param("libraryId") Long libraryId, @Param("totalPages") Integer totalPages,
+                             @Param("now") LocalDateTime now);
+
+    // Library adds per book and 5-minute bucket since the given time (idx_user_library_added_book):
+    // book id, bucket number counted from since, number of adds
+    @Query(value = "SELECT book_id, TIMESTAMPDIFF(MINUTE, :since, added_at) DIV 5 AS bucket, COUNT(*) " +
+            "FROM user_library WHERE added_at >= :since GROUP BY book_id, bucket", nativeQuery = true)
+    List<Object[]> countAddedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,22 @@
+package com.booktracker.bookservice.repository;
+
+import com.booktracker.bookservice.dto.LibraryListQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Library listing whose SELECT list and joins follow the requested fields
+public interface UserLibraryRepositoryCustom {
+
+    // Key of the sort value in each row, needed for the next cursor but not part of the response
+    String SORT_KEY = "_sortKey";
+
+    /**
+     * One keyset page of a user's entries, ordered by the query's sort key then id.
+     * Rows hold "id", the requested fields and {@link #SORT_KEY}; paging starts after
+     * (afterSortKey, afterId) when given. Unknown fields throw IllegalArgumentException.
+     */
+    List<Map<String, Object>> findEntryPage(Long userId, LibraryListQuery query, List<String> fields,
+                                            LocalDateTime afterSortKey, Long afterId, int limit);
+}
@@ -0,0 +1,118 @@
+package com.booktracker.bookservice.repository;
+
+import com.booktracker.bookservice.dto.LibraryListQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UserLibraryRepositoryImpl implements UserLibraryRepositoryCustom {
+
+    // fields= names and their JPQL; b (book) and p (progress) are only joined when used
+    private static final Map<String, String> FIELDS = new LinkedHashMap<>();
+    static {
+        FIELDS.put("bookId", "ul.book.id");
+        FIELDS.put("status", "ul.status");
+        FIELDS.put("addedAt", "ul.addedAt");
+        FIELDS.put("title", "b.title");
+        FIELDS.put("author", "b.author");
+        FIELDS.put("isbn", "b.isbn");
+        FIELDS.put("coverUrl", "b.coverUrl");
+        FIELDS.put("totalPages", "b.totalPages");
+        FIELDS.put("currentPage", "p.currentPage");
+        FIELDS.put("progressPercent", "p.progressPercent");
+        FIELDS.put("lastUpdated", "p.lastUpdated");
+        FIELDS.put("notes", "p.notes");
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findEntryPage(Long userId, LibraryListQuery query, List<String> fields,
+                                                   LocalDateTime afterSortKey, Long afterId, int limit) {
+        List<String> expressions = new ArrayList<>();
+        for (String field : fields) {
+            String expression = FIELDS.get(field);
+            if (expression == null) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            expressions.add(expression);
+        }
+
+        boolean byLastUpdated = "lastUpdated".equals(query.getSort());
+        boolean ascending = "asc".equalsIgnoreCase(query.getOrder());
+        // (user_id, [status,] added_at, id) index order; lastUpdated needs a sort of the user's entries
+        String sortKey = byLastUpdated ? "COALESCE(p.lastUpdated, ul.addedAt)" : "ul.addedAt";
+        boolean joinBook = query.getAuthor() != null || expressions.stream().anyMatch(e -> e.startsWith("b."));
+        boolean joinProgress = byLastUpdated || expressions.stream().anyMatch(e -> e.startsWith("p."));
+
+        StringBuilder jpql = new StringBuilder("SELECT ul.id, ").append(sortKey);
+        expressions.forEach(expression -> jpql.append(", ").append(expression));
+        jpql.append(" FROM UserLibrary ul");
+        if (joinBook) {
+            jpql.append(" JOIN ul.book b");
+        }
+        if (joinProgress) {
+            jpql.append(" LEFT JOIN ul.readingProgress p");
+        }
+        jpql.append(" WHERE ul.user.id = :userId");
+        if (query.getStatus() != null) {
+            jpql.append(" AND ul.status = :status");
+        }
+        if (query.getAuthor() != null) {
+            jpql.append(" AND LOWER(b.author) LIKE :author");
+        }
+        if (query.getAddedFrom() != null) {
+            jpql.append(" AND ul.addedAt >= :addedFrom");
+        }
+        if (query.getAddedTo() != null) {
+            jpql.append(" AND ul.addedAt < :addedBefore");
+        }
+        if (afterSortKey != null) {
+            String after = ascending ? ">" : "<";
+            jpql.append(" AND (").append(sortKey).append(' ').append(after).append(" :afterSortKey OR (")
+                    .append(sortKey).append(" = :afterSortKey AND ul.id ").append(after).append(" :afterId))");
+        }
+        String direction = ascending ? " ASC" : " DESC";
+        jpql.append(" ORDER BY ").append(sortKey).append(direction).append(", ul.id").append(direction);
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit);
+        if (query.getStatus() != null) {
+            typedQuery.setParameter("status", query.getStatus());
+        }
+        if (query.getAuthor() != null) {
+            typedQuery.setParameter("author", "%" + query.getAuthor().toLowerCase() + "%");
+        }
+        if (query.getAddedFrom() != null) {
+            typedQuery.setParameter("addedFrom", query.getAddedFrom().atStartOfDay());
+        }
+        if (query.getAddedTo() != null) {
+            typedQuery.setParameter("addedBefore", query.getAddedTo().plusDays(1).atStartOfDay());
+        }
+        if (afterSortKey != null) {
+            typedQuery.setParameter("afterSortKey", afterSortKey);
+            typedQuery.setParameter("afterId", afterId);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", tuple.get(0));
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i + 2));
+            }
+            row.put(SORT_KEY, tuple.get(1));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,270 @@
+package com.booktracker.bookservice.service;
+
+import com.booktracker.bookservice.dto.AuthorDTO;
+import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.entity.JobCheckpoint;
+import com.booktracker.bookservice.event.BookChangedEvent;
+import com.booktracker.bookservice.event.LibraryChangedEvent;
+import com.booktracker.bookservice.event.RatingChangedEvent;
+import com.booktracker.bookservice.repository.AuthorRepository;
+import com.booktracker.bookservice.repository.BookRepository;
+import com.booktracker.bookservice.repository.JobCheckpointRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Author dimension of the catalog. Books are linked to the author row of their folded author name
+ * ({@link #nameKey}) after they are saved, never in the saving transaction: the author upsert locks
+ * the author row, and every save of a popular author's books would wait on it. Saved books are linked
+ * by the next refresh; the backfill walks the catalog in id order from a checkpoint and links the
+ * rest (older books, books whose refresh was lost), starting over once it reaches the end.
+ *
+ * The counts of an author (books, library entries, ratings) are precomputed: changes reported by
+ * book, library and rating events mark the author, and marked authors are recounted every
+ * refresh-interval-ms. Every full-refresh-interval-ms all authors are recounted, which catches what
+ * no event names (deleted books and library entries, changes made on another instance).
+ * A new author shows up in lookups after its first recount.
+ */
+@Service
+public class AuthorService {
+
+    static final String CHECKPOINT = "author-backfill";
+
+    // Names vitrine sends when Open Library has no author
+    private static final Set<String> PLACEHOLDERS = Set.of("unknown", "unknown author");
+
+    // Ids per recount statement
+    private static final int REFRESH_CHUNK = 500;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booktracker.authors.backfill-page-size:500}")
+    private int backfillPageSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Waiting for a recount: books (linked first when unlinked) whose author is looked up then,
+    // and authors known directly
+    private final Set<Long> pendingBooks = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingAuthors = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("booktracker.authors.pending", this,
+                        service -> service.pendingBooks.size() + service.pendingAuthors.size())
+                .description("Books and authors waiting for an author recount")
+                .register(meterRegistry);
+    }
+
+    // Authors whose name or surname starts with the query, most read first
+    @Transactional(readOnly = true)
+    public List<AuthorDTO> findAuthorsByPrefix(String query, int limit) {
+        String prefix = nameKey(query);
+        if (prefix == null) {
+            return List.of();
+        }
+        return authorRepository.findByPrefix(prefix, PageRequest.of(0, limit)).stream().map(AuthorDTO::new).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AuthorDTO> findTopAuthors(int limit) {
+        return authorRepository.findTop(PageRequest.of(0, limit)).stream().map(AuthorDTO::new).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public AuthorDTO findAuthorById(Long id) {
+        return authorRepository.findById(id).map(AuthorDTO::new).orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Book> findBooksByAuthor(Long authorId) {
+        return bookRepository.findByAuthorIdOrderByTitle(authorId);
+    }
+
+    /**
+     * Keeps the author link of a book about to be saved while its author name folds to the same key
+     * as the stored one, drops it otherwise (the previous author is recounted). Touches no author row:
+     * the book is linked again after commit by the next refresh.
+     */
+    public void prepareLink(Book book, Long storedAuthorId, String storedAuthor) {
+        boolean sameAuthor = storedAuthorId != null
+                && Objects.equals(nameKey(storedAuthor), nameKey(book.getAuthor()));
+        book.setAuthorId(sameAuthor ? storedAuthorId : null);
+        if (storedAuthorId != null && !sameAuthor) {
+            pendingAuthors.add(storedAuthorId);
+        }
+    }
+
+    // Only after commit, so the link and the recount see the change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!BookChangedEvent.DELETED.equals(event.getChange())) {
+            pendingBooks.add(event.getBookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLibraryChanged(LibraryChangedEvent event) {
+        if (LibraryChangedEvent.ADDED.equals(event.getChange()) && event.getBookId() != null) {
+            pendingBooks.add(event.getBookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        pendingBooks.add(event.getBookId());
+    }
+
+    @Scheduled(initialDelayString = "${booktracker.authors.refresh-interval-ms:60000}",
+            fixedDelayString = "${booktracker.authors.refresh-interval-ms:60000}")
+    public void refreshPending() {
+        List<Long> books = drain(pendingBooks);
+        List<Long> authors = drain(pendingAuthors);
+        if (books.isEmpty() && authors.isEmpty()) {
+            return;
+        }
+        try {
+            Set<Long> authorIds = new HashSet<>(authors);
+            for (List<Long> chunk : chunks(books)) {
+                transactionTemplate.execute(status -> link(bookRepository.findUnlinkedByIds(chunk)));
+                authorIds.addAll(transactionTemplate.execute(status -> bookRepository.findAuthorIdsByIds(chunk)));
+            }
+            for (List<Long> chunk : chunks(new ArrayList<>(authorIds))) {
+                transactionTemplate.executeWithoutResult(status -> authorRepository.refreshCounts(chunk));
+            }
+        } catch (RuntimeException e) {
+            // Marked again: the next run recounts them
+            pendingBooks.addAll(books);
+            pendingAuthors.addAll(authors);
+            System.err.println("[AUTHORS] Link or recount failed, retrying next run: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${booktracker.authors.backfill-initial-delay-ms:30000}",
+            fixedDelayString = "${booktracker.authors.full-refresh-interval-ms:3600000}")
+    public void backfillAndRefreshAll() {
+        try {
+            int linked = backfill();
+            int authors = transactionTemplate.execute(status -> authorRepository.refreshAllCounts());
+            System.out.println("[AUTHORS] Linked " + linked + " books, recounted " + authors + " authors");
+        } catch (RuntimeException e) {
+            System.err.println("[AUTHORS] Backfill or recount failed, retrying next run: " + e.getMessage());
+        }
+    }
+
+    // Links the unlinked books after the checkpoint, a page per transaction; returns the number linked.
+    // At the end the checkpoint goes back to the start, so the next run sees the whole catalog again.
+    private int backfill() {
+        int linked = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                long afterId = checkpointRepository.findById(CHECKPOINT).map(JobCheckpoint::getLastId).orElse(0L);
+                List<Book> page = bookRepository.findUnlinkedAfter(afterId, PageRequest.of(0, backfillPageSize));
+                if (page.isEmpty()) {
+                    if (afterId > 0) {
+                        checkpointRepository.save(new JobCheckpoint(CHECKPOINT, 0L));
+                    }
+                    return null;
+                }
+                int pageLinked = link(page);
+                checkpointRepository.save(new JobCheckpoint(CHECKPOINT, page.get(page.size() - 1).getId()));
+                return pageLinked;
+            });
+            if (count == null) {
+                return linked;
+            }
+            linked += count;
+        }
+    }
+
+    // Links unlinked books to the author of their name, creating authors as needed; writes author_id
+    // only, so changes saved since the books were read are kept. Returns the number linked.
+    private int link(List<Book> books) {
+        Map<String, Long> authorIds = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        int linked = 0;
+        for (Book book : books) {
+            String key = nameKey(book.getAuthor());
+            if (key == null) {
+                continue;
+            }
+            Long authorId = authorIds.computeIfAbsent(key, k -> authorIdOf(book.getAuthor().trim(), k));
+            linked += bookRepository.linkAuthor(book.getId(), book.getAuthor(), authorId, now);
+        }
+        return linked;
+    }
+
+    private Long authorIdOf(String name, String key) {
+        authorRepository.upsert(name, key, key.substring(key.lastIndexOf(' ') + 1));
+        return authorRepository.lastInsertId();
+    }
+
+    /**
+     * "J.R.R. Tolkien" and "j. r. r. TOLKIEN" -> "j r r tolkien", "Gabriel García Márquez" ->
+     * "gabriel garcia marquez": lower case, without diacritics, words separated by one space.
+     * Null for blank names and placeholders.
+     */
+    public static String nameKey(String name) {
+        if (name == null) {
+            return null;
+        }
+        String folded = Normalizer.normalize(name, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                // Letters with no decomposition
+                .replace("ß", "ss").replace("æ", "ae").replace("œ", "oe")
+                .replace("ø", "o").replace("ł", "l").replace("đ", "d");
+        String key = folded.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return key.isEmpty() || PLACEHOLDERS.contains(key) ? null : key;
+    }
+
+    private static List<Long> drain(Set<Long> pending) {
+        List<Long> drained = new ArrayList<>(pending);
+        pending.removeAll(drained);
+        return drained;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += REFRESH_CHUNK) {
+            chunks.add(ids.subList(i, Math.min(i + REFRESH_CHUNK, ids.size())));
+        }
+        return chunks;
+    }
+}
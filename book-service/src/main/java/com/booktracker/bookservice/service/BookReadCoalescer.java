@@ -0,0 +1,97 @@
+package com.booktracker.bookservice.service;
+
+import com.booktracker.bookservice.config.ReplicaRouting;
+import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.event.BookChangedEvent;
+import com.booktracker.bookservice.event.RatingChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight reads of the hot single-book endpoints (GET /api/v1/books/{id} and
+ * /api/v1/ratings/books/{id}/stats): when a featured book is requested by many clients at once,
+ * they share one database query per book, and its result for cache-ms afterwards.
+ * Entries are dropped once a change to the book or its ratings commits.
+ *
+ * The returned objects are shared between requests and only meant to be serialized:
+ * code that modifies a book loads it through {@link BookService} instead.
+ */
+@Service
+public class BookReadCoalescer {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Only present when a read replica is configured (see DataSourceConfig)
+    @Autowired(required = false)
+    private ReplicaRouting replicaRouting;
+
+    @Value("${booktracker.read-coalescing.cache-ms:250}")
+    private long cacheMillis;
+
+    private SingleFlight<Long, Book> books;
+    private SingleFlight<Long, LocalDateTime> bookVersions;
+    private SingleFlight<Long, Map<String, Object>> ratingStats;
+
+    @PostConstruct
+    void init() {
+        books = new SingleFlight<>("book", cacheMillis, meterRegistry);
+        bookVersions = new SingleFlight<>("book-version", cacheMillis, meterRegistry);
+        ratingStats = new SingleFlight<>("rating-stats", cacheMillis, meterRegistry);
+    }
+
+    public Book findBookById(Long id) {
+        return read(books, id, () -> bookService.findBookById(id));
+    }
+
+    public LocalDateTime getBookLastModified(Long id) {
+        return read(bookVersions, id, () -> bookService.getBookLastModified(id));
+    }
+
+    public Map<String, Object> getBookRatingStats(Long bookId) {
+        return read(ratingStats, bookId, () -> Collections.unmodifiableMap(ratingService.getBookRatingStats(bookId)));
+    }
+
+    // Only after commit: a request starting right after sees the change, not a result loaded before it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        books.invalidate(event.getBookId());
+        bookVersions.invalidate(event.getBookId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        ratingStats.invalidate(event.getBookId());
+    }
+
+    @Scheduled(fixedDelay = 10000)
+    public void evictExpired() {
+        books.evictExpired();
+        bookVersions.evictExpired();
+        ratingStats.evictExpired();
+    }
+
+    // A user pinned to the primary after a write (read-your-writes) must not join a replica read
+    private <V> V read(SingleFlight<Long, V> flight, Long id, Supplier<V> loader) {
+        if (replicaRouting != null && replicaRouting.isPrimaryForced()) {
+            return loader.get();
+        }
+        return flight.get(id, loader);
+    }
+}
@@ -1,12 +1,20 @@
 package com.booktracker.bookservice.service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.event.BookChangedEvent;
 import com.booktracker.bookservice.repository.BookRepository;
 
 @Service
@@ -15,17 +23,26 @@ public class BookService {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Get all books
+    @Transactional(readOnly = true)
     public List<Book> findAllBooks() {
         return bookRepository.findAll();
     }
 
     // Get book by ID
+    @Transactional(readOnly = true)
     public Book findBookById(Long id) {
         return bookRepository.findById(id).orElse(null);
     }
 
     // Search books by title or author
+    @Transactional(readOnly = true)
     public List<Book> searchBooks(String query) {
         String searchQuery = query.toLowerCase();
         return bookRepository.findAll().stream()
@@ -37,29 +54,190 @@ public class BookService {
     }
 
     // Save/Create book
+    @Transactional
     public Book saveBook(Book book) {
-        return bookRepository.save(book);
+        boolean created = book.getId() == null;
+        Book stored = created ? null : bookRepository.findById(book.getId()).orElse(null);
+        authorService.prepareLink(book, stored != null ? stored.getAuthorId() : null,
+                stored != null ? stored.getAuthor() : null);
+        Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(
+                created ? BookChangedEvent.CREATED : BookChangedEvent.UPDATED, saved.getId()));
+        return saved;
+    }
+
+    /**
+     * The catalog book with the same Open Library key or ISBN, or null. Normalizes both keys on the
+     * given book first (ISBN digits only, key as /works/OL...W), so it can be saved as is when new.
+     * Read on the primary: a replica lagging behind would miss a book created a moment ago.
+     */
+    @Transactional
+    public Book findCatalogMatch(Book book) {
+        book.setIsbn(normalizeIsbn(book.getIsbn()));
+        book.setOpenLibraryKey(normalizeOpenLibraryKey(book.getOpenLibraryKey()));
+
+        if (book.getOpenLibraryKey() != null) {
+            Book match = bookRepository.findByOpenLibraryKey(book.getOpenLibraryKey()).orElse(null);
+            if (match != null) {
+                return match;
+            }
+        }
+        if (book.getIsbn() != null) {
+            return bookRepository.findByIsbn(book.getIsbn()).orElse(null);
+        }
+        return null;
+    }
+
+    /**
+     * Fills the details looked up on Open Library, only where the book has none yet,
+     * and marks the book as enriched. Returns null when the book does not exist.
+     */
+    @Transactional
+    public Book enrichBook(Long id, Book details) {
+        Book book = bookRepository.findById(id).orElse(null);
+        if (book == null) {
+            return null;
+        }
+        applyEnrichment(book, details, takenKeys(List.of(details)));
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.UPDATED, id));
+        return bookRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Writes a page of background lookups back in one transaction: the details found for each book,
+     * an empty Book when Open Library had nothing, and the next retry time of the books whose lookup
+     * failed. Only the enrichment columns are written. Returns the number of books updated.
+     */
+    @Transactional
+    public int saveEnrichmentResults(Map<Long, Book> detailsById, Map<Long, LocalDateTime> retryAtById) {
+        Set<Long> ids = new HashSet<>(detailsById.keySet());
+        ids.addAll(retryAtById.keySet());
+        // Read only to know which ISBNs and keys each book still lacks; the updates re-check in SQL
+        List<Book> books = bookRepository.findAllById(ids);
+
+        Set<String> takenKeys = takenKeys(detailsById.values());
+        int updated = 0;
+        for (Book book : books) {
+            Book details = detailsById.get(book.getId());
+            if (details != null) {
+                updated += applyEnrichment(book, details, takenKeys);
+                eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.UPDATED, book.getId()));
+            } else {
+                updated += bookRepository.scheduleEnrichmentRetry(book.getId(), retryAtById.get(book.getId()));
+            }
+        }
+        return updated;
+    }
+
+    // ISBNs and work keys of the given details that a catalog book already has
+    private Set<String> takenKeys(Collection<Book> details) {
+        Set<String> isbns = new HashSet<>();
+        Set<String> keys = new HashSet<>();
+        for (Book book : details) {
+            String isbn = normalizeIsbn(book.getIsbn());
+            String key = normalizeOpenLibraryKey(book.getOpenLibraryKey());
+            if (isbn != null) {
+                isbns.add(isbn);
+            }
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        Set<String> taken = new HashSet<>();
+        if (!isbns.isEmpty()) {
+            taken.addAll(bookRepository.findExistingIsbns(isbns));
+        }
+        if (!keys.isEmpty()) {
+            taken.addAll(bookRepository.findExistingOpenLibraryKeys(keys));
+        }
+        return taken;
+    }
+
+    // takenKeys: ISBNs and work keys in use, the ones given to this book are added.
+    // The update fills empty columns only, so values set since the book was read win.
+    private int applyEnrichment(Book book, Book details, Set<String> takenKeys) {
+        // Both are unique: only offered when no other book of the catalog has them yet
+        String isbn = normalizeIsbn(details.getIsbn());
+        if (book.getIsbn() != null || isbn == null || !takenKeys.add(isbn)) {
+            isbn = null;
+        }
+        String key = normalizeOpenLibraryKey(details.getOpenLibraryKey());
+        if (book.getOpenLibraryKey() != null || key == null || !takenKeys.add(key)) {
+            key = null;
+        }
+        return bookRepository.fillEnrichment(book.getId(),
+                details.getDescription() != null ? truncate(details.getDescription(), 2000) : null,
+                details.getTotalPages(),
+                details.getPublisher() != null ? truncate(details.getPublisher(), 255) : null,
+                details.getPublishYear(), isbn, key, LocalDateTime.now());
     }
 
     // Update book
+    @Transactional
     public Book updateBook(Long id, Book bookDetails) {
         Book book = findBookById(id);
         if (book != null) {
+            String storedAuthor = book.getAuthor();
             book.setTitle(bookDetails.getTitle());
             book.setAuthor(bookDetails.getAuthor());
             book.setCoverUrl(bookDetails.getCoverUrl());
+            authorService.prepareLink(book, book.getAuthorId(), storedAuthor);
+            eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.UPDATED, id));
             return bookRepository.save(book);
         }
         return null;
     }
 
     // Delete book
+    @Transactional
     public void deleteBook(Long id) {
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.DELETED, id));
+    }
+
+    // Last modification time of a book, without loading the entity (null if unknown)
+    @Transactional(readOnly = true)
+    public LocalDateTime getBookLastModified(Long id) {
+        return bookRepository.findUpdatedAtById(id);
+    }
+
+    // Last modification time across the whole catalog (null if empty)
+    @Transactional(readOnly = true)
+    public LocalDateTime getCatalogLastModified() {
+        return bookRepository.findLatestUpdatedAt();
+    }
+
+    // Number of books in the catalog
+    @Transactional(readOnly = true)
+    public long countBooks() {
+        return bookRepository.count();
     }
 
     // Check if book exists
+    @Transactional(readOnly = true)
     public boolean bookExists(Long id) {
         return bookRepository.existsById(id);
     }
-}
\ No newline at end of file
+
+    // 978-0-345-39180-3 -> 9780345391803; null when nothing is left
+    static String normalizeIsbn(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        String normalized = isbn.replaceAll("[^0-9Xx]", "").toUpperCase();
+        return normalized.length() == 10 || normalized.length() == 13 ? normalized : null;
+    }
+
+    // OL45883W, works/OL45883W or /works/OL45883W -> /works/OL45883W; null when not a work key
+    static String normalizeOpenLibraryKey(String key) {
+        if (key == null) {
+            return null;
+        }
+        String id = key.trim().substring(key.trim().lastIndexOf('/') + 1);
+        return id.matches("OL\\d+W") ? "/works/" + id : null;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
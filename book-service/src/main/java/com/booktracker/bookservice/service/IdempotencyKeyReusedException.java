@@ -0,0 +1,9 @@
+package com.booktracker.bookservice.service;
+
+// An Idempotency-Key the user already sent with a different request
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key " + key + " was already used for a different request");
+    }
+}
@@ -1,17 +1,27 @@
 package com.booktracker.bookservice.service;
 
-import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.dto.RatingResultDTO;
 import com.booktracker.bookservice.entity.Rating;
-import com.booktracker.bookservice.entity.User;
-import com.booktracker.bookservice.repository.BookRepository;
+import com.booktracker.bookservice.repository.IdempotencyKeyRepository;
 import com.booktracker.bookservice.repository.RatingRepository;
-import com.booktracker.bookservice.repository.UserRepository;
+import com.booktracker.bookservice.entity.IdempotencyKey;
+import com.booktracker.bookservice.event.RatingChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,39 +29,91 @@ import java.util.Map;
 @Transactional
 public class RatingService {
 
+    private static final long IDEMPOTENCY_KEY_TTL_HOURS = 24;
+
     @Autowired
     private RatingRepository ratingRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    private BookRepository bookRepository;
+    private ObjectMapper objectMapper;
 
     /**
-     * Create or update a book rating
+     * Create or update a book rating with a single upsert; user and book are referenced by id only.
+     * With an idempotency key, a retry of an already applied request gets the original response back,
+     * and reusing the key for a different request throws IdempotencyKeyReusedException.
      */
-    public Rating rateBook(Long userId, Long bookId, Integer ratingValue) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
-
-        // Check if user already rated this book
-        Rating rating = ratingRepository.findByUserIdAndBookId(userId, bookId)
-                .orElse(new Rating());
-
-        rating.setUser(user);
-        rating.setBook(book);
-        rating.setRating(ratingValue);
-        rating.setRatedAt(LocalDateTime.now());
-
-        return ratingRepository.save(rating);
+    public RatingResultDTO rateBook(Long userId, Long bookId, Integer ratingValue, String idempotencyKey) {
+        String requestHash = null;
+        if (idempotencyKey != null) {
+            requestHash = requestHash(bookId, ratingValue);
+            if (idempotencyKeyRepository.claim(userId, idempotencyKey, requestHash) == 0) {
+                return replay(userId, idempotencyKey, requestHash);
+            }
+        }
+
+        LocalDateTime ratedAt = LocalDateTime.now();
+        // MySQL reports 1 affected row for an insert, 2 for an update
+        boolean created = ratingRepository.upsertRating(userId, bookId, ratingValue, ratedAt) == 1;
+        eventPublisher.publishEvent(new RatingChangedEvent(userId, bookId, ratingValue, created));
+        RatingResultDTO result = new RatingResultDTO(ratingRepository.lastInsertId(), userId, bookId, ratingValue, ratedAt);
+
+        if (idempotencyKey != null) {
+            idempotencyKeyRepository.saveResponse(userId, idempotencyKey, toJson(result));
+        }
+        return result;
+    }
+
+    // The claim blocked until the first request committed, so its response is stored by now
+    private RatingResultDTO replay(Long userId, String idempotencyKey, String requestHash) {
+        IdempotencyKey stored = idempotencyKeyRepository.findForReplay(userId, idempotencyKey)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key vanished: " + idempotencyKey));
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+        try {
+            return objectMapper.readValue(stored.getResponseBody(), RatingResultDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response for idempotency key " + idempotencyKey, e);
+        }
+    }
+
+    // The user is part of the key, so only the rated book and value identify the request
+    private static String requestHash(Long bookId, Integer ratingValue) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((bookId + ":" + ratingValue).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(RatingResultDTO result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store rating response", e);
+        }
+    }
+
+    /**
+     * Forget idempotency keys once retries for them can no longer arrive
+     */
+    @Scheduled(cron = "0 0 * * * *")
+    public void purgeIdempotencyKeys() {
+        idempotencyKeyRepository.deleteOlderThan(LocalDateTime.now().minusHours(IDEMPOTENCY_KEY_TTL_HOURS));
     }
 
     /**
      * Get all ratings by a user
      */
+    @Transactional(readOnly = true)
     public List<Rating> getUserRatings(Long userId) {
         return ratingRepository.findByUserId(userId);
     }
@@ -59,6 +121,7 @@ public class RatingService {
     /**
      * Get user's rating for a specific book
      */
+    @Transactional(readOnly = true)
     public Rating getUserBookRating(Long userId, Long bookId) {
         return ratingRepository.findByUserIdAndBookId(userId, bookId).orElse(null);
     }
@@ -66,6 +129,7 @@ public class RatingService {
     /**
      * Get all ratings for a book
      */
+    @Transactional(readOnly = true)
     public List<Rating> getBookRatings(Long bookId) {
         return ratingRepository.findByBookId(bookId);
     }
@@ -73,6 +137,7 @@ public class RatingService {
     /**
      * Get rating statistics for a book
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getBookRatingStats(Long bookId) {
         List<Rating> ratings = ratingRepository.findByBookId(bookId);
 
@@ -92,6 +157,34 @@ public class RatingService {
         return stats;
     }
 
+    /**
+     * Get rating statistics and the user's own rating for several books in one query.
+     * Books without ratings are included with zero values, in the requested order.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Map<String, Object>> getBatchRatingStats(Collection<Long> bookIds, Long userId) {
+        Map<Long, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Long bookId : bookIds) {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("averageRating", 0.0);
+            stats.put("totalRatings", 0);
+            stats.put("userRating", 0);
+            result.put(bookId, stats);
+        }
+        if (bookIds.isEmpty()) {
+            return result;
+        }
+
+        for (Object[] row : ratingRepository.findRatingStatsByBookIds(bookIds, userId)) {
+            Map<String, Object> stats = result.get((Long) row[0]);
+            double average = ((Number) row[1]).doubleValue();
+            stats.put("averageRating", Math.round(average * 10.0) / 10.0);
+            stats.put("totalRatings", ((Number) row[2]).intValue());
+            stats.put("userRating", row[3] != null ? ((Number) row[3]).intValue() : 0);
+        }
+        return result;
+    }
+
     /**
      * Delete a rating
      */
@@ -0,0 +1,133 @@
+package com.booktracker.bookservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs one load per key at a time: callers asking for a key that is already being loaded wait
+ * for that load and get the same result (or exception). With a cache time, a result is also
+ * handed out for that long after it completed. Results are shared, so callers must not modify them.
+ *
+ * Metrics: booktracker.singleflight.calls (by name and result: loaded, coalesced, cached),
+ * booktracker.singleflight.coalesced.ratio and booktracker.singleflight.hit.ratio (since startup)
+ * and booktracker.singleflight.keys.
+ */
+public class SingleFlight<K, V> {
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        // System.nanoTime() when the load finished, 0 while it runs
+        volatile long completedAt;
+    }
+
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final long cacheNanos;
+
+    private final Counter loaded;
+    private final Counter coalesced;
+    private final Counter cached;
+
+    public SingleFlight(String name, long cacheMillis, MeterRegistry meterRegistry) {
+        this.cacheNanos = TimeUnit.MILLISECONDS.toNanos(cacheMillis);
+        this.loaded = calls(name, "loaded", meterRegistry);
+        this.coalesced = calls(name, "coalesced", meterRegistry);
+        this.cached = calls(name, "cached", meterRegistry);
+        Gauge.builder("booktracker.singleflight.coalesced.ratio", this, flight -> flight.ratio(flight.coalesced))
+                .description("Share of calls that joined a load already running")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("booktracker.singleflight.hit.ratio", this, flight -> flight.ratio(flight.cached))
+                .description("Share of calls answered from the micro-cache")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("booktracker.singleflight.keys", flights, ConcurrentHashMap::size)
+                .description("Keys loading or cached")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        while (true) {
+            Flight<V> flight = flights.get(key);
+            if (flight != null) {
+                long completedAt = flight.completedAt;
+                if (completedAt == 0) {
+                    coalesced.increment();
+                    return join(flight);
+                }
+                if (System.nanoTime() - completedAt < cacheNanos) {
+                    cached.increment();
+                    return join(flight);
+                }
+                flights.remove(key, flight);
+            }
+
+            Flight<V> own = new Flight<>();
+            if (flights.putIfAbsent(key, own) != null) {
+                // Another caller started a load in between: join it
+                continue;
+            }
+            loaded.increment();
+            try {
+                V value = loader.get();
+                own.result.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                // Failures are shared with the waiting callers but never cached
+                own.result.completeExceptionally(e);
+                flights.remove(key, own);
+                throw e;
+            } finally {
+                if (cacheNanos > 0) {
+                    own.completedAt = System.nanoTime();
+                } else {
+                    flights.remove(key, own);
+                }
+            }
+        }
+    }
+
+    // Drops the key, so the next call loads again; a load already running finishes for its waiters only
+    public void invalidate(K key) {
+        flights.remove(key);
+    }
+
+    // Cached results are only dropped lazily on their next call; this removes the ones never asked again
+    public void evictExpired() {
+        long now = System.nanoTime();
+        flights.values().removeIf(flight -> flight.completedAt != 0 && now - flight.completedAt >= cacheNanos);
+    }
+
+    private V join(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private double ratio(Counter counter) {
+        double total = loaded.count() + coalesced.count() + cached.count();
+        return total > 0 ? counter.count() / total : 0;
+    }
+
+    private static Counter calls(String name, String result, MeterRegistry meterRegistry) {
+        return Counter.builder("booktracker.singleflight.calls")
+                .description("Reads through a single-flight loader")
+                .tags("name", name, "result", result)
+                .register(meterRegistry);
+    }
+}
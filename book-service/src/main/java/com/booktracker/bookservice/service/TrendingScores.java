@@ -0,0 +1,99 @@
+package com.booktracker.bookservice.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Exponentially decayed popularity of each book for every {@link TrendingService.Window}: a signal
+ * (library add, rating) adds its weight, which then fades with a time constant of a third of the
+ * window, so a signal one window old still counts 5%. Each book keeps one score per window and the
+ * time it was last brought up to date; scores are decayed lazily, on the next signal and in top().
+ * Exact per-book counters fit in memory since books are a bounded catalog, not a stream of keys.
+ */
+class TrendingScores {
+
+    // Below this weekly score a book is dropped; it comes back with its next signal
+    private static final double NEGLIGIBLE = 0.01;
+
+    private static final TrendingService.Window[] WINDOWS = TrendingService.Window.values();
+
+    record Entry(long bookId, double score) {
+    }
+
+    private static final class Counter {
+        final double[] scores = new double[WINDOWS.length];
+        long updatedAt;
+
+        Counter(long updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private final Map<Long, Counter> counters = new HashMap<>();
+
+    synchronized void add(long bookId, long atMillis, double weight) {
+        Counter counter = counters.computeIfAbsent(bookId, id -> new Counter(atMillis));
+        // Signals may arrive out of order (rebuild, redelivery): an older one enters already decayed
+        long age = counter.updatedAt - atMillis;
+        for (int i = 0; i < WINDOWS.length; i++) {
+            if (age >= 0) {
+                counter.scores[i] += weight * decay(age, WINDOWS[i]);
+            } else {
+                counter.scores[i] = counter.scores[i] * decay(-age, WINDOWS[i]) + weight;
+            }
+        }
+        counter.updatedAt = Math.max(counter.updatedAt, atMillis);
+    }
+
+    // The k best books of each window at the given time, best first; also drops faded books
+    synchronized Map<TrendingService.Window, List<Entry>> top(int k, long nowMillis) {
+        Map<TrendingService.Window, PriorityQueue<Entry>> heaps = new EnumMap<>(TrendingService.Window.class);
+        for (TrendingService.Window window : WINDOWS) {
+            heaps.put(window, new PriorityQueue<>(k + 1, Comparator.comparingDouble(Entry::score)));
+        }
+
+        Iterator<Map.Entry<Long, Counter>> iterator = counters.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Counter> book = iterator.next();
+            Counter counter = book.getValue();
+            long age = Math.max(0, nowMillis - counter.updatedAt);
+            if (counter.scores[WINDOWS.length - 1] * decay(age, WINDOWS[WINDOWS.length - 1]) < NEGLIGIBLE) {
+                iterator.remove();
+                continue;
+            }
+            for (int i = 0; i < WINDOWS.length; i++) {
+                double score = counter.scores[i] * decay(age, WINDOWS[i]);
+                PriorityQueue<Entry> heap = heaps.get(WINDOWS[i]);
+                // Min-heap of the k best so far: a book only enters when it beats the weakest
+                if (heap.size() < k) {
+                    heap.add(new Entry(book.getKey(), score));
+                } else if (score > heap.peek().score()) {
+                    heap.poll();
+                    heap.add(new Entry(book.getKey(), score));
+                }
+            }
+        }
+
+        Map<TrendingService.Window, List<Entry>> top = new EnumMap<>(TrendingService.Window.class);
+        heaps.forEach((window, heap) -> {
+            List<Entry> entries = new ArrayList<>(heap);
+            entries.sort(Comparator.comparingDouble(Entry::score).reversed());
+            top.put(window, entries);
+        });
+        return top;
+    }
+
+    synchronized int size() {
+        return counters.size();
+    }
+
+    private static double decay(long ageMillis, TrendingService.Window window) {
+        return Math.exp(-3.0 * ageMillis / window.millis);
+    }
+}
@@ -0,0 +1,246 @@
+package com.booktracker.bookservice.service;
+
+import com.booktracker.bookservice.dto.TrendingBookDTO;
+import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.entity.OutboxEvent;
+import com.booktracker.bookservice.event.LibraryChangedEvent;
+import com.booktracker.bookservice.event.OutboxSubscriber;
+import com.booktracker.bookservice.repository.BookRepository;
+import com.booktracker.bookservice.repository.RatingRepository;
+import com.booktracker.bookservice.repository.UserLibraryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Trending books of the last hour, day and week, ranked by library adds and first ratings
+ * (rating changes do not count, so re-rating a book cannot push it up).
+ *
+ * Scores live in memory ({@link TrendingScores}) and follow the embedded outbox as a
+ * {@link OutboxSubscriber}; every rebuild-interval-ms they are rebuilt from a week of
+ * user_library and ratings rows, which covers the Kafka publisher (no embedded delivery) and
+ * keeps instances in agreement. GET /api/v1/books/trending reads a leaderboard recomputed
+ * every refresh-interval-ms, so requests never touch the database.
+ */
+@Service
+public class TrendingService implements OutboxSubscriber {
+
+    public enum Window {
+        HOUR(3_600_000L), DAY(86_400_000L), WEEK(604_800_000L);
+
+        final long millis;
+
+        Window(long millis) {
+            this.millis = millis;
+        }
+
+        // "hour" or "hourly"; null when unknown
+        public static Window parse(String value) {
+            return switch (value == null ? "" : value.toLowerCase()) {
+                case "hour", "hourly" -> HOUR;
+                case "day", "daily" -> DAY;
+                case "week", "weekly" -> WEEK;
+                default -> null;
+            };
+        }
+    }
+
+    // Width of the buckets the rebuild queries count in (see RatingRepository.countRatedSince)
+    private static final long BUCKET_MINUTES = 5;
+
+    // Outbox ids remembered to drop redeliveries; far more than a few redelivered batches
+    private static final int RECENT_EVENT_IDS = 10_000;
+
+    private record Signal(long bookId, long atMillis, double weight) {
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserLibraryRepository userLibraryRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booktracker.trending.top-size:100}")
+    private int topSize;
+
+    @Value("${booktracker.trending.weight.library-add:1.0}")
+    private double libraryAddWeight;
+
+    @Value("${booktracker.trending.weight.rating:2.0}")
+    private double ratingWeight;
+
+    private volatile TrendingScores scores = new TrendingScores();
+    private volatile Map<Window, List<TrendingBookDTO>> leaderboards = emptyLeaderboards();
+
+    // Guarded by this: the outbox events applied lately, and what arrived during a rebuild.
+    // A set, not the highest id: ids are taken at insert, so a lower one can arrive after a higher one.
+    private final Map<Long, Boolean> recentEventIds = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > RECENT_EVENT_IDS;
+        }
+    };
+    private List<Signal> duringRebuild;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("booktracker.trending.books", this, service -> service.scores.size())
+                .description("Books with a trending score")
+                .register(meterRegistry);
+    }
+
+    public int getTopSize() {
+        return topSize;
+    }
+
+    public List<TrendingBookDTO> getTrending(Window window, int limit) {
+        List<TrendingBookDTO> leaderboard = leaderboards.get(window);
+        return leaderboard.subList(0, Math.min(limit, leaderboard.size()));
+    }
+
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        synchronized (this) {
+            for (OutboxEvent event : events) {
+                // Redelivered: already counted
+                if (recentEventIds.put(event.getId(), Boolean.TRUE) != null) {
+                    continue;
+                }
+                Signal signal = signal(event);
+                if (signal != null) {
+                    scores.add(signal.bookId(), signal.atMillis(), signal.weight());
+                    if (duringRebuild != null) {
+                        duringRebuild.add(signal);
+                    }
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booktracker.trending.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minusWeeks(1);
+        synchronized (this) {
+            duringRebuild = new ArrayList<>();
+        }
+        try {
+            TrendingScores rebuilt = new TrendingScores();
+            addCounts(rebuilt, userLibraryRepository.countAddedSince(since), since, libraryAddWeight);
+            addCounts(rebuilt, ratingRepository.countRatedSince(since), since, ratingWeight);
+            long queriedAt = toMillis(since.plusWeeks(1));
+            synchronized (this) {
+                // Events that happened after the queries started are not in the rows yet
+                for (Signal signal : duringRebuild) {
+                    if (signal.atMillis() >= queriedAt) {
+                        rebuilt.add(signal.bookId(), signal.atMillis(), signal.weight());
+                    }
+                }
+                scores = rebuilt;
+            }
+            refreshLeaderboards();
+            System.out.println("[TRENDING] Rebuilt scores of " + rebuilt.size() + " books");
+        } catch (RuntimeException e) {
+            System.err.println("[TRENDING] Rebuild failed, keeping the current scores: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                duringRebuild = null;
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${booktracker.trending.refresh-interval-ms:30000}",
+            fixedDelayString = "${booktracker.trending.refresh-interval-ms:30000}")
+    public void refreshLeaderboards() {
+        try {
+            Map<Window, List<TrendingScores.Entry>> top = scores.top(topSize, System.currentTimeMillis());
+            List<Long> ids = top.values().stream().flatMap(List::stream)
+                    .map(TrendingScores.Entry::bookId).distinct().toList();
+            Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+            Map<Window, List<TrendingBookDTO>> refreshed = new EnumMap<>(Window.class);
+            top.forEach((window, entries) -> refreshed.put(window, entries.stream()
+                    .filter(entry -> books.containsKey(entry.bookId()))
+                    .map(entry -> toDTO(books.get(entry.bookId()), entry.score()))
+                    .toList()));
+            leaderboards = refreshed;
+        } catch (RuntimeException e) {
+            System.err.println("[TRENDING] Could not refresh the leaderboards: " + e.getMessage());
+        }
+    }
+
+    // Rows of (book_id, bucket, count); a bucket counts as happening at its middle
+    private void addCounts(TrendingScores target, List<Object[]> rows, LocalDateTime since, double weight) {
+        long start = toMillis(since);
+        for (Object[] row : rows) {
+            long bucket = ((Number) row[1]).longValue();
+            long at = start + (bucket * BUCKET_MINUTES * 60_000L) + (BUCKET_MINUTES * 30_000L);
+            target.add(((Number) row[0]).longValue(), at, weight * ((Number) row[2]).longValue());
+        }
+    }
+
+    // Library adds and first ratings; null for every other event
+    private Signal signal(OutboxEvent event) {
+        boolean libraryAdd = "library-changed".equals(event.getEventType());
+        if (!libraryAdd && !"rating-changed".equals(event.getEventType())) {
+            return null;
+        }
+        try {
+            JsonNode payload = objectMapper.readTree(event.getPayload());
+            boolean counts = libraryAdd
+                    ? LibraryChangedEvent.ADDED.equals(payload.path("change").asText())
+                    : payload.path("created").asBoolean();
+            if (!counts || !payload.path("bookId").canConvertToLong()) {
+                return null;
+            }
+            return new Signal(payload.path("bookId").asLong(), toMillis(event.getCreatedAt()),
+                    libraryAdd ? libraryAddWeight : ratingWeight);
+        } catch (JsonProcessingException e) {
+            System.err.println("[TRENDING] Skipping unreadable outbox event " + event.getId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static TrendingBookDTO toDTO(Book book, double score) {
+        return new TrendingBookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getCoverUrl(),
+                Math.round(score * 100) / 100.0);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Map<Window, List<TrendingBookDTO>> emptyLeaderboards() {
+        Map<Window, List<TrendingBookDTO>> empty = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            empty.put(window, List.of());
+        }
+        return empty;
+    }
+}
@@ -1,18 +1,32 @@
 package com.booktracker.bookservice.service;
 
+import com.booktracker.bookservice.dto.LibraryEntrySummaryDTO;
+import com.booktracker.bookservice.dto.LibraryListQuery;
+import com.booktracker.bookservice.dto.LibraryPageDTO;
+import com.booktracker.bookservice.dto.LibraryStatusDTO;
+import com.booktracker.bookservice.dto.LibraryTitleDTO;
+import com.booktracker.bookservice.dto.ProgressUpdateDTO;
 import com.booktracker.bookservice.entity.*;
+import com.booktracker.bookservice.event.LibraryChangedEvent;
+import com.booktracker.bookservice.event.ProgressUpdatedEvent;
 import com.booktracker.bookservice.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 @Service
 @Transactional
 public class UserLibraryService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final List<String> DEFAULT_FIELDS = List.of("bookId", "status", "addedAt");
+
     @Autowired
     private UserLibraryRepository libraryRepository;
 
@@ -25,135 +39,212 @@ public class UserLibraryService {
     @Autowired
     private ReadingProgressRepository progressRepository;
 
-    public UserLibrary addBookToLibrary(Long userId, Long bookId, ReadingStatus status) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // The user's entry for a book, or null; adding a book twice returns this one instead.
+    // Read on the primary: a lagging replica would miss the first of two quick clicks
+    public LibraryEntrySummaryDTO findLibraryEntry(Long userId, Long bookId) {
+        List<LibraryEntrySummaryDTO> entries = libraryRepository.findSummariesByUserIdAndBookId(userId, bookId);
+        return entries.isEmpty() ? null : entries.get(0);
+    }
 
+    /**
+     * Add a book to a user's library. User and book are set as references (no SELECT),
+     * a missing user or book surfaces as a foreign key violation on insert.
+     */
+    public LibraryEntrySummaryDTO addBookToLibrary(Long userId, Long bookId, ReadingStatus status) {
         UserLibrary library = new UserLibrary();
-        library.setUser(user);
-        library.setBook(book);
+        library.setUser(userRepository.getReferenceById(userId));
+        library.setBook(bookRepository.getReferenceById(bookId));
         library.setStatus(status);
         library.setAddedAt(LocalDateTime.now());
+        // Inserted together with the entry through the cascade
+        library.setReadingProgress(new ReadingProgress(library));
 
         UserLibrary savedLibrary = libraryRepository.save(library);
-
-        ReadingProgress progress = new ReadingProgress(savedLibrary);
-        progressRepository.save(progress);
-        savedLibrary.setReadingProgress(progress);
-
-        return savedLibrary;
+        eventPublisher.publishEvent(new LibraryChangedEvent(
+                userId, LibraryChangedEvent.ADDED, savedLibrary.getId(), bookId, status));
+        return new LibraryEntrySummaryDTO(savedLibrary.getId(), userId, bookId, status, savedLibrary.getAddedAt());
     }
 
+    @Transactional(readOnly = true)
     public List<UserLibrary> getUserLibrary(Long userId) {
         return libraryRepository.findByUserId(userId);
     }
 
+    /**
+     * One page of a user's library with only the requested columns, filtered and keyset paginated.
+     * Invalid sort, order, cursor or field names throw IllegalArgumentException.
+     */
+    @Transactional(readOnly = true)
+    public LibraryPageDTO listEntries(Long userId, LibraryListQuery query) {
+        if (!"addedAt".equals(query.getSort()) && !"lastUpdated".equals(query.getSort())) {
+            throw new IllegalArgumentException("sort must be addedAt or lastUpdated");
+        }
+        if (!"asc".equalsIgnoreCase(query.getOrder()) && !"desc".equalsIgnoreCase(query.getOrder())) {
+            throw new IllegalArgumentException("order must be asc or desc");
+        }
+        int limit = query.getLimit() == null ? 20 : Math.max(1, Math.min(query.getLimit(), MAX_PAGE_SIZE));
+
+        List<String> fields = DEFAULT_FIELDS;
+        if (query.getFields() != null && !query.getFields().isBlank()) {
+            fields = Arrays.stream(query.getFields().split(","))
+                    .map(String::trim)
+                    .filter(field -> !field.isEmpty() && !"id".equals(field))
+                    .distinct()
+                    .toList();
+        }
+
+        LocalDateTime afterSortKey = null;
+        Long afterId = null;
+        if (query.getCursor() != null && !query.getCursor().isBlank()) {
+            String[] cursor = decodeCursor(query.getCursor());
+            if (!cursor[0].equals(query.getSort() + ":" + query.getOrder().toLowerCase())) {
+                throw new IllegalArgumentException("Cursor belongs to a different sort order");
+            }
+            afterSortKey = LocalDateTime.parse(cursor[1]);
+            afterId = Long.valueOf(cursor[2]);
+        }
+
+        // One extra row tells whether there is a next page
+        List<Map<String, Object>> rows = libraryRepository.findEntryPage(
+                userId, query, fields, afterSortKey, afterId, limit + 1);
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Map<String, Object> last = rows.get(limit - 1);
+            nextCursor = encodeCursor(query.getSort() + ":" + query.getOrder().toLowerCase(),
+                    (LocalDateTime) last.get(UserLibraryRepository.SORT_KEY), (Long) last.get("id"));
+        }
+        rows.forEach(row -> row.remove(UserLibraryRepository.SORT_KEY));
+        return new LibraryPageDTO(rows, nextCursor);
+    }
+
+    // Opaque to clients: "sort:order|sortKey|id", base64url
+    private static String encodeCursor(String ordering, LocalDateTime sortKey, Long id) {
+        String raw = ordering + "|" + sortKey + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(parts[1]);
+            Long.parseLong(parts[2]);
+            return parts;
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<LibraryTitleDTO> getLibraryTitles(Long userId) {
+        return libraryRepository.findTitlesByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
     public List<UserLibrary> getBooksByStatus(Long userId, ReadingStatus status) {
         return libraryRepository.findByUserIdAndStatus(userId, status);
     }
 
+    @Transactional(readOnly = true)
     public UserLibrary getLibraryEntry(Long libraryId) {
         return libraryRepository.findById(libraryId).orElse(null);
     }
 
     /**
-     * Helper method to mark a book as completed
-     * Automatically sets current page to total pages
+     * Update the reading status of a library entry with a single UPDATE
+     * If status is COMPLETED, also sets current page to total pages when the book's page count is known
      */
-    private void completeBook(UserLibrary library) {
-        ReadingProgress progress = library.getReadingProgress();
-        if (progress != null) {
-            Integer totalPages = library.getBook().getTotalPages();
-            if (totalPages != null && totalPages > 0) {
-                progress.setCurrentPage(totalPages);
-                progress.setProgressPercent(100.0);
-                if (progress.getCompletedAt() == null) {
-                    progress.setCompletedAt(LocalDateTime.now());
-                }
-                progress.setLastUpdated(LocalDateTime.now());
-            }
+    public LibraryStatusDTO updateStatus(Long libraryId, ReadingStatus newStatus) {
+        if (libraryRepository.updateStatus(libraryId, newStatus) == 0) {
+            throw new RuntimeException("Library entry not found");
         }
-        library.setStatus(ReadingStatus.COMPLETED);
-    }
-
-    /**
-     * Update the reading status of a library entry
-     * If status is COMPLETED, automatically sets current page to total pages
-     */
-    public UserLibrary updateStatus(Long libraryId, ReadingStatus newStatus) {
-        UserLibrary library = libraryRepository.findById(libraryId)
-                .orElseThrow(() -> new RuntimeException("Library entry not found"));
-
         if (newStatus == ReadingStatus.COMPLETED) {
-            completeBook(library);
-        } else {
-            library.setStatus(newStatus);
+            progressRepository.completeProgress(libraryId, LocalDateTime.now());
         }
-
-        return libraryRepository.save(library);
+        libraryRepository.findUserIdById(libraryId).ifPresent(userId -> eventPublisher.publishEvent(
+                new LibraryChangedEvent(userId, LibraryChangedEvent.STATUS_CHANGED, libraryId, null, newStatus)));
+        return new LibraryStatusDTO(libraryId, newStatus);
     }
 
     public void removeBookFromLibrary(Long libraryId) {
+        Optional<Long> userId = libraryRepository.findUserIdById(libraryId);
         libraryRepository.deleteById(libraryId);
+        userId.ifPresent(id -> eventPublisher.publishEvent(
+                new LibraryChangedEvent(id, LibraryChangedEvent.REMOVED, libraryId, null, null)));
     }
 
-    public ReadingProgress updateProgress(Long libraryId, Integer currentPage, String notes) {
-        System.out.println("=== UserLibraryService.updateProgress ===");
-        System.out.println("libraryId: " + libraryId + ", currentPage: " + currentPage);
+    public ProgressUpdateDTO updateProgress(Long libraryId, Integer currentPage, String notes) {
+        return updateProgressWithTotal(libraryId, currentPage, null, notes);
+    }
 
-        UserLibrary library = libraryRepository.findById(libraryId)
-                .orElseThrow(() -> new RuntimeException("Library entry not found: " + libraryId));
+    /**
+     * Update reading progress with targeted UPDATEs; only the book's page count is read.
+     * Reaching 100% marks the entry COMPLETED, any page above 0 marks it READING.
+     */
+    public ProgressUpdateDTO updateProgressWithTotal(Long libraryId, Integer currentPage, Integer totalPages, String notes) {
+        LocalDateTime now = LocalDateTime.now();
 
-        System.out.println("Found library entry: " + library.getId());
+        if (totalPages != null) {
+            if (libraryRepository.updateBookTotalPages(libraryId, totalPages, now) == 0) {
+                throw new RuntimeException("Library entry not found: " + libraryId);
+            }
+        } else {
+            totalPages = libraryRepository.findTotalPagesByLibraryId(libraryId)
+                    .orElseThrow(() -> new RuntimeException("Library entry not found: " + libraryId));
+        }
 
-        ReadingProgress progress = library.getReadingProgress();
-        if (progress == null) {
-            System.out.println("Creating new ReadingProgress");
-            progress = new ReadingProgress(library);
+        Double progressPercent = null;
+        ReadingStatus status = null;
+        if (totalPages > 0 && currentPage != null) {
+            progressPercent = (currentPage * 100.0) / totalPages;
+            if (progressPercent >= 100.0) {
+                status = ReadingStatus.COMPLETED;
+            } else if (progressPercent > 0) {
+                status = ReadingStatus.READING;
+            }
         }
 
-        progress.setCurrentPage(currentPage);
-        if (notes != null) {
-            progress.setNotes(notes);
+        LocalDateTime completedAt = status == ReadingStatus.COMPLETED ? now : null;
+        if (progressRepository.updateProgress(libraryId, currentPage, progressPercent, notes, now, completedAt) == 0) {
+            // The entity path below also updates the status
+            createMissingProgress(libraryId, currentPage, notes);
+        } else if (status != null) {
+            libraryRepository.updateStatus(libraryId, status);
         }
-        progress.calculateProgress();
 
-        System.out.println("Saving progress...");
-        return progressRepository.save(progress);
+        ProgressUpdateDTO result = new ProgressUpdateDTO(libraryId, currentPage, totalPages > 0 ? totalPages : null,
+                progressPercent, status, notes, now);
+        libraryRepository.findUserIdById(libraryId)
+                .ifPresent(userId -> eventPublisher.publishEvent(new ProgressUpdatedEvent(userId, result)));
+        return result;
     }
 
-    public ReadingProgress updateProgressWithTotal(Long libraryId, Integer currentPage, Integer totalPages, String notes) {
+    // Entries created before progress rows were added alongside them have none yet
+    private void createMissingProgress(Long libraryId, Integer currentPage, String notes) {
         UserLibrary library = libraryRepository.findById(libraryId)
-                .orElseThrow(() -> new RuntimeException("Library entry not found"));
-
-        Book book = library.getBook();
-        if (totalPages != null) {
-            book.setTotalPages(totalPages);
-            bookRepository.save(book);
-        }
-
-        ReadingProgress progress = library.getReadingProgress();
-        if (progress == null) {
-            progress = new ReadingProgress(library);
-        }
-
+                .orElseThrow(() -> new RuntimeException("Library entry not found: " + libraryId));
+        ReadingProgress progress = new ReadingProgress(library);
         progress.setCurrentPage(currentPage);
         if (notes != null) {
             progress.setNotes(notes);
         }
-        progress.calculateProgress();
-
-        return progressRepository.save(progress);
+        progressRepository.save(progress);
     }
 
+    @Transactional(readOnly = true)
     public ReadingProgress getProgress(Long libraryId) {
         UserLibrary library = libraryRepository.findById(libraryId)
                 .orElseThrow(() -> new RuntimeException("Library entry not found"));
         return library.getReadingProgress();
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getUserStats(Long userId) {
         List<UserLibrary> allBooks = libraryRepository.findByUserId(userId);
 
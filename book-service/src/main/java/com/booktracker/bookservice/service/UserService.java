@@ -3,6 +3,7 @@ package com.booktracker.bookservice.service;
 import com.booktracker.bookservice.entity.User;
 import com.booktracker.bookservice.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -17,6 +18,7 @@ public class UserService {
         this.userRepository = userRepository;
     }
 
+    @Transactional
     public User save(User user) {
         // NOTE: If this service handles registration, the User object passed here must
         // have its password field already encoded (e.g., encoded in AuthRestController
@@ -25,18 +27,22 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public User findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public User findByKeycloakId(String keycloakId) {
         return userRepository.findByKeycloakId(keycloakId);
     }
 
+    @Transactional
     public User findOrCreateByKeycloak(String keycloakId, String email, String name) {
         // First, try to find by keycloakId
         User user = userRepository.findByKeycloakId(keycloakId);
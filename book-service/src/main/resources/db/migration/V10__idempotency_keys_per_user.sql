@@ -0,0 +1,11 @@
+-- Idempotency keys belong to the user who sent them, and remember the request they came with
+-- (request_hash) and the response it got (response_body), so a retry is answered with that response
+-- and a key reused for another request is refused. Keys recorded before this change carry neither;
+-- they are dropped (they only guard retries for 24 hours).
+DELETE FROM idempotency_keys;
+ALTER TABLE idempotency_keys
+    DROP PRIMARY KEY,
+    MODIFY user_id BIGINT NOT NULL,
+    ADD COLUMN request_hash  CHAR(64)      NOT NULL,
+    ADD COLUMN response_body VARCHAR(4000) NULL,
+    ADD PRIMARY KEY (user_id, idempotency_key);
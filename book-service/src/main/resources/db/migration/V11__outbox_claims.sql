@@ -0,0 +1,4 @@
+-- The relay claims a batch (claimed_until = lease end) in a short transaction and publishes it
+-- without holding row locks; a claim left behind by a crashed relay lapses at claimed_until
+ALTER TABLE outbox_events
+    ADD COLUMN claimed_until DATETIME(6) NULL;
@@ -0,0 +1,30 @@
+-- A book is in a user's library at most once. Adding it checked first and inserted after, so two
+-- concurrent adds could both insert; duplicates made that way are merged before the constraint.
+-- The entry kept is the one with the latest reading progress (then the oldest), and it takes
+-- the earliest added_at of its duplicates. The others go, with their reading progress.
+CREATE TEMPORARY TABLE user_library_keep AS
+SELECT ul.user_id,
+       ul.book_id,
+       MIN(ul.added_at) AS first_added_at,
+       CAST(SUBSTRING_INDEX(GROUP_CONCAT(ul.id ORDER BY p.last_updated IS NULL, p.last_updated DESC, ul.id), ',', 1)
+           AS UNSIGNED) AS keep_id
+FROM user_library ul
+    LEFT JOIN reading_progress p ON p.user_library_id = ul.id
+GROUP BY ul.user_id, ul.book_id
+HAVING COUNT(*) > 1;
+
+UPDATE user_library ul
+    JOIN user_library_keep k ON ul.id = k.keep_id
+SET ul.added_at = k.first_added_at;
+
+DELETE p FROM reading_progress p
+    JOIN user_library ul ON p.user_library_id = ul.id
+    JOIN user_library_keep k ON ul.user_id = k.user_id AND ul.book_id = k.book_id AND ul.id <> k.keep_id;
+
+DELETE ul FROM user_library ul
+    JOIN user_library_keep k ON ul.user_id = k.user_id AND ul.book_id = k.book_id AND ul.id <> k.keep_id;
+
+DROP TEMPORARY TABLE user_library_keep;
+
+-- Also serves findByUserIdAndBookId and existsByUserIdAndBookId
+CREATE UNIQUE INDEX uk_user_library_user_book ON user_library (user_id, book_id);
@@ -0,0 +1,10 @@
+-- When a user first rated a book. rated_at moves on every re-rate, so trending counted a re-rate
+-- as a new rating; the upsert never writes first_rated_at after the insert. Existing ratings only
+-- know their last rating time, which is the best estimate there is.
+ALTER TABLE ratings
+    ADD COLUMN first_rated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+UPDATE ratings SET first_rated_at = rated_at WHERE rated_at IS NOT NULL;
+
+-- Trending rebuild: first ratings of the last week per book, from the index alone
+DROP INDEX idx_ratings_rated_book ON ratings;
+CREATE INDEX idx_ratings_first_rated_book ON ratings (first_rated_at, book_id);
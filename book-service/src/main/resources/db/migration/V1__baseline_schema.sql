@@ -0,0 +1,66 @@
+-- Schema as previously generated by hibernate ddl-auto=update.
+-- Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and skip this script; it only runs against an empty schema.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255),
+    email       VARCHAR(255),
+    password    VARCHAR(255),
+    keycloak_id VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email),
+    CONSTRAINT UK366dgrd625s5659shyen79mmw UNIQUE (keycloak_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS books (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    title        VARCHAR(255) NOT NULL,
+    author       VARCHAR(255),
+    cover_url    VARCHAR(500),
+    isbn         VARCHAR(13),
+    description  VARCHAR(2000),
+    publish_year INTEGER,
+    publisher    VARCHAR(255),
+    total_pages  INTEGER,
+    created_at   DATETIME(6),
+    updated_at   DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_library (
+    id       BIGINT NOT NULL AUTO_INCREMENT,
+    user_id  BIGINT NOT NULL,
+    book_id  BIGINT NOT NULL,
+    status   ENUM ('COMPLETED','DROPPED','ON_HOLD','READING','TO_READ'),
+    added_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKssg4makcjh7i3v46n7qi1xr3h FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT FKopmfmd5lyerujdfratxqp1nse FOREIGN KEY (book_id) REFERENCES books (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS reading_progress (
+    id               BIGINT NOT NULL AUTO_INCREMENT,
+    user_library_id  BIGINT NOT NULL,
+    current_page     INTEGER,
+    progress_percent FLOAT(53),
+    last_updated     DATETIME(6),
+    started_at       DATETIME(6),
+    completed_at     DATETIME(6),
+    notes            VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT UKgcv7c1ihr06s5stonnf1hwtd6 UNIQUE (user_library_id),
+    CONSTRAINT FKmebi21xcv9a4xa8cdyyhuqo8v FOREIGN KEY (user_library_id) REFERENCES user_library (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS ratings (
+    id       BIGINT NOT NULL AUTO_INCREMENT,
+    user_id  BIGINT NOT NULL,
+    book_id  BIGINT NOT NULL,
+    rating   INTEGER NOT NULL,
+    rated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKpqeblonlfbhxhyoeson7apo21 UNIQUE (user_id, book_id),
+    CONSTRAINT FKb3354ee2xxvdrbyq9f42jdayd FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT FKldi3twb2xod3e4byd4xx35cqi FOREIGN KEY (book_id) REFERENCES books (id)
+) ENGINE = InnoDB;
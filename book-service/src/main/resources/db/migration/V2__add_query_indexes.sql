@@ -0,0 +1,15 @@
+-- Secondary indexes shaped after the repository queries.
+-- users(email), users(keycloak_id), reading_progress(user_library_id) and ratings(user_id, book_id)
+-- are already covered by their unique constraints.
+
+-- findByUserIdAndStatus, countByUserIdAndStatus, findByUserId
+CREATE INDEX idx_user_library_user_status_added ON user_library (user_id, status, added_at);
+
+-- findByUserIdOrderByAddedAtDesc: range on user_id, rows already in added_at order
+CREATE INDEX idx_user_library_user_added ON user_library (user_id, added_at);
+
+-- ISBN lookups
+CREATE INDEX idx_books_isbn ON books (isbn);
+
+-- findByBookId and findRatingStatsByBookIds: the aggregate is answered from the index alone
+CREATE INDEX idx_ratings_book_rating_user ON ratings (book_id, rating, user_id);
@@ -0,0 +1,13 @@
+-- Optimistic locking for entries that are written concurrently
+ALTER TABLE ratings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_library ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE reading_progress ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Idempotency-Key values already processed, so retried writes are applied once
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(64) NOT NULL,
+    user_id         BIGINT,
+    created_at      DATETIME(6) NOT NULL,
+    PRIMARY KEY (idempotency_key),
+    INDEX idx_idempotency_keys_created (created_at)
+) ENGINE = InnoDB;
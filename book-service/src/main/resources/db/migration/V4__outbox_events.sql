@@ -0,0 +1,15 @@
+-- Transactional outbox: domain events written in the same transaction as the change,
+-- relayed in id order and marked published once the publisher acknowledged them
+CREATE TABLE outbox_events (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    aggregate_type VARCHAR(32)  NOT NULL,
+    aggregate_id   BIGINT,
+    event_type     VARCHAR(64)  NOT NULL,
+    user_id        BIGINT,
+    payload        VARCHAR(4000) NOT NULL,
+    created_at     DATETIME(6)  NOT NULL,
+    published_at   DATETIME(6),
+    PRIMARY KEY (id),
+    -- Relay scan (published_at IS NULL ORDER BY id) and purge of published rows
+    INDEX idx_outbox_events_published (published_at, id)
+) ENGINE = InnoDB;
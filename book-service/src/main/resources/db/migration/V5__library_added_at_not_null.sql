@@ -0,0 +1,4 @@
+-- Keyset pagination orders by (added_at, id); a NULL added_at would drop rows between pages.
+-- The existing (user_id, added_at) and (user_id, status, added_at) indexes end with the id (InnoDB PK).
+UPDATE user_library SET added_at = NOW(6) WHERE added_at IS NULL;
+ALTER TABLE user_library MODIFY added_at DATETIME(6) NOT NULL;
@@ -0,0 +1,16 @@
+-- Catalog de-duplication: a book is identified by its Open Library work key or by its ISBN,
+-- and adding a known book returns the existing row (BookService.findCatalogMatch).
+ALTER TABLE books
+    ADD COLUMN open_library_key VARCHAR(32) NULL,
+    ADD COLUMN enriched_at      DATETIME(6) NULL;
+CREATE UNIQUE INDEX uk_books_open_library_key ON books (open_library_key);
+
+-- ISBNs repeated by earlier duplicates are kept on the oldest row only; the other rows stay
+-- (libraries and ratings point at them) but no longer claim the ISBN.
+UPDATE books SET isbn = NULL WHERE isbn = '';
+UPDATE books b
+    JOIN (SELECT isbn, MIN(id) AS keep_id FROM books WHERE isbn IS NOT NULL GROUP BY isbn HAVING COUNT(*) > 1) d
+    ON b.isbn = d.isbn AND b.id <> d.keep_id
+SET b.isbn = NULL;
+DROP INDEX idx_books_isbn ON books;
+CREATE UNIQUE INDEX uk_books_isbn ON books (isbn);
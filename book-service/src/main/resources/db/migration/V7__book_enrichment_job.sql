@@ -0,0 +1,15 @@
+-- Background lookup of catalog rows missing page count, ISBN, description or year (BookEnrichmentJob).
+-- A failed lookup is retried after enrichment_retry_at, with a longer wait after every attempt.
+ALTER TABLE books
+    ADD COLUMN enrichment_attempts INT NOT NULL DEFAULT 0,
+    ADD COLUMN enrichment_retry_at DATETIME(6),
+    -- Job scan: enriched_at IS NULL AND id > checkpoint ORDER BY id
+    ADD INDEX idx_books_enrichment (enriched_at, id);
+
+-- Progress of batch jobs over a table, so a restart resumes after the last committed row
+CREATE TABLE job_checkpoints (
+    name       VARCHAR(64) NOT NULL,
+    last_id    BIGINT      NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
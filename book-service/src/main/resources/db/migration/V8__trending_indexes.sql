@@ -0,0 +1,4 @@
+-- Trending leaderboard rebuild (TrendingService): library adds and ratings of the last week
+-- per book, read from the index alone
+CREATE INDEX idx_user_library_added_book ON user_library (added_at, book_id);
+CREATE INDEX idx_ratings_rated_book ON ratings (rated_at, book_id);
@@ -0,0 +1,26 @@
+-- Author dimension: one row per author name, folded for case, diacritics and punctuation
+-- ("J.R.R. Tolkien" and "j. r. r. tolkien" share name_key "j r r tolkien"), with the counts of
+-- the author page precomputed (AuthorService). Existing books are linked by the backfill job.
+CREATE TABLE authors (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    name         VARCHAR(255) NOT NULL,
+    name_key     VARCHAR(255) NOT NULL,
+    -- Last word of name_key, so typeahead also matches on the surname
+    surname_key  VARCHAR(255) NOT NULL,
+    book_count   INT          NOT NULL DEFAULT 0,
+    reader_count INT          NOT NULL DEFAULT 0,
+    rating_count INT          NOT NULL DEFAULT 0,
+    rating_sum   BIGINT       NOT NULL DEFAULT 0,
+    updated_at   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_authors_name_key (name_key),
+    KEY idx_authors_surname_key (surname_key),
+    -- Top authors: ORDER BY reader_count DESC
+    KEY idx_authors_reader_count (reader_count)
+) ENGINE = InnoDB;
+
+-- Books by author (author pages, count refresh)
+ALTER TABLE books
+    ADD COLUMN author_id BIGINT NULL,
+    ADD INDEX idx_books_author (author_id),
+    ADD CONSTRAINT fk_books_author FOREIGN KEY (author_id) REFERENCES authors (id);
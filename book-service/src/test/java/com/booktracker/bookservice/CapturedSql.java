@@ -0,0 +1,116 @@
+package com.booktracker.bookservice;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the prepared statements run through the DataSource, with the parameters bound to them,
+ * so a test can EXPLAIN the SQL Hibernate really generates for a repository method.
+ * Import {@link Config} to wrap the test DataSource.
+ */
+final class CapturedSql {
+
+    // A parameter setter call (setLong(1, 7L), setString(2, "READING"), ...)
+    private record Binding(Method setter, Object[] args) {
+    }
+
+    record Statement(String sql, List<Binding> bindings) {
+
+        // The same statement behind the given prefix ("EXPLAIN "), with the same parameters
+        PreparedStatement prepare(Connection connection, String prefix) throws SQLException {
+            PreparedStatement statement = connection.prepareStatement(prefix + sql);
+            for (Binding binding : bindings) {
+                try {
+                    binding.setter().invoke(statement, binding.args());
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new SQLException("Could not rebind " + binding.setter().getName(), e);
+                }
+            }
+            return statement;
+        }
+    }
+
+    private static final List<Statement> STATEMENTS = new ArrayList<>();
+
+    private CapturedSql() {
+    }
+
+    static synchronized void clear() {
+        STATEMENTS.clear();
+    }
+
+    // Statements executed since clear(), in order
+    static synchronized List<Statement> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    private static synchronized void record(Statement statement) {
+        STATEMENTS.add(statement);
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Config {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    // DataSource -> Connection -> PreparedStatement, each wrapped so the statements can be recorded
+    private static DataSource wrap(DataSource dataSource) {
+        return proxy(dataSource, DataSource.class, (method, args, result) ->
+                result instanceof Connection connection ? proxy(connection, Connection.class, CapturedSql::onConnection) : result);
+    }
+
+    private static Object onConnection(Method method, Object[] args, Object result) {
+        if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+            String sql = (String) args[0];
+            List<Binding> bindings = new ArrayList<>();
+            return proxy(statement, PreparedStatement.class, (called, calledArgs, calledResult) -> {
+                String name = called.getName();
+                if (name.startsWith("set") && calledArgs != null && calledArgs.length >= 2 && calledArgs[0] instanceof Integer) {
+                    bindings.add(new Binding(called, calledArgs.clone()));
+                } else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                } else if (name.startsWith("execute") && (calledArgs == null || calledArgs.length == 0)) {
+                    record(new Statement(sql, List.copyOf(bindings)));
+                }
+                return calledResult;
+            });
+        }
+        return result;
+    }
+
+    private interface AfterCall {
+        Object apply(Method method, Object[] args, Object result);
+    }
+
+    // Delegates every call to target, then lets afterCall inspect or replace the result
+    private static <T> T proxy(T target, Class<T> type, AfterCall afterCall) {
+        return type.cast(Proxy.newProxyInstance(CapturedSql.class.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> {
+                    try {
+                        return afterCall.apply(method, args, method.invoke(target, args));
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }));
+    }
+}
@@ -0,0 +1,117 @@
+package com.booktracker.bookservice;
+
+import com.booktracker.bookservice.dto.LibraryListQuery;
+import com.booktracker.bookservice.dto.LibraryPageDTO;
+import com.booktracker.bookservice.service.UserLibraryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pages through a library whose entries share their sort keys, following nextCursor, and checks
+ * that every entry comes back exactly once in (sort key, id) order. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(UserLibraryService.class)
+class LibraryKeysetPagingTests {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    // Five entries per timestamp; one timestamp has microseconds the cursor must carry over
+    private static final String[] ADDED_AT = {
+            "2026-01-01 10:00:00", "2026-01-02 10:00:00.123456", "2026-01-03 10:00:00",
+            "2026-01-04 10:00:00", "2026-01-05 10:00:00"
+    };
+    private static final int ENTRIES = 25;
+
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserLibraryService userLibraryService;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO users (id, name, email, keycloak_id) VALUES (1, 'reader', 'reader@example.com', 'kc-1')");
+        for (int b = 1; b <= ENTRIES; b++) {
+            jdbcTemplate.update("INSERT INTO books (id, title, author) VALUES (?, ?, 'Author')", b, "Book " + b);
+            // Ids interleave the timestamps, so the id order alone would be wrong
+            jdbcTemplate.update("INSERT INTO user_library (id, user_id, book_id, status, added_at) VALUES (?, 1, ?, 'TO_READ', ?)",
+                    b, b, ADDED_AT[b % ADDED_AT.length]);
+        }
+        seeded = true;
+    }
+
+    @ParameterizedTest
+    @CsvSource({"addedAt, asc", "addedAt, desc", "lastUpdated, asc", "lastUpdated, desc"})
+    void pagesThroughEqualSortKeysWithoutSkipsOrDuplicates(String sort, String order) {
+        List<Long> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM user_library WHERE user_id = 1 ORDER BY added_at " + order + ", id " + order, Long.class);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            LibraryListQuery query = new LibraryListQuery();
+            query.setSort(sort);
+            query.setOrder(order);
+            query.setLimit(3);
+            query.setCursor(cursor);
+            LibraryPageDTO page = userLibraryService.listEntries(1L, query);
+            for (Map<String, Object> row : page.getItems()) {
+                seen.add((Long) row.get("id"));
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages <= ENTRIES);
+
+        assertEquals(expected, seen);
+        assertEquals(ENTRIES, expected.size());
+        // 8 full pages and a last one with the 25th entry
+        assertEquals(9, pages);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"asc", "desc"})
+    void cursorOfOneOrderIsRefusedByTheOther(String order) {
+        LibraryListQuery first = new LibraryListQuery();
+        first.setOrder(order);
+        first.setLimit(3);
+        String cursor = userLibraryService.listEntries(1L, first).getNextCursor();
+        assertNotNull(cursor);
+
+        LibraryListQuery other = new LibraryListQuery();
+        other.setOrder("asc".equals(order) ? "desc" : "asc");
+        other.setCursor(cursor);
+        assertThrows(IllegalArgumentException.class, () -> userLibraryService.listEntries(1L, other));
+    }
+}
@@ -0,0 +1,42 @@
+package com.booktracker.bookservice;
+
+import com.booktracker.bookservice.config.NativeHints;
+import com.booktracker.bookservice.dto.LibraryPageDTO;
+import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.entity.ReadingProgress;
+import com.booktracker.bookservice.entity.UserLibrary;
+import com.booktracker.bookservice.event.RatingChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the native image hints without building the image: what Hibernate and Jackson
+ * reach by reflection in the native build is registered.
+ */
+class NativeHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTests() {
+        new NativeHints.Registrar().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void entitiesAreMappable() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserLibrary.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField(ReadingProgress.class, "currentPage").test(hints));
+    }
+
+    @Test
+    void jsonTypesAreBound() {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Book.class, "getTitle").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(LibraryPageDTO.class, "getNextCursor").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(RatingChangedEvent.class, "getOccurredAt").test(hints));
+    }
+}
@@ -0,0 +1,90 @@
+package com.booktracker.bookservice;
+
+import com.booktracker.bookservice.entity.Book;
+import com.booktracker.bookservice.repository.OutboxEventRepository;
+import com.booktracker.bookservice.service.BookService;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.kafka.KafkaContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes through BookService and checks that the outbox relay publishes the committed
+ * changes to a local Kafka broker, keyed by aggregate and in order.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"booktracker.outbox.publisher=kafka", "booktracker.outbox.poll-interval-ms=100"})
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxKafkaRelayTests {
+
+    private static final String TOPIC = "booktracker.domain-events";
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Container
+    @ServiceConnection
+    static KafkaContainer kafka = new KafkaContainer("apache/kafka:3.8.0");
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void committedChangesArePublishedInOrder() {
+        Book book = new Book();
+        book.setTitle("Outbox Patterns");
+        book.setAuthor("Relay");
+        Long bookId = bookService.saveBook(book).getId();
+        bookService.deleteBook(bookId);
+
+        List<ConsumerRecord<String, String>> records = consume("book:" + bookId, 2);
+        assertEquals(2, records.size(), "both changes should reach Kafka");
+        assertTrue(records.get(0).value().contains("\"change\":\"CREATED\""));
+        assertTrue(records.get(1).value().contains("\"change\":\"DELETED\""));
+        assertNotNull(records.get(0).headers().lastHeader("outbox-id"));
+        assertEquals(0, outboxEventRepository.countByPublishedAtIsNull());
+    }
+
+    private List<ConsumerRecord<String, String>> consume(String key, int expected) {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers(),
+                ConsumerConfig.GROUP_ID_CONFIG, "outbox-test",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        try (KafkaConsumer<String, String> consumer =
+                     new KafkaConsumer<>(config, new StringDeserializer(), new StringDeserializer())) {
+            consumer.subscribe(List.of(TOPIC));
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (records.size() < expected && System.currentTimeMillis() < deadline) {
+                consumer.poll(Duration.ofMillis(500)).forEach(record -> {
+                    if (key.equals(record.key())) {
+                        records.add(record);
+                    }
+                });
+            }
+        }
+        return records;
+    }
+}
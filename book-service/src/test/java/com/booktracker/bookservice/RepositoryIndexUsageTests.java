@@ -0,0 +1,266 @@
+package com.booktracker.bookservice;
+
+import com.booktracker.bookservice.dto.LibraryListQuery;
+import com.booktracker.bookservice.entity.ReadingStatus;
+import com.booktracker.bookservice.repository.AuthorRepository;
+import com.booktracker.bookservice.repository.BookRepository;
+import com.booktracker.bookservice.repository.RatingRepository;
+import com.booktracker.bookservice.repository.ReadingProgressRepository;
+import com.booktracker.bookservice.repository.UserLibraryRepository;
+import com.booktracker.bookservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Calls the repository methods against the Flyway schema, runs EXPLAIN on the SQL Hibernate
+ * generated for them (captured with its parameters, see {@link CapturedSql}) and fails when a
+ * table is read by a full scan. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CapturedSql.Config.class)
+class RepositoryIndexUsageTests {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserLibraryRepository userLibraryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReadingProgressRepository readingProgressRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        String[] statuses = {"TO_READ", "READING", "COMPLETED", "ON_HOLD", "DROPPED"};
+        for (int u = 1; u <= 50; u++) {
+            jdbcTemplate.update("INSERT INTO users (id, name, email, keycloak_id) VALUES (?, ?, ?, ?)",
+                    u, "user" + u, "user" + u + "@example.com", "kc-" + u);
+        }
+        for (int a = 1; a <= 200; a++) {
+            jdbcTemplate.update("INSERT INTO authors (id, name, name_key, surname_key, book_count, reader_count, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 1, ?, NOW())", a, "Author " + a, "author " + a, String.valueOf(a), a);
+        }
+        for (int b = 1; b <= 200; b++) {
+            jdbcTemplate.update("INSERT INTO books (id, title, author, author_id, isbn) VALUES (?, ?, ?, ?, ?)",
+                    b, "Book " + b, "Author " + b, b, String.format("978%010d", b));
+        }
+        int libraryId = 1;
+        for (int u = 1; u <= 50; u++) {
+            for (int b = u; b < u + 40; b++) {
+                int bookId = (b % 200) + 1;
+                jdbcTemplate.update("INSERT INTO user_library (id, user_id, book_id, status, added_at) " +
+                                "VALUES (?, ?, ?, ?, NOW() - INTERVAL ? MINUTE)",
+                        libraryId, u, bookId, statuses[b % statuses.length], b);
+                jdbcTemplate.update("INSERT INTO reading_progress (user_library_id, current_page) VALUES (?, ?)",
+                        libraryId, b);
+                jdbcTemplate.update("INSERT INTO ratings (user_id, book_id, rating, rated_at) VALUES (?, ?, ?, NOW())",
+                        u, bookId, (b % 5) + 1);
+                libraryId++;
+            }
+        }
+        jdbcTemplate.execute("ANALYZE TABLE users, authors, books, user_library, reading_progress, ratings");
+        seeded = true;
+    }
+
+    @Test
+    void findByUserIdAndStatusUsesIndex() {
+        assertUsesIndexes(() -> userLibraryRepository.findByUserIdAndStatus(7L, ReadingStatus.READING));
+    }
+
+    @Test
+    void findByUserIdOrderByAddedAtDescUsesIndex() {
+        assertUsesIndexes(() -> userLibraryRepository.findByUserIdOrderByAddedAtDesc(7L));
+    }
+
+    @Test
+    void countByUserIdAndStatusUsesIndex() {
+        assertUsesIndexes(() -> userLibraryRepository.countByUserIdAndStatus(7L, ReadingStatus.COMPLETED));
+    }
+
+    @Test
+    void existsByUserIdAndBookIdUsesIndex() {
+        assertUsesIndexes(() -> userLibraryRepository.existsByUserIdAndBookId(7L, 10L));
+    }
+
+    @Test
+    void findByUserIdAndBookIdUsesIndex() {
+        assertUsesIndexes(() -> userLibraryRepository.findByUserIdAndBookId(7L, 10L));
+    }
+
+    @Test
+    void findSummariesByUserIdAndBookIdUsesIndex() {
+        assertUsesIndexes(() -> userLibraryRepository.findSummariesByUserIdAndBookId(7L, 10L));
+    }
+
+    @Test
+    void findTitlesByUserIdUsesIndex() {
+        assertUsesIndexes(() -> userLibraryRepository.findTitlesByUserId(7L));
+    }
+
+    @Test
+    void findMostReadAuthorsByUserUsesIndex() {
+        assertUsesIndexes(() -> userLibraryRepository.findMostReadAuthorsByUser(7L));
+    }
+
+    @Test
+    void libraryEntryPageUsesIndex() {
+        LibraryListQuery query = new LibraryListQuery();
+        query.setStatus(ReadingStatus.READING);
+        assertUsesIndexes(() -> userLibraryRepository.findEntryPage(7L, query, List.of("title", "coverUrl"),
+                LocalDateTime.now(), 300L, 21));
+    }
+
+    @Test
+    void trendingRebuildUsesIndex() {
+        assertUsesIndexes(() -> userLibraryRepository.countAddedSince(LocalDateTime.now().minusMinutes(30)));
+    }
+
+    @Test
+    void trendingRatingsRebuildUsesIndex() {
+        assertUsesIndexes(() -> ratingRepository.countRatedSince(LocalDateTime.now().minusMinutes(30)));
+    }
+
+    @Test
+    void findByKeycloakIdUsesIndex() {
+        assertUsesIndexes(() -> userRepository.findByKeycloakId("kc-7"));
+    }
+
+    @Test
+    void findByEmailUsesIndex() {
+        assertUsesIndexes(() -> userRepository.findByEmail("user7@example.com"));
+    }
+
+    @Test
+    void findByIsbnUsesIndex() {
+        assertUsesIndexes(() -> bookRepository.findByIsbn("9780000000007"));
+    }
+
+    @Test
+    void enrichmentScanUsesIndex() {
+        assertUsesIndexes(() -> bookRepository.findIncompleteAfter(100L, LocalDateTime.now(), PageRequest.of(0, 50)));
+    }
+
+    @Test
+    void findByAuthorIdUsesIndex() {
+        assertUsesIndexes(() -> bookRepository.findByAuthorIdOrderByTitle(7L));
+    }
+
+    @Test
+    void findByUserLibraryIdUsesIndex() {
+        assertUsesIndexes(() -> readingProgressRepository.findByUserLibraryId(42L));
+    }
+
+    @Test
+    void findByBookIdUsesIndex() {
+        assertUsesIndexes(() -> ratingRepository.findByBookId(42L));
+    }
+
+    @Test
+    void ratingStatsByBookIdsUsesIndex() {
+        assertUsesIndexes(() -> ratingRepository.findRatingStatsByBookIds(List.of(3L, 14L, 15L, 92L, 65L), 7L));
+    }
+
+    @Test
+    void findResultByUserIdAndBookIdUsesIndex() {
+        assertUsesIndexes(() -> ratingRepository.findResultByUserIdAndBookId(7L, 10L));
+    }
+
+    @Test
+    void authorTypeaheadUsesIndex() {
+        assertUsesIndexes(() -> authorRepository.findByPrefix("author 17", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void topAuthorsUseIndex() {
+        assertUsesIndexes(() -> authorRepository.findTop(PageRequest.of(0, 10)));
+    }
+
+    /**
+     * Runs the repository call, then EXPLAINs the first statement it executed (the query itself;
+     * EAGER associations may follow) and checks every table of the plan.
+     */
+    private void assertUsesIndexes(Runnable repositoryCall) {
+        CapturedSql.clear();
+        repositoryCall.run();
+        List<CapturedSql.Statement> statements = CapturedSql.statements();
+        assertFalse(statements.isEmpty(), "The repository call ran no statement");
+        CapturedSql.Statement statement = statements.get(0);
+
+        List<Map<String, Object>> plan = explain(statement);
+        assertFalse(plan.isEmpty(), "No plan for: " + statement.sql());
+        for (Map<String, Object> row : plan) {
+            // Rows without a table: optimized away, or no match in a const table
+            if (row.get("table") == null) {
+                continue;
+            }
+            assertNotEquals("ALL", row.get("type"), "Full scan on " + row.get("table") + " for: " + statement.sql());
+            assertNotNull(row.get("key"), "No index used on " + row.get("table") + " for: " + statement.sql());
+        }
+    }
+
+    private List<Map<String, Object>> explain(CapturedSql.Statement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Map<String, Object>>>) connection -> {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            try (PreparedStatement explain = statement.prepare(connection, "EXPLAIN ");
+                 ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    Map<String, Object> row = new HashMap<>();
+                    for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
+                        row.put(resultSet.getMetaData().getColumnLabel(i), resultSet.getObject(i));
+                    }
+                    rows.add(row);
+                }
+            }
+            return rows;
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.booktracker.bookservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Route groups, per-client buckets and the 429 answer of the API rate limiter.
+ */
+class RateLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter(groups(), 0, meterRegistry);
+    private final RateLimitFilter filter = new RateLimitFilter(rateLimiter, List.of("10.0.0.0/8"));
+
+    private static Map<String, RateLimiter.GroupSettings> groups() {
+        RateLimiter.GroupSettings library = new RateLimiter.GroupSettings();
+        library.setPaths(List.of("/api/v1/library/**"));
+        library.setRatePerSecond(0.1);
+        library.setBurst(2);
+        Map<String, RateLimiter.GroupSettings> groups = new LinkedHashMap<>();
+        groups.put("library", library);
+        return groups;
+    }
+
+    @Test
+    void rejectsOverBurstPerSubject() throws Exception {
+        assertEquals(200, call("/api/v1/library/users/1", "alice").getStatus());
+        assertEquals(200, call("/api/v1/library/42/progress", "alice").getStatus());
+
+        MockHttpServletResponse rejected = call("/api/v1/library", "alice");
+        assertEquals(429, rejected.getStatus());
+        // One token every 10 s
+        assertEquals("10", rejected.getHeader("Retry-After"));
+
+        assertEquals(200, call("/api/v1/library/users/2", "bob").getStatus());
+        assertEquals(200, call("/api/v1/books/7", "alice").getStatus());
+        assertEquals(1.0, meterRegistry.get("booktracker.ratelimit.requests")
+                .tags("group", "library", "outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void evictsIdleClients() throws Exception {
+        call("/api/v1/library", null);
+        RateLimiter.Group group = rateLimiter.groupFor("/api/v1/library");
+        assertEquals(1, group.buckets.size());
+
+        // Idle eviction after 0 s: the bucket is only dropped once it is full again
+        rateLimiter.evictIdle();
+        assertEquals(1, group.buckets.size());
+        group.buckets.get("ip:127.0.0.1").set(System.nanoTime() - 1);
+        rateLimiter.evictIdle();
+        assertEquals(0, group.buckets.size());
+        assertNull(rateLimiter.groupFor("/actuator/health"));
+    }
+
+    @Test
+    void clientIsTheRightMostHopNotAddedByATrustedProxy() throws Exception {
+        // Sent through two proxies; the client prepended a made-up address to get a fresh bucket
+        call("/api/v1/library", null, "10.0.0.5", "1.2.3.4, 203.0.113.9, 10.0.0.7");
+        call("/api/v1/library", null, "10.0.0.5", "5.6.7.8, 203.0.113.9, 10.0.0.7");
+        // Not from a trusted proxy: the header is ignored
+        call("/api/v1/library", null, "198.51.100.1", "203.0.113.9");
+
+        RateLimiter.Group group = rateLimiter.groupFor("/api/v1/library");
+        assertEquals(2, group.buckets.size());
+        assertEquals(429, call("/api/v1/library", null, "10.0.0.5", "9.9.9.9, 203.0.113.9").getStatus());
+        assertEquals(200, call("/api/v1/library", null, "198.51.100.1", null).getStatus());
+    }
+
+    private MockHttpServletResponse call(String path, String subject) throws Exception {
+        return call(path, subject, "127.0.0.1", null);
+    }
+
+    private MockHttpServletResponse call(String path, String subject, String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        if (subject != null) {
+            request.setUserPrincipal(() -> subject);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
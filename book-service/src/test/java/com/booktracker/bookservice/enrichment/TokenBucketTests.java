@@ -0,0 +1,39 @@
+package com.booktracker.bookservice.enrichment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rate limit of the enrichment job's Open Library calls, on a fake clock.
+ */
+class TokenBucketTests {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TokenBucket bucket = new TokenBucket(2, 3, now::get);
+
+    @Test
+    void burstThenRate() {
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        // Bucket empty: the next tokens are due every 500 ms, in reservation order
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), bucket.reserve());
+    }
+
+    @Test
+    void refillsUpToBurst() {
+        for (int i = 0; i < 3; i++) {
+            bucket.reserve();
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve());
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), bucket.reserve());
+    }
+}
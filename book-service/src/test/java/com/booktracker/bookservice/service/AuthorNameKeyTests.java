@@ -0,0 +1,28 @@
+package com.booktracker.bookservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Folding of author names by {@link AuthorService#nameKey}.
+ */
+class AuthorNameKeyTests {
+
+    @Test
+    void spellingsOfOneAuthorShareAKey() {
+        assertEquals("j r r tolkien", AuthorService.nameKey("J.R.R. Tolkien"));
+        assertEquals("j r r tolkien", AuthorService.nameKey("  j. r. r.  TOLKIEN "));
+        assertEquals("gabriel garcia marquez", AuthorService.nameKey("Gabriel García Márquez"));
+        assertEquals("slawomir mrozek", AuthorService.nameKey("Sławomir Mrożek"));
+        assertEquals("jo nesbo", AuthorService.nameKey("Jo Nesbø"));
+    }
+
+    @Test
+    void blanksAndPlaceholdersHaveNoKey() {
+        assertNull(AuthorService.nameKey(null));
+        assertNull(AuthorService.nameKey(" - "));
+        assertNull(AuthorService.nameKey("Unknown Author"));
+    }
+}
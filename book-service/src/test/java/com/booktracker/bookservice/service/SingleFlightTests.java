@@ -0,0 +1,94 @@
+package com.booktracker.bookservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sharing of concurrent loads and of recent results by {@link SingleFlight}.
+ */
+class SingleFlightTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", 0, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> flight.get(42L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return new String("book 42");
+                })));
+            }
+            // Let every caller arrive while the first load is still running
+            while (meterRegistry.get("booktracker.singleflight.calls").tag("result", "coalesced").counter().count() < 7) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            String first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<String> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(7.0 / 8, meterRegistry.get("booktracker.singleflight.coalesced.ratio").gauge().value(), 1e-9);
+
+        // Without a cache time the next call loads again
+        flight.get(42L, () -> "book 42 again");
+        assertEquals(0, meterRegistry.get("booktracker.singleflight.keys").gauge().value());
+    }
+
+    @Test
+    void recentResultIsCachedUntilInvalidated() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", 60_000, meterRegistry);
+        assertEquals("v1", flight.get(1L, () -> load("v1")));
+        assertEquals("v1", flight.get(1L, () -> load("v2")));
+        assertEquals(1, loads.get());
+
+        flight.invalidate(1L);
+        assertEquals("v2", flight.get(1L, () -> load("v2")));
+        assertEquals(1.0 / 3, meterRegistry.get("booktracker.singleflight.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", 60_000, meterRegistry);
+        assertThrows(IllegalStateException.class, () -> flight.get(1L, () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertEquals("v1", flight.get(1L, () -> load("v1")));
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
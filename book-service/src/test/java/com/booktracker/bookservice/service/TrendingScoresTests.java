@@ -0,0 +1,64 @@
+package com.booktracker.bookservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Decay and ranking of {@link TrendingScores}.
+ */
+class TrendingScoresTests {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long NOW = 1_000 * HOUR;
+
+    private final TrendingScores scores = new TrendingScores();
+
+    @Test
+    void recentSignalsLeadTheHourAndOlderOnesTheWeek() {
+        // Book 1: ten adds two days ago; book 2: three adds just now
+        for (int i = 0; i < 10; i++) {
+            scores.add(1, NOW - 48 * HOUR, 1.0);
+        }
+        for (int i = 0; i < 3; i++) {
+            scores.add(2, NOW, 1.0);
+        }
+
+        Map<TrendingService.Window, List<TrendingScores.Entry>> top = scores.top(10, NOW);
+        assertEquals(2, top.get(TrendingService.Window.HOUR).get(0).bookId());
+        assertEquals(2, top.get(TrendingService.Window.DAY).get(0).bookId());
+        assertEquals(1, top.get(TrendingService.Window.WEEK).get(0).bookId());
+        assertEquals(3.0, top.get(TrendingService.Window.HOUR).get(0).score(), 1e-9);
+    }
+
+    @Test
+    void signalsArrivingOutOfOrderScoreAsInOrder() {
+        TrendingScores inOrder = new TrendingScores();
+        inOrder.add(1, NOW - 2 * HOUR, 1.0);
+        inOrder.add(1, NOW - HOUR, 2.0);
+        scores.add(1, NOW - HOUR, 2.0);
+        scores.add(1, NOW - 2 * HOUR, 1.0);
+
+        for (TrendingService.Window window : TrendingService.Window.values()) {
+            assertEquals(inOrder.top(1, NOW).get(window).get(0).score(),
+                    scores.top(1, NOW).get(window).get(0).score(), 1e-9);
+        }
+    }
+
+    @Test
+    void keepsTheBestKAndDropsFadedBooks() {
+        for (long book = 1; book <= 20; book++) {
+            scores.add(book, NOW, book);
+        }
+        scores.add(99, NOW - 52 * 7 * 24 * HOUR, 1.0);
+
+        List<TrendingScores.Entry> top = scores.top(5, NOW).get(TrendingService.Window.DAY);
+        assertEquals(List.of(20L, 19L, 18L, 17L, 16L), top.stream().map(TrendingScores.Entry::bookId).toList());
+        assertEquals(20, scores.size());
+        assertTrue(top.get(0).score() > top.get(4).score());
+    }
+}
@@ -0,0 +1,14 @@
+#!/bin/bash
+# Points this instance at the primary "mysql" service using GTID auto-positioning.
+# Runs once, when the replica data directory is initialised.
+set -e
+
+mysql -uroot -p"${MYSQL_ROOT_PASSWORD}" <<SQL
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST='mysql',
+    SOURCE_USER='root',
+    SOURCE_PASSWORD='${MYSQL_ROOT_PASSWORD}',
+    SOURCE_AUTO_POSITION=1,
+    GET_SOURCE_PUBLIC_KEY=1;
+START REPLICA;
+SQL
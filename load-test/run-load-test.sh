@@ -0,0 +1,17 @@
+#!/bin/sh
+# Starts the load-test stack, seeds it and runs the Gatling journeys.
+# Exits non-zero when a threshold in src/test/resources/thresholds.properties is breached,
+# so CI can run it as is. Extra arguments are passed to Maven, e.g. -Dseed.users=5000
+# (the seeder and the simulation read the same seed.users) or -Dload.browser-users-per-sec=20.
+set -e
+cd "$(dirname "$0")"
+
+docker compose up -d --build
+trap 'docker compose down' EXIT
+
+echo "Waiting for book-service (Flyway creates the schema on startup)..."
+until curl -sf http://localhost:8081/actuator/health > /dev/null; do sleep 2; done
+until curl -sf -o /dev/null http://localhost:8080/login; do sleep 2; done
+
+mvn -B -q compile exec:java "$@"
+mvn -B gatling:test "$@"
@@ -0,0 +1,40 @@
+#!/bin/sh
+# Builds book-service for the JVM and as a GraalVM native image (mvn -Pnative native:compile), then
+# for each: time-to-first-request and RSS over a few starts (StartupBenchmark), and the smoke checks
+# (BookServiceSmokeCheck) against a running instance. MySQL and the stub Keycloak come from this
+# module's docker-compose.yml. Needs GraalVM 22.3+ as JAVA_HOME and Docker.
+# Exits non-zero when a smoke check fails. Extra arguments are passed to Maven, e.g. -Dstartup.runs=10.
+set -e
+cd "$(dirname "$0")"
+
+docker compose up -d --build --wait mysql stubs
+trap 'docker compose down' EXIT
+
+(cd ../book-service && mvn -B -q clean && mvn -B -q -DskipTests -Pnative native:compile)
+
+export SPRING_DATASOURCE_URL="jdbc:mysql://localhost:3307/booktracker?useSSL=false&allowPublicKeyRetrieval=true"
+export SPRING_DATASOURCE_PASSWORD=loadtest
+export SPRING_JPA_SHOW_SQL=false
+export LOGGING_LEVEL_ORG_SPRINGFRAMEWORK_SECURITY=INFO
+export BOOKTRACKER_JWK_SET_URI=http://localhost:8180/realms/booktracker/protocol/openid-connect/certs
+
+mvn -B -q compile
+FAILED=0
+for BUILD in jvm native; do
+    if [ "$BUILD" = "jvm" ]; then
+        COMMAND="java -jar ../book-service/target/book-service-0.0.1-SNAPSHOT.jar"
+    else
+        COMMAND="../book-service/target/book-service"
+    fi
+    echo "=== $BUILD: $COMMAND"
+    mvn -B -q exec:java -Dexec.mainClass=com.booktracker.loadtest.startup.StartupBenchmark \
+        -Dstartup.command="$COMMAND" "$@"
+
+    $COMMAND > "target/smoke-$BUILD.log" 2>&1 &
+    PID=$!
+    until curl -sf http://localhost:8081/actuator/health > /dev/null; do sleep 1; done
+    mvn -B -q exec:java -Dexec.mainClass=com.booktracker.loadtest.smoke.BookServiceSmokeCheck "$@" || FAILED=1
+    kill $PID
+    wait $PID || true
+done
+exit $FAILED
@@ -0,0 +1,269 @@
+package com.booktracker.loadtest.seed;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Fills the book-service database with synthetic users, books, libraries, progress and ratings.
+ * Book popularity follows a Zipf distribution. Previously seeded rows (users @load.test, books
+ * published by "load-test") are removed first, so the seeder can be re-run between load runs.
+ *
+ * Settings (system property, or the environment variable in brackets):
+ * seed.users [SEED_USERS], seed.books [SEED_BOOKS], seed.books-per-user [SEED_BOOKS_PER_USER],
+ * seed.zipf-exponent [SEED_ZIPF_EXPONENT], seed.rating-share [SEED_RATING_SHARE], seed.random [SEED_RANDOM],
+ * seed.db.url [SEED_DB_URL], seed.db.username [SEED_DB_USERNAME], seed.db.password [SEED_DB_PASSWORD].
+ * The schema must already exist: start book-service once so Flyway has migrated it.
+ */
+public class DataSeeder {
+
+    static final String EMAIL_DOMAIN = "@load.test";
+    static final String PUBLISHER = "load-test";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] STATUSES = {"TO_READ", "READING", "COMPLETED", "ON_HOLD", "DROPPED"};
+    private static final int[] STATUS_WEIGHTS = {30, 20, 35, 10, 5};
+
+    private final int users = Integer.parseInt(setting("seed.users", "1000"));
+    private final int books = Integer.parseInt(setting("seed.books", "5000"));
+    private final int booksPerUser = Integer.parseInt(setting("seed.books-per-user", "30"));
+    private final double zipfExponent = Double.parseDouble(setting("seed.zipf-exponent", "1.1"));
+    private final double ratingShare = Double.parseDouble(setting("seed.rating-share", "0.6"));
+    private final Random random = new Random(Long.parseLong(setting("seed.random", "42")));
+
+    public static void main(String[] args) throws SQLException {
+        String url = setting("seed.db.url",
+                "jdbc:mysql://localhost:3307/booktracker?useSSL=false&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true");
+        try (Connection connection = DriverManager.getConnection(url,
+                setting("seed.db.username", "root"), setting("seed.db.password", "loadtest"))) {
+            connection.setAutoCommit(false);
+            new DataSeeder().seed(connection);
+        }
+    }
+
+    void seed(Connection connection) throws SQLException {
+        long start = System.currentTimeMillis();
+        clear(connection);
+        List<Long> userIds = insertUsers(connection);
+        List<Long> bookIds = insertBooks(connection);
+        int entries = insertLibraries(connection, userIds, bookIds);
+        int progress = insertProgress(connection);
+        int ratings = insertRatings(connection, bookIds);
+        System.out.printf("Seeded %d users, %d books, %d library entries, %d progress rows and %d ratings in %d ms%n",
+                userIds.size(), bookIds.size(), entries, progress, ratings, System.currentTimeMillis() - start);
+    }
+
+    private void clear(Connection connection) throws SQLException {
+        String loadUsers = "SELECT id FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "'";
+        String loadBooks = "SELECT id FROM books WHERE publisher = '" + PUBLISHER + "'";
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM ratings WHERE user_id IN (" + loadUsers + ") OR book_id IN (" + loadBooks + ")");
+            statement.executeUpdate("DELETE FROM reading_progress WHERE user_library_id IN (SELECT id FROM user_library " +
+                    "WHERE user_id IN (" + loadUsers + ") OR book_id IN (" + loadBooks + "))");
+            statement.executeUpdate("DELETE FROM user_library WHERE user_id IN (" + loadUsers + ") OR book_id IN (" + loadBooks + ")");
+            statement.executeUpdate("DELETE FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "'");
+            statement.executeUpdate("DELETE FROM books WHERE publisher = '" + PUBLISHER + "'");
+        }
+        connection.commit();
+    }
+
+    private List<Long> insertUsers(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (name, email, keycloak_id) VALUES (?, ?, ?)")) {
+            for (int n = 1; n <= users; n++) {
+                String email = "user" + n + EMAIL_DOMAIN;
+                insert.setString(1, "Load User " + n);
+                insert.setString(2, email);
+                insert.setString(3, keycloakSubject(email));
+                addBatch(connection, insert, n);
+            }
+            flush(connection, insert);
+        }
+        return ids(connection, "SELECT id FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "' ORDER BY id");
+    }
+
+    // Book n is the n-th most popular one
+    private List<Long> insertBooks(Connection connection) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int authors = Math.max(1, books / 8);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO books (title, author, cover_url, isbn, publish_year, publisher, total_pages, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int n = 1; n <= books; n++) {
+                insert.setString(1, "Load Book " + n);
+                insert.setString(2, "Load Author " + (n % authors));
+                insert.setString(3, "https://covers.openlibrary.org/b/id/" + (1_000_000 + n) + "-M.jpg");
+                insert.setString(4, String.format("979%010d", n));
+                insert.setInt(5, 1900 + random.nextInt(125));
+                insert.setString(6, PUBLISHER);
+                insert.setInt(7, 80 + random.nextInt(820));
+                insert.setTimestamp(8, now);
+                insert.setTimestamp(9, now);
+                addBatch(connection, insert, n);
+            }
+            flush(connection, insert);
+        }
+        return ids(connection, "SELECT id FROM books WHERE publisher = '" + PUBLISHER + "' ORDER BY isbn");
+    }
+
+    private int insertLibraries(Connection connection, List<Long> userIds, List<Long> bookIds) throws SQLException {
+        ZipfSampler popularity = new ZipfSampler(bookIds.size(), zipfExponent);
+        LocalDateTime now = LocalDateTime.now();
+        int count = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO user_library (user_id, book_id, status, added_at) VALUES (?, ?, ?, ?)")) {
+            for (Long userId : userIds) {
+                int size = Math.min(1 + random.nextInt(2 * booksPerUser), bookIds.size());
+                Set<Integer> shelf = new HashSet<>();
+                for (int attempt = 0; shelf.size() < size && attempt < size * 20; attempt++) {
+                    shelf.add(popularity.sample(random));
+                }
+                for (int rank : shelf) {
+                    insert.setLong(1, userId);
+                    insert.setLong(2, bookIds.get(rank));
+                    insert.setString(3, randomStatus());
+                    insert.setTimestamp(4, Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60))));
+                    addBatch(connection, insert, ++count);
+                }
+            }
+            flush(connection, insert);
+        }
+        return count;
+    }
+
+    private int insertProgress(Connection connection) throws SQLException {
+        List<Object[]> entries = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT ul.id, ul.status, ul.added_at, b.total_pages FROM user_library ul " +
+                     "JOIN books b ON b.id = ul.book_id WHERE b.publisher = '" + PUBLISHER + "'")) {
+            while (rows.next()) {
+                entries.add(new Object[]{rows.getLong(1), rows.getString(2), rows.getTimestamp(3), rows.getInt(4)});
+            }
+        }
+
+        int count = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO reading_progress (user_library_id, current_page, progress_percent, last_updated, started_at, completed_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (Object[] entry : entries) {
+                String status = (String) entry[1];
+                Timestamp addedAt = (Timestamp) entry[2];
+                int totalPages = (Integer) entry[3];
+                int currentPage = switch (status) {
+                    case "TO_READ" -> 0;
+                    case "COMPLETED" -> totalPages;
+                    default -> random.nextInt(totalPages);
+                };
+                insert.setLong(1, (Long) entry[0]);
+                insert.setInt(2, currentPage);
+                insert.setDouble(3, Math.round(currentPage * 1000.0 / totalPages) / 10.0);
+                insert.setTimestamp(4, addedAt);
+                insert.setTimestamp(5, "TO_READ".equals(status) ? null : addedAt);
+                insert.setTimestamp(6, "COMPLETED".equals(status) ? addedAt : null);
+                addBatch(connection, insert, ++count);
+            }
+            flush(connection, insert);
+        }
+        return count;
+    }
+
+    // Popular books are rated a little higher, like on any catalogue
+    private int insertRatings(Connection connection, List<Long> bookIds) throws SQLException {
+        Map<Long, Integer> rankOf = new HashMap<>();
+        for (int rank = 0; rank < bookIds.size(); rank++) {
+            rankOf.put(bookIds.get(rank), rank);
+        }
+        List<long[]> entries = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT ul.user_id, ul.book_id FROM user_library ul " +
+                     "JOIN books b ON b.id = ul.book_id WHERE b.publisher = '" + PUBLISHER + "' AND ul.status <> 'TO_READ'")) {
+            while (rows.next()) {
+                entries.add(new long[]{rows.getLong(1), rows.getLong(2)});
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int count = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO ratings (user_id, book_id, rating, rated_at) VALUES (?, ?, ?, ?)")) {
+            for (long[] entry : entries) {
+                if (random.nextDouble() >= ratingShare) {
+                    continue;
+                }
+                double mean = 4.2 - 1.5 * rankOf.get(entry[1]) / bookIds.size();
+                int rating = (int) Math.max(1, Math.min(5, Math.round(mean + random.nextGaussian() * 0.9)));
+                insert.setLong(1, entry[0]);
+                insert.setLong(2, entry[1]);
+                insert.setInt(3, rating);
+                insert.setTimestamp(4, now);
+                addBatch(connection, insert, ++count);
+            }
+            flush(connection, insert);
+        }
+        return count;
+    }
+
+    private String randomStatus() {
+        int pick = random.nextInt(100);
+        for (int i = 0; i < STATUSES.length; i++) {
+            pick -= STATUS_WEIGHTS[i];
+            if (pick < 0) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[0];
+    }
+
+    /**
+     * Keycloak subject of a seeded user. Must match KeycloakStub.subjectOf in the stubs module,
+     * which signs the tokens the journeys log in with.
+     */
+    static String keycloakSubject(String email) {
+        return UUID.nameUUIDFromBytes(email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static void addBatch(Connection connection, PreparedStatement insert, int count) throws SQLException {
+        insert.addBatch();
+        if (count % BATCH_SIZE == 0) {
+            flush(connection, insert);
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement insert) throws SQLException {
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private static List<Long> ids(Connection connection, String sql) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rows = statement.executeQuery(sql)) {
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    static String setting(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            value = System.getenv(name.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+        }
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
@@ -0,0 +1,147 @@
+package com.booktracker.loadtest.smoke;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Black-box smoke checks for a running book-service, used to compare the native image with the JVM
+ * build (run-native-comparison.sh). Goes through what reflection breaks first in a native image:
+ * JSON in and out of every entity, lazy references, Jackson on DTOs, and JWT validation against
+ * the stub Keycloak. Creates its own user and book, so it only needs a migrated schema.
+ *
+ * Settings (system property, or the environment variable in brackets):
+ * bookservice.url [BOOKSERVICE_URL], token.url [TOKEN_URL] - the stub token endpoint.
+ * Exits with 1 when a check fails.
+ */
+public class BookServiceSmokeCheck {
+
+    private final String baseUrl = setting("bookservice.url", "http://localhost:8081");
+    private final String tokenUrl = setting("token.url",
+            "http://localhost:8180/realms/booktracker/protocol/openid-connect/token");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String run = Long.toString(System.currentTimeMillis());
+    private int failures;
+
+    public static void main(String[] args) throws Exception {
+        BookServiceSmokeCheck check = new BookServiceSmokeCheck();
+        check.run();
+        if (check.failures > 0) {
+            System.err.println(check.failures + " smoke check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("All smoke checks passed");
+    }
+
+    void run() throws IOException, InterruptedException {
+        check("health", get("/actuator/health", null), 200, "\"UP\"");
+
+        HttpResponse<String> book = send("POST", "/api/v1/books", null, "{\"title\":\"Smoke " + run
+                + "\",\"author\":\"Native\",\"isbn\":\"" + String.format("977%010d", Long.parseLong(run) % 10_000_000_000L) + "\"}");
+        check("create book", book, 201, "\"title\":\"Smoke " + run + "\"");
+        String bookId = field(book.body(), "id");
+        check("get book", get("/api/v1/books/" + bookId, null), 200, "\"author\":\"Native\"");
+        check("search books", get("/api/v1/books/search?q=" + URLEncoder.encode("Smoke " + run, StandardCharsets.UTF_8), null),
+                200, "\"id\":" + bookId);
+
+        String email = "smoke-" + run + "@native.test";
+        String token = token(email);
+        check("no token", get("/api/v1/users/me", null), 401, null);
+        check("bad token", get("/api/v1/users/me", "not-a-jwt"), 401, null);
+
+        HttpResponse<String> user = send("POST", "/api/v1/users/sync", token, "{\"keycloakId\":\"" + UUID.randomUUID()
+                + "\",\"email\":\"" + email + "\",\"name\":\"Smoke\"}");
+        check("sync user", user, 200, "\"email\":\"" + email + "\"");
+        String userId = field(user.body(), "id");
+        check("current user (JWT)", get("/api/v1/users/me", token), 200, "\"id\":" + userId);
+        check("get user", get("/api/v1/users/" + userId, token), 200, "\"email\":\"" + email + "\"");
+
+        HttpResponse<String> entry = send("POST", "/api/v1/library", token,
+                "{\"userId\":" + userId + ",\"bookId\":" + bookId + ",\"status\":\"READING\"}");
+        check("add to library", entry, 201, "\"id\"");
+        String libraryId = field(entry.body(), "id");
+        check("update progress", send("PATCH", "/api/v1/library/" + libraryId + "/progress", token,
+                "{\"currentPage\":42,\"totalPages\":100}"), 200, null);
+        check("get progress", get("/api/v1/library/" + libraryId + "/progress", token), 200, "\"currentPage\":42");
+        check("library", get("/api/v1/library/users/" + userId, token), 200, "\"status\":\"READING\"");
+        check("library entries page", get("/api/v1/library/users/" + userId + "/entries?limit=5", token), 200, "\"items\"");
+        check("library stats", get("/api/v1/library/users/" + userId + "/stats", token), 200, null);
+
+        check("rate book", send("POST", "/api/v1/ratings", token,
+                "{\"userId\":" + userId + ",\"bookId\":" + bookId + ",\"rating\":4}"), 201, "\"rating\":4");
+        check("user ratings", get("/api/v1/ratings/users/" + userId, token), 200, "\"rating\":4");
+        check("book rating stats", get("/api/v1/ratings/books/" + bookId + "/stats", token), 200, null);
+    }
+
+    private void check(String name, HttpResponse<String> response, int status, String expected) {
+        boolean ok = response.statusCode() == status && (expected == null || response.body().contains(expected));
+        if (ok) {
+            System.out.println("ok    " + name);
+        } else {
+            failures++;
+            String body = response.body().length() > 300 ? response.body().substring(0, 300) + "..." : response.body();
+            System.out.println("FAIL  " + name + ": " + response.statusCode() + " (expected " + status
+                    + (expected != null ? " with " + expected : "") + ") " + body);
+        }
+    }
+
+    private String token(String username) throws IOException, InterruptedException {
+        String form = "grant_type=password&client_id=vitrine&password=smoke&username="
+                + URLEncoder.encode(username, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(tokenUrl))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("No token from " + tokenUrl + ": " + response.statusCode());
+        }
+        return field(response.body(), "access_token");
+    }
+
+    private HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        return send("GET", path, token, null);
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, String json)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Accept", "application/json")
+                .method(method, json != null ? HttpRequest.BodyPublishers.ofString(json) : HttpRequest.BodyPublishers.noBody());
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // First value of a top-level-looking "name": value pair; enough for ids and tokens
+    private static String field(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + Pattern.quote(name) + "\"\\s*:\\s*(?:\"([^\"]*)\"|([-0-9.]+))").matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No " + name + " in " + json);
+        }
+        return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    }
+
+    static String setting(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            value = System.getenv(name.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+        }
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
@@ -0,0 +1,183 @@
+package com.booktracker.loadtest.startup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures time-to-first-request: starts a service, polls a URL until it answers, stops the service,
+ * and repeats. Any answer below 500 counts (a 401 still means the request went through the whole stack).
+ * Also reports Spring's own "Started ... in N seconds", which leaves out JVM startup, and the resident
+ * memory (RSS, Linux only) of the service right after its first answer - JVM and native image alike.
+ *
+ * Settings (system property, or the environment variable in brackets):
+ * startup.command [STARTUP_COMMAND] - shell command starting the service (required),
+ * startup.url [STARTUP_URL], startup.runs [STARTUP_RUNS], startup.warmup-runs [STARTUP_WARMUP_RUNS],
+ * startup.timeout-seconds [STARTUP_TIMEOUT_SECONDS],
+ * startup.max-median-ms [STARTUP_MAX_MEDIAN_MS] - exits with 1 when the median is above it.
+ * Service output goes to target/startup/run-N.log.
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    private final String command = setting("startup.command", null);
+    private final URI url = URI.create(setting("startup.url", "http://localhost:8081/actuator/health"));
+    private final int runs = Integer.parseInt(setting("startup.runs", "5"));
+    private final int warmupRuns = Integer.parseInt(setting("startup.warmup-runs", "1"));
+    private final long timeoutMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(setting("startup.timeout-seconds", "120")));
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    public static void main(String[] args) throws Exception {
+        StartupBenchmark benchmark = new StartupBenchmark();
+        if (benchmark.command == null) {
+            System.err.println("startup.command is required, e.g. -Dstartup.command=\"java -jar ../book-service/target/book-service-0.0.1-SNAPSHOT.jar\"");
+            System.exit(2);
+        }
+        long median = benchmark.run();
+        String budget = setting("startup.max-median-ms", null);
+        if (budget != null && median > Long.parseLong(budget)) {
+            System.err.printf("Median time-to-first-request %d ms is above the %s ms budget%n", median, budget);
+            System.exit(1);
+        }
+    }
+
+    long run() throws IOException, InterruptedException {
+        Path logDir = Files.createDirectories(Paths.get("target", "startup"));
+        List<Long> firstRequest = new ArrayList<>();
+        List<Long> started = new ArrayList<>();
+        List<Long> rss = new ArrayList<>();
+        for (int i = 1 - warmupRuns; i <= runs; i++) {
+            Path log = logDir.resolve(i > 0 ? "run-" + i + ".log" : "warmup" + (1 - i) + ".log");
+            long[] result = measure(log);
+            long millis = result[0];
+            Long springMillis = startedMillis(log);
+            if (i <= 0) {
+                System.out.printf("warmup: %d ms%n", millis);
+                continue;
+            }
+            firstRequest.add(millis);
+            if (springMillis != null) {
+                started.add(springMillis);
+            }
+            if (result[1] > 0) {
+                rss.add(result[1]);
+            }
+            System.out.printf("run %d: first request after %d ms (Spring started in %s ms), RSS %s MB%n",
+                    i, millis, springMillis != null ? springMillis : "?", result[1] > 0 ? result[1] / 1024 : "?");
+        }
+
+        Collections.sort(firstRequest);
+        Collections.sort(started);
+        Collections.sort(rss);
+        long median = median(firstRequest);
+        System.out.printf("time-to-first-request over %d runs: min %d ms, median %d ms, max %d ms%n",
+                runs, firstRequest.get(0), median, firstRequest.get(firstRequest.size() - 1));
+        if (!started.isEmpty()) {
+            System.out.printf("Spring 'Started in': median %d ms%n", median(started));
+        }
+        if (!rss.isEmpty()) {
+            System.out.printf("RSS after first request: median %d MB%n", median(rss) / 1024);
+        }
+        return median;
+    }
+
+    // Time to first answer in ms, and the RSS in kB at that point (0 when unknown)
+    private long[] measure(Path log) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder("sh", "-c", command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (System.currentTimeMillis() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Service exited with " + process.exitValue() + ", see " + log);
+                }
+                if (answers()) {
+                    return new long[]{TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), rssKilobytes(process)};
+                }
+                Thread.sleep(20);
+            }
+            throw new IllegalStateException("No answer from " + url + " within " + timeoutMillis + " ms, see " + log);
+        } finally {
+            stop(process);
+        }
+    }
+
+    private boolean answers() throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(5)).GET().build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+        } catch (IOException e) {
+            // not listening yet
+            return false;
+        }
+    }
+
+    // The command may be a wrapper (sh, mvn, docker run): stop what it started too, and wait
+    // for all of it to exit so the next run finds the port free
+    private static void stop(Process process) {
+        List<ProcessHandle> handles = new ArrayList<>(process.descendants().toList());
+        handles.add(process.toHandle());
+        handles.forEach(ProcessHandle::destroy);
+        for (ProcessHandle handle : handles) {
+            try {
+                handle.onExit().get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                handle.destroyForcibly();
+            }
+        }
+    }
+
+    // Largest RSS in the process tree: the service itself when the command is a wrapper
+    private static long rssKilobytes(Process process) {
+        List<ProcessHandle> handles = new ArrayList<>(process.descendants().toList());
+        handles.add(process.toHandle());
+        long max = 0;
+        for (ProcessHandle handle : handles) {
+            try {
+                for (String line : Files.readAllLines(Paths.get("/proc", Long.toString(handle.pid()), "status"))) {
+                    if (line.startsWith("VmRSS:")) {
+                        max = Math.max(max, Long.parseLong(line.replaceAll("\\D", "")));
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // not Linux, or the process is gone
+            }
+        }
+        return max;
+    }
+
+    private static Long startedMillis(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Math.round(Double.parseDouble(matcher.group(1)) * 1000) : null;
+    }
+
+    private static long median(List<Long> sorted) {
+        return sorted.get(sorted.size() / 2);
+    }
+
+    static String setting(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            value = System.getenv(name.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+        }
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
@@ -0,0 +1,52 @@
+package com.booktracker.loadtest;
+
+import io.gatling.javaapi.core.Assertion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static io.gatling.javaapi.core.CoreDsl.details;
+import static io.gatling.javaapi.core.CoreDsl.global;
+
+/**
+ * Turns thresholds.properties into Gatling assertions. Keys are {@code <request>.<metric>},
+ * where request is a request name from the simulation or "global", and metric is p95, p99
+ * (milliseconds) or max-error-pct (percent of failed requests).
+ */
+final class Thresholds {
+
+    private Thresholds() {
+    }
+
+    static List<Assertion> load(String resource) {
+        Properties properties = new Properties();
+        try (InputStream in = Thresholds.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException(resource + " not found on the classpath");
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Assertion> assertions = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            int dot = key.lastIndexOf('.');
+            String request = key.substring(0, dot);
+            String metric = key.substring(dot + 1);
+            String limit = properties.getProperty(key).trim();
+            Assertion.WithPath path = "global".equals(request) ? global() : details(request);
+            assertions.add(switch (metric) {
+                case "p95" -> path.responseTime().percentile(95.0).lte(Integer.parseInt(limit));
+                case "p99" -> path.responseTime().percentile(99.0).lte(Integer.parseInt(limit));
+                case "max-error-pct" -> path.failedRequests().percent().lte(Double.parseDouble(limit));
+                default -> throw new IllegalArgumentException("Unknown threshold metric in " + key);
+            });
+        }
+        return assertions;
+    }
+}
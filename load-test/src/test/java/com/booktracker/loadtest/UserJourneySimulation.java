@@ -0,0 +1,156 @@
+package com.booktracker.loadtest;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.AllowList;
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.rampUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.regex;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.currentLocationRegex;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Replays the journeys of seeded users against a stack whose Keycloak and Open Library are the
+ * stubs module (load-test/docker-compose.yml):
+ * - browser: login, dashboard panels, /books browse and search, rate a book, update progress (vitrine)
+ * - API client: token, profile and cursor-paged library listing (book-service directly)
+ *
+ * Settings are system properties: vitrine.url, bookservice.url, token.url, seed.users (as seeded),
+ * load.browser-users-per-sec, load.api-users-per-sec, load.ramp-seconds, load.duration-seconds.
+ * Latency and error limits per request are in thresholds.properties.
+ */
+public class UserJourneySimulation extends Simulation {
+
+    private static final String VITRINE_URL = setting("vitrine.url", "http://localhost:8080");
+    private static final String BOOK_SERVICE_URL = setting("bookservice.url", "http://localhost:8081");
+    private static final String TOKEN_URL = setting("token.url",
+            "http://localhost:8180/realms/booktracker/protocol/openid-connect/token");
+    private static final int USERS = Integer.parseInt(setting("seed.users", "1000"));
+    private static final double BROWSER_RATE = Double.parseDouble(setting("load.browser-users-per-sec", "5"));
+    private static final double API_RATE = Double.parseDouble(setting("load.api-users-per-sec", "2"));
+    private static final Duration RAMP = Duration.ofSeconds(Long.parseLong(setting("load.ramp-seconds", "60")));
+    private static final Duration DURATION = Duration.ofSeconds(Long.parseLong(setting("load.duration-seconds", "300")));
+
+    private static final List<String> GENRES = List.of("fantasy", "science fiction", "mystery", "history", "romance");
+    private static final List<String> SEARCHES = List.of("dune", "tolkien", "space opera", "detective", "dragons", "war");
+
+    // Seeded users are user1..userN@load.test; the Keycloak stub accepts any password
+    private static final Iterator<Map<String, Object>> SEEDED_USERS = Stream.generate(() -> Map.<String, Object>of(
+            "email", "user" + (1 + ThreadLocalRandom.current().nextInt(USERS)) + "@load.test",
+            "password", "load-test")).iterator();
+
+    private final HttpProtocolBuilder browserProtocol = http
+            .baseUrl(VITRINE_URL)
+            .inferHtmlResources(AllowList(".*/covers/.*", ".*/css/.*", ".*/js/.*"))
+            .acceptHeader("text/html,application/xhtml+xml,application/json;q=0.9,*/*;q=0.8")
+            .userAgentHeader("booktracker-load-test");
+
+    private final HttpProtocolBuilder apiProtocol = http
+            .baseUrl(BOOK_SERVICE_URL)
+            .acceptHeader("application/json")
+            .userAgentHeader("booktracker-load-test");
+
+    private final ScenarioBuilder browser = scenario("browser")
+            .feed(SEEDED_USERS)
+            .exec(http("login-page").get("/login"))
+            .pause(1, 3)
+            // Follows the redirect to /dashboard, which renders the shell
+            .exec(http("login").post("/login")
+                    .formParam("email", "#{email}")
+                    .formParam("password", "#{password}")
+                    .check(currentLocationRegex(".*/dashboard$")))
+            .exec(http("dashboard-stats").get("/dashboard/fragments/stats"))
+            .exec(http("dashboard-library").get("/dashboard/fragments/library")
+                    .check(regex("data-bookid=\"(\\d+)\" data-libraryid=\"(\\d+)\"")
+                            .captureGroups(2).findRandom().optional().saveAs("entry")))
+            .pause(2, 5)
+            .exec(http("books-browse").get("/books")
+                    .queryParam("genre", session -> random(GENRES))
+                    .queryParam("page", session -> 1 + ThreadLocalRandom.current().nextInt(5)))
+            .pause(1, 4)
+            .exec(http("books-search").get("/books")
+                    .queryParam("q", session -> random(SEARCHES)))
+            .pause(2, 6)
+            .doIf(session -> session.contains("entry")).then(
+                    exec(session -> {
+                        List<String> entry = session.getList("entry");
+                        return session.set("bookId", entry.get(0)).set("libraryId", entry.get(1));
+                    })
+                    .exec(http("rate-book").post("/dashboard/rate-book")
+                            .header("Idempotency-Key", session -> UUID.randomUUID().toString())
+                            .body(StringBody(session -> "{\"bookId\":" + session.getString("bookId") +
+                                    ",\"rating\":" + (1 + ThreadLocalRandom.current().nextInt(5)) + "}"))
+                            .asJson()
+                            .check(jsonPath("$.success").ofBoolean().is(true)))
+                    .pause(1, 3)
+                    .exec(http("update-progress").put("/dashboard/library/#{libraryId}/progress")
+                            .body(StringBody(session -> "{\"currentPage\":" + ThreadLocalRandom.current().nextInt(400) +
+                                    ",\"notes\":\"load test\"}"))
+                            .asJson()
+                            .check(jsonPath("$.success").ofBoolean().is(true)))
+                    // The writes evict the cached panels; this measures the re-render
+                    .exec(http("dashboard-library").get("/dashboard/fragments/library")));
+
+    private final ScenarioBuilder api = scenario("api")
+            .feed(SEEDED_USERS)
+            .exec(http("token").post(TOKEN_URL)
+                    .formParam("grant_type", "password")
+                    .formParam("client_id", "vitrine")
+                    .formParam("username", "#{email}")
+                    .formParam("password", "#{password}")
+                    .check(jsonPath("$.access_token").saveAs("token")))
+            .exec(http("api-me").get("/api/v1/users/me")
+                    .header("Authorization", "Bearer #{token}")
+                    .check(jsonPath("$.id").saveAs("userId")))
+            .exec(http("api-entries").get("/api/v1/library/users/#{userId}/entries")
+                    .queryParam("limit", 20)
+                    .queryParam("fields", "bookId,status,title,author,coverUrl,progressPercent")
+                    .header("Authorization", "Bearer #{token}")
+                    .check(jsonPath("$.nextCursor").optional().saveAs("cursor")))
+            .pause(1, 3)
+            .doIf(session -> session.contains("cursor")).then(
+                    exec(http("api-entries").get("/api/v1/library/users/#{userId}/entries")
+                            .queryParam("cursor", "#{cursor}")
+                            .queryParam("fields", "bookId,status,title,author,coverUrl,progressPercent")
+                            .header("Authorization", "Bearer #{token}")))
+            .exec(http("api-stats").get("/api/v1/library/users/#{userId}/stats")
+                    .header("Authorization", "Bearer #{token}")
+                    .check(status().is(200)));
+
+    {
+        setUp(
+                browser.injectOpen(
+                        rampUsersPerSec(0.1).to(BROWSER_RATE).during(RAMP),
+                        constantUsersPerSec(BROWSER_RATE).during(DURATION)
+                ).protocols(browserProtocol),
+                api.injectOpen(
+                        rampUsersPerSec(0.1).to(API_RATE).during(RAMP),
+                        constantUsersPerSec(API_RATE).during(DURATION)
+                ).protocols(apiProtocol)
+        ).assertions(Thresholds.load("thresholds.properties"));
+    }
+
+    private static String random(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
@@ -0,0 +1,157 @@
+package com.booktracker.stubs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+/**
+ * The Flask ai-service routes vitrine calls: /bookSummary, /translateText and
+ * /api/v1/recommendations. Same request and response shapes as ai-service/app.py, without
+ * Groq or Google Books behind them; recommendations depend only on the library titles.
+ */
+public class AiServiceStub {
+
+    static final String GROUP = "ai";
+    static final String SUMMARY = "ai-summary";
+    static final String TRANSLATE = "ai-translate";
+    static final String RECOMMENDATIONS = "ai-recommendations";
+
+    private static final String[] GENRES = {"Fantasy", "Science Fiction", "Mystery", "Historical Fiction", "Memoir"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StubBehaviour behaviour;
+
+    public AiServiceStub(StubBehaviour behaviour) {
+        this.behaviour = behaviour;
+    }
+
+    void register(WireMockServer server) {
+        server.stubFor(post(urlPathEqualTo("/bookSummary"))
+                .willReturn(aResponse().withTransformers(SUMMARY)));
+        server.stubFor(post(urlPathEqualTo("/translateText"))
+                .willReturn(aResponse().withTransformers(TRANSLATE)));
+        server.stubFor(post(urlPathMatching("/api/v1/recommendations/users/\\d+"))
+                .willReturn(aResponse().withTransformers(RECOMMENDATIONS)));
+        server.stubFor(get(urlPathEqualTo("/api/v1/recommendations/trending"))
+                .willReturn(okJson(toJson(Map.of("success", true, "trending", trending(), "count", 8)))
+                        .withTransformers(StubTransformer.Static.NAME)
+                        .withTransformerParameter("group", GROUP)));
+        server.stubFor(get(urlPathEqualTo("/health"))
+                .willReturn(okJson("{\"status\":\"healthy\"}")));
+    }
+
+    StubTransformer summaryTransformer() {
+        return new StubTransformer(SUMMARY, GROUP, behaviour) {
+            @Override
+            protected ResponseDefinitionBuilder respond(ServeEvent serveEvent) {
+                JsonNode request = readBody(serveEvent);
+                String title = request.path("title").asText("");
+                String author = request.path("author").asText("");
+                if (title.isEmpty() || author.isEmpty()) {
+                    return aResponse()
+                            .withStatus(400)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("{\"error\":\"Title and author are required\"}");
+                }
+                return okJson(toJson(Map.of(
+                        "title", title,
+                        "author", author,
+                        "summary", title + " by " + author + " follows its characters through a story of change, loss "
+                                + "and discovery. This summary comes from the stub AI service.")));
+            }
+        };
+    }
+
+    StubTransformer translateTransformer() {
+        return new StubTransformer(TRANSLATE, GROUP, behaviour) {
+            @Override
+            protected ResponseDefinitionBuilder respond(ServeEvent serveEvent) {
+                JsonNode request = readBody(serveEvent);
+                String text = request.path("text").asText("");
+                if (text.isEmpty()) {
+                    return okJson("{\"original\":\"\",\"translated\":\"\"}");
+                }
+                return okJson(toJson(Map.of(
+                        "original", text,
+                        "translated", "[" + request.path("target").asText("ar") + "] " + text,
+                        "method", "stub")));
+            }
+        };
+    }
+
+    StubTransformer recommendationsTransformer() {
+        return new StubTransformer(RECOMMENDATIONS, GROUP, behaviour) {
+            @Override
+            protected ResponseDefinitionBuilder respond(ServeEvent serveEvent) {
+                JsonNode titles = readBody(serveEvent).path("library_titles");
+                if (!titles.isArray() || titles.isEmpty()) {
+                    return okJson(toJson(Map.of("success", true, "recommendations", List.of(), "count", 0,
+                            "reason", "empty_library")));
+                }
+                String limit = serveEvent.getRequest().queryParameter("limit").isPresent()
+                        ? serveEvent.getRequest().queryParameter("limit").firstValue() : "4";
+
+                Random random = new Random(titles.toString().hashCode());
+                List<Map<String, Object>> recommendations = new ArrayList<>();
+                for (int i = 0; i < Integer.parseInt(limit); i++) {
+                    recommendations.add(recommendation("Stub Pick " + (1 + random.nextInt(500)), random));
+                }
+                return okJson(toJson(Map.of("success", true, "recommendations", recommendations,
+                        "count", recommendations.size(), "reason", "ai_powered")));
+            }
+        };
+    }
+
+    private List<Map<String, Object>> trending() {
+        Random random = new Random(8);
+        List<Map<String, Object>> trending = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            Map<String, Object> book = recommendation("Trending Book " + i, random);
+            book.put("reason", "Trending");
+            trending.add(book);
+        }
+        return trending;
+    }
+
+    // coverId is an Open Library cover id served by OpenLibraryStub, so the cover proxy sees them too
+    private Map<String, Object> recommendation(String title, Random random) {
+        Map<String, Object> book = new LinkedHashMap<>();
+        book.put("title", title);
+        book.put("author", "Author " + random.nextInt(2_000));
+        book.put("coverId", String.valueOf(1_000_000 + random.nextInt(50_000)));
+        book.put("reason", GENRES[random.nextInt(GENRES.length)]);
+        return book;
+    }
+
+    private JsonNode readBody(ServeEvent serveEvent) {
+        try {
+            return objectMapper.readTree(serveEvent.getRequest().getBodyAsString());
+        } catch (JsonProcessingException e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.booktracker.stubs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+/**
+ * Runtime control of {@link StubBehaviour}, e.g. to switch faults on in the middle of a run:
+ *   GET  /__stubs/behaviour
+ *   POST /__stubs/behaviour/covers  {"latency": "fixed:300", "fault": "503", "faultRate": 0.2}
+ * Omitted fields keep their value; posting resets the group's request counter.
+ */
+class BehaviourAdmin implements ResponseDefinitionTransformerV2 {
+
+    static final String NAME = "behaviour-admin";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StubBehaviour behaviour;
+
+    BehaviourAdmin(StubBehaviour behaviour) {
+        this.behaviour = behaviour;
+    }
+
+    static void register(WireMockServer server) {
+        server.stubFor(any(urlPathMatching("/__stubs/behaviour(/[a-z]+)?"))
+                .willReturn(aResponse().withTransformers(NAME)));
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        String path = serveEvent.getRequest().getUrl().split("\\?")[0];
+        try {
+            if (serveEvent.getRequest().getMethod().equals(RequestMethod.POST) && path.startsWith("/__stubs/behaviour/")) {
+                String group = path.substring("/__stubs/behaviour/".length());
+                StubBehaviour.Settings current = behaviour.settings(group);
+                Map<String, Object> described = current.describe();
+                JsonNode update = objectMapper.readTree(serveEvent.getRequest().getBodyAsString());
+                behaviour.configure(group,
+                        update.path("latency").asText((String) described.get("latency")),
+                        update.path("fault").asText((String) described.get("fault")),
+                        update.path("faultRate").asDouble((Double) described.get("faultRate")));
+                System.out.println("Stub behaviour of " + group + " set to " + behaviour.settings(group).describe());
+                return okJson(objectMapper.writeValueAsString(behaviour.settings(group).describe())).build();
+            }
+            return okJson(objectMapper.writeValueAsString(behaviour.describe())).build();
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return aResponse()
+                    .withStatus(400)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"error\":\"" + e.getMessage().replace("\"", "'") + "\"}")
+                    .build();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+}
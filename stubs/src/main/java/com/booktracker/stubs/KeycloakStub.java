@@ -0,0 +1,265 @@
+package com.booktracker.stubs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.math.BigInteger;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+/**
+ * Keycloak endpoints used by vitrine (AuthController) and book-service (SecurityConfig):
+ * token (password grant, any realm including master), certs, OpenID discovery, and the admin
+ * user endpoints behind registration. Any username/password pair is accepted and gets an RS256
+ * access token signed with a key generated at startup, which book-service verifies through the
+ * certs endpoint like a real Keycloak key.
+ */
+public class KeycloakStub {
+
+    static final String GROUP = "keycloak";
+    static final String TOKEN = "keycloak-token";
+    static final String ADMIN_USERS = "keycloak-admin-users";
+
+    private static final String KEY_ID = "booktracker-stub";
+    private static final long TOKEN_SECONDS = 1800;
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String issuer;
+    private final StubBehaviour behaviour;
+    private final KeyPair keyPair;
+
+    // Users created through the admin API, by username; registration answers 409 for a second attempt
+    private final Map<String, Map<String, Object>> registeredUsers = new ConcurrentHashMap<>();
+
+    public KeycloakStub(String issuer, StubBehaviour behaviour) {
+        this.issuer = issuer;
+        this.behaviour = behaviour;
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            this.keyPair = generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate the token signing key", e);
+        }
+    }
+
+    /**
+     * Keycloak subject (sub claim) of a username. The load-test seeder stores the same value
+     * in users.keycloak_id, so seeded users are found instead of created on first login.
+     */
+    public static String subjectOf(String username) {
+        return UUID.nameUUIDFromBytes(username.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    void register(WireMockServer server) {
+        String realm = "/realms/[^/]+";
+        server.stubFor(post(urlPathMatching(realm + "/protocol/openid-connect/token"))
+                .willReturn(aResponse().withTransformers(TOKEN)));
+        server.stubFor(get(urlPathMatching(realm + "/protocol/openid-connect/certs"))
+                .willReturn(okJson(toJson(Map.of("keys", List.of(jwk()))))
+                        .withTransformers(StubTransformer.Static.NAME)
+                        .withTransformerParameter("group", GROUP)));
+        server.stubFor(get(urlPathMatching(realm + "/\\.well-known/openid-configuration"))
+                .willReturn(okJson(toJson(discovery()))
+                        .withTransformers(StubTransformer.Static.NAME)
+                        .withTransformerParameter("group", GROUP)));
+        server.stubFor(post(urlPathMatching("/admin" + realm + "/users"))
+                .willReturn(aResponse().withTransformers(ADMIN_USERS)));
+        server.stubFor(get(urlPathMatching("/admin" + realm + "/users"))
+                .willReturn(aResponse().withTransformers(ADMIN_USERS)));
+    }
+
+    StubTransformer tokenTransformer() {
+        return new StubTransformer(TOKEN, GROUP, behaviour) {
+            @Override
+            protected ResponseDefinitionBuilder respond(ServeEvent serveEvent) {
+                Map<String, String> form = parseForm(serveEvent.getRequest().getBodyAsString());
+                String username = form.get("username");
+                if (username == null || username.isBlank()) {
+                    return error(401, "{\"error\":\"invalid_grant\",\"error_description\":\"Invalid user credentials\"}");
+                }
+
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("access_token", accessToken(username, form.getOrDefault("client_id", "vitrine")));
+                body.put("expires_in", TOKEN_SECONDS);
+                body.put("refresh_expires_in", 0);
+                body.put("token_type", "Bearer");
+                body.put("not-before-policy", 0);
+                body.put("scope", "openid profile email");
+                return okJson(toJson(body));
+            }
+        };
+    }
+
+    // POST creates a user (as AuthController.createKeycloakUser does), GET looks users up by email or username
+    StubTransformer adminUsersTransformer() {
+        return new StubTransformer(ADMIN_USERS, GROUP, behaviour) {
+            @Override
+            protected ResponseDefinitionBuilder respond(ServeEvent serveEvent) {
+                String path = serveEvent.getRequest().getUrl().split("\\?")[0];
+                if ("GET".equals(serveEvent.getRequest().getMethod().getName())) {
+                    QueryParameter email = serveEvent.getRequest().queryParameter("email");
+                    QueryParameter username = serveEvent.getRequest().queryParameter("username");
+                    String lookup = email.isPresent() ? email.firstValue() : username.isPresent() ? username.firstValue() : null;
+                    if (lookup == null) {
+                        return okJson(toJson(List.copyOf(registeredUsers.values())));
+                    }
+                    Map<String, Object> user = registeredUsers.get(lookup.toLowerCase(Locale.ROOT));
+                    return okJson(toJson(user != null ? List.of(user) : List.of()));
+                }
+
+                JsonNode request;
+                try {
+                    request = objectMapper.readTree(serveEvent.getRequest().getBodyAsString());
+                } catch (JsonProcessingException e) {
+                    return error(400, "{\"error\":\"invalid json\"}");
+                }
+                String username = request.path("username").asText("").toLowerCase(Locale.ROOT);
+                if (username.isEmpty()) {
+                    return error(400, "{\"errorMessage\":\"username is required\"}");
+                }
+
+                Map<String, Object> user = new LinkedHashMap<>();
+                user.put("id", subjectOf(username));
+                user.put("username", username);
+                user.put("email", request.path("email").asText(username));
+                user.put("firstName", request.path("firstName").asText(""));
+                user.put("lastName", request.path("lastName").asText(""));
+                user.put("enabled", true);
+                user.put("emailVerified", true);
+                if (registeredUsers.putIfAbsent(username, user) != null) {
+                    return error(409, "{\"errorMessage\":\"User exists with same username\"}");
+                }
+                return aResponse()
+                        .withStatus(201)
+                        .withHeader("Location", issuer.replace("/realms/", "/admin/realms/") + "/users/" + user.get("id"));
+            }
+        };
+    }
+
+    private String accessToken(String username, String clientId) {
+        long now = System.currentTimeMillis() / 1000;
+        String name = username.contains("@") ? username.substring(0, username.indexOf('@')) : username;
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("exp", now + TOKEN_SECONDS);
+        claims.put("iat", now);
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("iss", issuer);
+        claims.put("aud", "account");
+        claims.put("sub", subjectOf(username));
+        claims.put("typ", "Bearer");
+        claims.put("azp", clientId);
+        claims.put("scope", "openid profile email");
+        claims.put("email_verified", true);
+        claims.put("name", name);
+        claims.put("preferred_username", username.toLowerCase(Locale.ROOT));
+        claims.put("email", username.toLowerCase(Locale.ROOT));
+
+        Map<String, Object> header = Map.of("alg", "RS256", "typ", "JWT", "kid", KEY_ID);
+        String signingInput = base64Url(toJson(header)) + "." + base64Url(toJson(claims));
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(keyPair.getPrivate());
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + BASE64URL.encodeToString(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign access token", e);
+        }
+    }
+
+    private Map<String, Object> jwk() {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", KEY_ID);
+        jwk.put("kty", "RSA");
+        jwk.put("alg", "RS256");
+        jwk.put("use", "sig");
+        jwk.put("n", BASE64URL.encodeToString(unsigned(publicKey.getModulus())));
+        jwk.put("e", BASE64URL.encodeToString(unsigned(publicKey.getPublicExponent())));
+        return jwk;
+    }
+
+    // What Spring's issuer-uri configuration reads from /.well-known/openid-configuration
+    private Map<String, Object> discovery() {
+        String openIdConnect = issuer + "/protocol/openid-connect";
+        Map<String, Object> discovery = new LinkedHashMap<>();
+        discovery.put("issuer", issuer);
+        discovery.put("authorization_endpoint", openIdConnect + "/auth");
+        discovery.put("token_endpoint", openIdConnect + "/token");
+        discovery.put("userinfo_endpoint", openIdConnect + "/userinfo");
+        discovery.put("jwks_uri", openIdConnect + "/certs");
+        discovery.put("grant_types_supported", List.of("password", "authorization_code", "client_credentials"));
+        discovery.put("response_types_supported", List.of("code"));
+        discovery.put("subject_types_supported", List.of("public"));
+        discovery.put("id_token_signing_alg_values_supported", List.of("RS256"));
+        return discovery;
+    }
+
+    // JWK integers are unsigned big-endian; BigInteger adds a sign byte when the top bit is set
+    private static byte[] unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        return bytes.length > 1 && bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+
+    static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        if (body == null) {
+            return form;
+        }
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static ResponseDefinitionBuilder error(int status, String json) {
+        return aResponse()
+                .withStatus(status)
+                .withHeader("Content-Type", "application/json")
+                .withBody(json);
+    }
+
+    private String base64Url(String json) {
+        return BASE64URL.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.booktracker.stubs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+/**
+ * Open Library search.json, works/{id}.json and cover images. Results are generated from the
+ * query and the position, so the same page always returns the same books and covers.
+ * Covers are their own behaviour group, so the cover proxy can be slowed down on its own.
+ */
+public class OpenLibraryStub {
+
+    static final String GROUP = "openlibrary";
+    static final String COVERS_GROUP = "covers";
+    static final String SEARCH = "openlibrary-search";
+    static final String WORK = "openlibrary-work";
+    static final String COVER = "openlibrary-cover";
+
+    private static final int NUM_FOUND = 10_000;
+    // Distinct cover ids across all queries; bounds the vitrine cover cache during long runs
+    private static final int COVER_POOL = 50_000;
+
+    private static final String[] WORDS = {
+            "Silent", "River", "Empire", "Garden", "Shadow", "Winter", "Glass", "Iron", "Last", "Hidden",
+            "Star", "Ocean", "House", "Night", "Crown", "Paper", "Golden", "Wild", "Lost", "City"
+    };
+    private static final String[] SUBJECTS = {
+            "Fiction", "Fantasy", "Science fiction", "Mystery", "History", "Biography", "Poetry", "Adventure"
+    };
+    private static final Pattern COVER_PATH = Pattern.compile("/b/id/(\\d+)-([SML])\\.jpg");
+    private static final Pattern WORK_PATH = Pattern.compile("/works/OL(\\d+)W\\.json");
+    private static final Pattern WORK_KEY = Pattern.compile("/works/OL(\\d+)W");
+
+    static void register(WireMockServer server) {
+        server.stubFor(get(urlPathEqualTo("/search.json"))
+                .willReturn(aResponse().withTransformers(SEARCH)));
+        server.stubFor(get(urlPathMatching("/works/OL\\d+W\\.json"))
+                .willReturn(aResponse().withTransformers(WORK)));
+        server.stubFor(get(urlPathMatching("/b/id/\\d+-[SML]\\.jpg"))
+                .willReturn(aResponse().withTransformers(COVER)));
+    }
+
+    static class SearchTransformer extends StubTransformer {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        SearchTransformer(StubBehaviour behaviour) {
+            super(SEARCH, GROUP, behaviour);
+        }
+
+        @Override
+        protected ResponseDefinitionBuilder respond(ServeEvent serveEvent) {
+            Request request = serveEvent.getRequest();
+            String q = param(request, "q", "popular");
+            int limit = Math.min(Integer.parseInt(param(request, "limit", "100")), 1000);
+            // vitrine pages with page= on /books and with offset= in OpenLibraryService
+            int offset = request.queryParameter("offset").isPresent()
+                    ? Integer.parseInt(param(request, "offset", "0"))
+                    : (Integer.parseInt(param(request, "page", "1")) - 1) * limit;
+
+            List<Map<String, Object>> docs = new ArrayList<>();
+            int numFound = NUM_FOUND;
+            if (q.startsWith("key:")) {
+                // Batched lookup by work key from the vitrine enrichment worker: key:(/works/OL1W OR ...)
+                Matcher keys = WORK_KEY.matcher(q);
+                while (keys.find() && docs.size() < limit) {
+                    docs.add(doc(Long.parseLong(keys.group(1))));
+                }
+                numFound = docs.size();
+            } else if (request.queryParameter("isbn").isPresent() || request.queryParameter("title").isPresent()) {
+                // Lookup of one catalog book by the book-service enrichment job: a single match
+                // carrying the requested ISBN or title
+                String isbn = param(request, "isbn", "");
+                String title = param(request, "title", "");
+                Map<String, Object> doc = doc(Math.floorMod((isbn + title).hashCode(), 100_000) * (long) NUM_FOUND);
+                if (!isbn.isEmpty()) {
+                    doc.put("isbn", List.of(isbn));
+                }
+                if (!title.isEmpty()) {
+                    doc.put("title", title);
+                }
+                docs.add(doc);
+                numFound = 1;
+            } else {
+                long base = Math.floorMod(q.toLowerCase().hashCode(), 100_000) * (long) NUM_FOUND;
+                for (int i = offset; i < Math.min(offset + limit, NUM_FOUND); i++) {
+                    docs.add(doc(base + i));
+                }
+            }
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("numFound", numFound);
+            body.put("start", offset);
+            body.put("docs", docs);
+            try {
+                return okJson(objectMapper.writeValueAsString(body));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private Map<String, Object> doc(long id) {
+            Random random = new Random(id);
+
+            Map<String, Object> doc = new LinkedHashMap<>();
+            doc.put("key", "/works/OL" + id + "W");
+            doc.put("title", WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + (id % NUM_FOUND + 1));
+            doc.put("author_name", List.of("Author " + random.nextInt(2_000)));
+            doc.put("cover_i", 1_000_000 + id % COVER_POOL);
+            doc.put("first_publish_year", 1900 + random.nextInt(125));
+            doc.put("number_of_pages_median", 100 + random.nextInt(700));
+            doc.put("isbn", List.of(String.format("978%010d", id % 10_000_000_000L)));
+            doc.put("subject", List.of(SUBJECTS[random.nextInt(SUBJECTS.length)]));
+            doc.put("publisher", List.of("Publisher " + id % 50));
+            return doc;
+        }
+    }
+
+    // The work behind a search result key (/works/OL<id>W), consistent with the search doc
+    static class WorkTransformer extends StubTransformer {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        WorkTransformer(StubBehaviour behaviour) {
+            super(WORK, GROUP, behaviour);
+        }
+
+        @Override
+        protected ResponseDefinitionBuilder respond(ServeEvent serveEvent) {
+            Matcher matcher = WORK_PATH.matcher(serveEvent.getRequest().getUrl().split("\\?")[0]);
+            if (!matcher.matches()) {
+                return aResponse().withStatus(404);
+            }
+            long id = Long.parseLong(matcher.group(1));
+            Random random = new Random(id);
+
+            Map<String, Object> work = new LinkedHashMap<>();
+            work.put("key", "/works/OL" + id + "W");
+            work.put("title", WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + (id % NUM_FOUND + 1));
+            work.put("authors", List.of(Map.of("author", Map.of("key", "/authors/OL" + random.nextInt(2_000) + "A"))));
+            work.put("description", "A generated work used by the load tests. It has no content worth reading.");
+            work.put("covers", List.of(1_000_000 + id % COVER_POOL));
+            work.put("subjects", List.of(SUBJECTS[random.nextInt(SUBJECTS.length)], "Generated"));
+            work.put("first_publish_date", String.valueOf(1900 + random.nextInt(125)));
+            try {
+                return okJson(objectMapper.writeValueAsString(work));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    static class CoverTransformer extends StubTransformer {
+
+        CoverTransformer(StubBehaviour behaviour) {
+            super(COVER, COVERS_GROUP, behaviour);
+        }
+
+        @Override
+        protected ResponseDefinitionBuilder respond(ServeEvent serveEvent) {
+            Matcher matcher = COVER_PATH.matcher(serveEvent.getRequest().getUrl().split("\\?")[0]);
+            if (!matcher.matches()) {
+                return aResponse().withStatus(404);
+            }
+            long coverId = Long.parseLong(matcher.group(1));
+            int width = switch (matcher.group(2)) {
+                case "S" -> 60;
+                case "M" -> 180;
+                default -> 360;
+            };
+            return aResponse()
+                    .withHeader("Content-Type", "image/jpeg")
+                    .withHeader("Cache-Control", "public, max-age=86400")
+                    .withBody(cover(coverId, width, width * 3 / 2));
+        }
+
+        // Background colour and stripes derived from the id, so every cover has distinct bytes
+        private byte[] cover(long coverId, int width, int height) {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            Random random = new Random(coverId);
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillRect(0, 0, width, height);
+            graphics.setColor(Color.WHITE);
+            int stripe = Math.max(1, height / 64);
+            for (int bit = 0; bit < 32; bit++) {
+                if ((coverId >> bit & 1) == 1) {
+                    graphics.fillRect(0, bit * 2 * stripe, width, stripe);
+                }
+            }
+            graphics.dispose();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                ImageIO.write(image, "jpg", out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static String param(Request request, String name, String defaultValue) {
+        QueryParameter parameter = request.queryParameter(name);
+        return parameter.isPresent() && !parameter.firstValue().isBlank() ? parameter.firstValue() : defaultValue;
+    }
+}
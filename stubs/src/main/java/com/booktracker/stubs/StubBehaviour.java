@@ -0,0 +1,152 @@
+package com.booktracker.stubs;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+
+/**
+ * Latency and fault injection per stub group (keycloak, openlibrary, covers, ai).
+ *
+ * latency: none | fixed:50 | uniform:20-200 | lognormal:80,0.4 (median ms, sigma)
+ * fault:   an HTTP status (500, 503, 429...), timeout (30 s delay), or a WireMock connection fault
+ *          (connection_reset_by_peer, empty_response, malformed_response_chunk, random_data_then_close)
+ * fault-rate: share of requests that fail. Faulty requests are picked by a counter, not at random:
+ *          with 0.1 exactly every 10th request of the group fails, so runs are reproducible.
+ *
+ * Read from STUBS_LATENCY / STUBS_FAULT / STUBS_FAULT_RATE and the per-group
+ * STUBS_<GROUP>_LATENCY / _FAULT / _FAULT_RATE at startup; changed at runtime through
+ * POST /__stubs/behaviour/{group} (see {@link BehaviourAdmin}).
+ */
+public class StubBehaviour {
+
+    public static final List<String> GROUPS = List.of("keycloak", "openlibrary", "covers", "ai");
+
+    private static final int TIMEOUT_MS = 30_000;
+
+    private final Map<String, Settings> groups = new ConcurrentHashMap<>();
+
+    public static class Settings {
+        private final String latency;
+        private final String fault;
+        private final double faultRate;
+        private final AtomicLong requests = new AtomicLong();
+
+        Settings(String latency, String fault, double faultRate) {
+            if (faultRate < 0 || faultRate > 1) {
+                throw new IllegalArgumentException("fault-rate must be between 0 and 1: " + faultRate);
+            }
+            this.latency = latency;
+            this.fault = fault;
+            this.faultRate = faultRate;
+            // Fail fast on a bad spec instead of on the first request
+            withLatency(aResponse(), latency);
+            withFault(aResponse(), fault);
+        }
+
+        // Request n fails when it crosses the next whole multiple of 1 / fault-rate
+        boolean nextIsFault() {
+            long n = requests.incrementAndGet();
+            return Math.floor(n * faultRate) > Math.floor((n - 1) * faultRate);
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("latency", latency);
+            description.put("fault", fault);
+            description.put("faultRate", faultRate);
+            description.put("requests", requests.get());
+            return description;
+        }
+    }
+
+    static StubBehaviour fromEnvironment() {
+        StubBehaviour behaviour = new StubBehaviour();
+        String latency = StubServer.env("STUBS_LATENCY", "none");
+        String fault = StubServer.env("STUBS_FAULT", "500");
+        String faultRate = StubServer.env("STUBS_FAULT_RATE", "0");
+        for (String group : GROUPS) {
+            String prefix = "STUBS_" + group.toUpperCase(Locale.ROOT) + "_";
+            behaviour.configure(group,
+                    StubServer.env(prefix + "LATENCY", latency),
+                    StubServer.env(prefix + "FAULT", fault),
+                    Double.parseDouble(StubServer.env(prefix + "FAULT_RATE", faultRate)));
+        }
+        return behaviour;
+    }
+
+    public void configure(String group, String latency, String fault, double faultRate) {
+        groups.put(group, new Settings(latency, fault, faultRate));
+    }
+
+    public Settings settings(String group) {
+        Settings settings = groups.get(group);
+        if (settings == null) {
+            throw new IllegalArgumentException("Unknown stub group: " + group);
+        }
+        return settings;
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        for (String group : GROUPS) {
+            description.put(group, settings(group).describe());
+        }
+        return description;
+    }
+
+    /** The response with the group's latency, or the group's fault when this request is due one. */
+    public ResponseDefinition apply(String group, ResponseDefinitionBuilder response) {
+        Settings settings = settings(group);
+        if (settings.nextIsFault()) {
+            response = withFault(response, settings.fault);
+        }
+        return withLatency(response, settings.latency).build();
+    }
+
+    private static ResponseDefinitionBuilder withLatency(ResponseDefinitionBuilder response, String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":", 2);
+        if (parts.length < 2 && !"none".equals(parts[0])) {
+            throw new IllegalArgumentException("Latency spec without a value: " + spec);
+        }
+        switch (parts[0]) {
+            case "none":
+                return response;
+            case "fixed":
+                return response.withFixedDelay(Integer.parseInt(parts[1].trim()));
+            case "uniform": {
+                String[] range = parts[1].split("-");
+                return response.withUniformRandomDelay(Integer.parseInt(range[0].trim()), Integer.parseInt(range[1].trim()));
+            }
+            case "lognormal": {
+                String[] params = parts[1].split(",");
+                return response.withLogNormalRandomDelay(Double.parseDouble(params[0].trim()), Double.parseDouble(params[1].trim()));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown latency spec: " + spec);
+        }
+    }
+
+    private static ResponseDefinitionBuilder withFault(ResponseDefinitionBuilder response, String fault) {
+        String name = fault.trim().toLowerCase(Locale.ROOT);
+        if (name.chars().allMatch(Character::isDigit)) {
+            ResponseDefinitionBuilder error = aResponse()
+                    .withStatus(Integer.parseInt(name))
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"error\":\"injected fault\",\"status\":" + name + "}");
+            return "429".equals(name) ? error.withHeader("Retry-After", "1") : error;
+        }
+        if ("timeout".equals(name)) {
+            return response.withFixedDelay(TIMEOUT_MS);
+        }
+        return response.withFault(Fault.valueOf(name.toUpperCase(Locale.ROOT)));
+    }
+}
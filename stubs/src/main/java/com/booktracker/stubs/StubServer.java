@@ -0,0 +1,51 @@
+package com.booktracker.stubs;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * WireMock server standing in for Keycloak, Open Library and the Flask ai-service, so vitrine
+ * and book-service can be tested without the real services. One port serves every stub; the
+ * load-test compose file gives this container the keycloak host name.
+ * Latency and faults are set per group, see {@link StubBehaviour}.
+ */
+public class StubServer {
+
+    public static void main(String[] args) {
+        int port = Integer.parseInt(env("STUBS_PORT", "8080"));
+        String issuer = env("STUBS_ISSUER", "http://keycloak:8080/realms/booktracker");
+
+        StubBehaviour behaviour = StubBehaviour.fromEnvironment();
+        KeycloakStub keycloak = new KeycloakStub(issuer, behaviour);
+        AiServiceStub aiService = new AiServiceStub(behaviour);
+        WireMockServer server = new WireMockServer(options()
+                .port(port)
+                .containerThreads(Integer.parseInt(env("STUBS_THREADS", "200")))
+                // A load run would otherwise keep every request in memory
+                .disableRequestJournal()
+                .extensions(new StubTransformer.Static(behaviour),
+                        new BehaviourAdmin(behaviour),
+                        keycloak.tokenTransformer(),
+                        keycloak.adminUsersTransformer(),
+                        new OpenLibraryStub.SearchTransformer(behaviour),
+                        new OpenLibraryStub.WorkTransformer(behaviour),
+                        new OpenLibraryStub.CoverTransformer(behaviour),
+                        aiService.summaryTransformer(),
+                        aiService.translateTransformer(),
+                        aiService.recommendationsTransformer()));
+        server.start();
+
+        keycloak.register(server);
+        OpenLibraryStub.register(server);
+        aiService.register(server);
+        BehaviourAdmin.register(server);
+        System.out.println("Stubs listening on port " + port + " (token issuer " + issuer + ")");
+        System.out.println("Stub behaviour: " + behaviour.describe());
+    }
+
+    static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
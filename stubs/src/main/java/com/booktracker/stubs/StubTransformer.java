@@ -0,0 +1,71 @@
+package com.booktracker.stubs;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+/**
+ * Base of the generated responses: builds the response for a request and passes it through
+ * the group's latency and fault settings. Applied only to the stubs that name it.
+ */
+abstract class StubTransformer implements ResponseDefinitionTransformerV2 {
+
+    private final String name;
+    private final String group;
+    private final StubBehaviour behaviour;
+
+    StubTransformer(String name, String group, StubBehaviour behaviour) {
+        this.name = name;
+        this.group = group;
+        this.behaviour = behaviour;
+    }
+
+    protected abstract ResponseDefinitionBuilder respond(ServeEvent serveEvent);
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        return behaviour.apply(group, respond(serveEvent));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    /**
+     * Fixed responses (JWKS, trending, health...): the stub's own response, with the latency and
+     * faults of the group given as transformer parameter "group".
+     */
+    static class Static implements ResponseDefinitionTransformerV2 {
+
+        static final String NAME = "static";
+
+        private final StubBehaviour behaviour;
+
+        Static(StubBehaviour behaviour) {
+            this.behaviour = behaviour;
+        }
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            return behaviour.apply(serveEvent.getTransformerParameters().getString("group"),
+                    ResponseDefinitionBuilder.like(serveEvent.getResponseDefinition()));
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+    }
+}
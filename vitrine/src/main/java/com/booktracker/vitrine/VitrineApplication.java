@@ -1,9 +1,13 @@
 package com.booktracker.vitrine;
 
+import com.booktracker.vitrine.config.HttpCacheInterceptor;
+import com.booktracker.vitrine.config.SmileAcceptInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
@@ -14,7 +18,16 @@ public class VitrineApplication {
         SpringApplication.run(VitrineApplication.class, args);
     }
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(@Value("${book.service.url}") String bookServiceUrl,
+                                     @Value("${book.service.smile.enabled:false}") boolean smileEnabled,
+                                     @Value("${book.service.http-cache-max-mb:32}") long httpCacheMaxMb) {
+        // Apache HttpClient negotiates gzip and pools connections to book-service
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory());
+        if (smileEnabled) {
+            restTemplate.getInterceptors().add(new SmileAcceptInterceptor(bookServiceUrl));
+        }
+        // After SmileAcceptInterceptor: cached entries are keyed on the negotiated Accept
+        restTemplate.getInterceptors().add(new HttpCacheInterceptor(bookServiceUrl, httpCacheMaxMb * 1024 * 1024));
+        return restTemplate;
     }
 }
@@ -0,0 +1,162 @@
+package com.booktracker.vitrine.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Client side HTTP cache for GET calls to book-service.
+ * Remembers the ETag and body of each response and revalidates with If-None-Match,
+ * so an unchanged resource costs a bodyless 304 instead of a full payload.
+ * Entries are keyed on the URI and the Accept header (Smile or JSON); calls to other hosts and calls
+ * with an Authorization header (per-user answers) are not cached. Least recently used entries are
+ * dropped while the cached bodies exceed maxBytes, and a body larger than maxBytes is never kept.
+ */
+public class HttpCacheInterceptor implements ClientHttpRequestInterceptor {
+
+    private final String bookServiceUrl;
+    private final long maxBytes;
+
+    // Guarded by itself, as is totalBytes
+    private final LinkedHashMap<String, CachedResponse> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public HttpCacheInterceptor(String bookServiceUrl, long maxBytes) {
+        this.bookServiceUrl = bookServiceUrl;
+        this.maxBytes = maxBytes;
+    }
+
+    private static class CachedResponse {
+        final String eTag;
+        final HttpHeaders headers;
+        final byte[] body;
+
+        CachedResponse(String eTag, HttpHeaders headers, byte[] body) {
+            this.eTag = eTag;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (request.getMethod() != HttpMethod.GET
+                || !request.getURI().toString().startsWith(bookServiceUrl)
+                || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return execution.execute(request, body);
+        }
+
+        String key = request.getURI() + " " + String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT));
+        CachedResponse cached = get(key);
+        if (cached != null) {
+            request.getHeaders().setIfNoneMatch(cached.eTag);
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+
+        if (cached != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            response.close();
+            return new BufferedResponse(HttpStatus.OK, cached.headers, cached.body);
+        }
+
+        String eTag = response.getHeaders().getETag();
+        if (!response.getStatusCode().is2xxSuccessful() || eTag == null) {
+            if (cached != null) {
+                remove(key);
+            }
+            return response;
+        }
+
+        byte[] responseBody;
+        try (InputStream in = response.getBody()) {
+            responseBody = StreamUtils.copyToByteArray(in);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        HttpStatusCode status = response.getStatusCode();
+        response.close();
+
+        put(key, new CachedResponse(eTag, headers, responseBody));
+        return new BufferedResponse(status, headers, responseBody);
+    }
+
+    private CachedResponse get(String key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (cache) {
+            CachedResponse removed = cache.remove(key);
+            if (removed != null) {
+                totalBytes -= removed.body.length;
+            }
+        }
+    }
+
+    private void put(String key, CachedResponse response) {
+        synchronized (cache) {
+            remove(key);
+            if (response.body.length > maxBytes) {
+                return;
+            }
+            cache.put(key, response);
+            totalBytes += response.body.length;
+            Iterator<CachedResponse> eldest = cache.values().iterator();
+            while (totalBytes > maxBytes) {
+                totalBytes -= eldest.next().body.length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private static class BufferedResponse implements ClientHttpResponse {
+        private final HttpStatusCode status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        BufferedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public String getStatusText() {
+            return status instanceof HttpStatus httpStatus ? httpStatus.getReasonPhrase() : "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -26,6 +26,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Static resources
                         .requestMatchers("/css/**", "/js/**", "/images/**", "/image/**", "/webjars/**", "/favicon.ico").permitAll()
+                        // Cover images (local proxy of Open Library)
+                        .requestMatchers("/covers/**").permitAll()
                         // Public pages
                         .requestMatchers("/", "/home", "/books", "/vetrine", "/login", "/register", "/logout", "/error").permitAll()
                         // Actuator
@@ -33,9 +35,6 @@ public class SecurityConfig {
                         // Everything else requires authentication
                         .anyRequest().authenticated()
                 )
-                // Disable Spring's default login page
-                .oauth2Login(oauth2 -> oauth2.disable())
-
                 .logout(logout -> logout.disable())
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
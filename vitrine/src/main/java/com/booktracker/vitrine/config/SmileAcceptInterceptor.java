@@ -0,0 +1,37 @@
+package com.booktracker.vitrine.config;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Prefers the Smile binary encoding for calls to book-service.
+ * JSON stays acceptable with a lower quality so an older book-service keeps working.
+ */
+public class SmileAcceptInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final MediaType JSON_FALLBACK = MediaType.valueOf("application/json;q=0.9");
+
+    private final String bookServiceUrl;
+
+    public SmileAcceptInterceptor(String bookServiceUrl) {
+        this.bookServiceUrl = bookServiceUrl;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        List<MediaType> accept = request.getHeaders().getAccept();
+        if (request.getURI().toString().startsWith(bookServiceUrl)
+                && accept.stream().anyMatch(SMILE::isCompatibleWith)) {
+            request.getHeaders().setAccept(List.of(SMILE, JSON_FALLBACK));
+        }
+        return execution.execute(request, body);
+    }
+}
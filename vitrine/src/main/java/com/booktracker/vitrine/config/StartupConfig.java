@@ -0,0 +1,19 @@
+package com.booktracker.vitrine.config;
+
+import com.booktracker.vitrine.service.CoverCacheService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Under spring.main.lazy-initialization (fast-startup profile) the cover cache is still opened at
+ * startup, so the first /covers request does not wait for the cache directory to be indexed.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter coverCacheStaysEager() {
+        return LazyInitializationExcludeFilter.forBeanTypes(CoverCacheService.class);
+    }
+}
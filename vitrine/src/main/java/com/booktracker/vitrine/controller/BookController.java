@@ -1,8 +1,15 @@
 package com.booktracker.vitrine.controller;
 
+import com.booktracker.vitrine.dto.LibraryTitleDto;
+import com.booktracker.vitrine.dto.OpenLibraryDoc;
+import com.booktracker.vitrine.dto.OpenLibrarySearchResponse;
+import com.booktracker.vitrine.dto.RatingStatsDto;
+import com.booktracker.vitrine.dto.UserDto;
 import com.booktracker.vitrine.service.AITranslateService;
 import com.booktracker.vitrine.service.BookServiceClient;
 import com.booktracker.vitrine.service.BookSummaryFlaskService;
+import com.booktracker.vitrine.service.DashboardFragmentCache;
+import com.booktracker.vitrine.service.LibraryMembershipService;
 import com.booktracker.vitrine.util.JwtUtil;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,11 +21,13 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Controller
 public class BookController {
@@ -26,6 +35,7 @@ public class BookController {
     private final BookServiceClient bookService;
     private final AITranslateService aiTranslateService;
     private final BookSummaryFlaskService bookSummaryFlaskService;
+    private final LibraryMembershipService libraryMembershipService;
 
     @Autowired
     private RestTemplate restTemplate;
@@ -33,17 +43,25 @@ public class BookController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private DashboardFragmentCache fragmentCache;
+
     @Value("${book.service.url}")
     private String bookServiceUrl;
 
     @Value("${ai.service.url}")
     private String aiServiceUrl;
 
+    @Value("${openlibrary.url}")
+    private String openLibraryUrl;
+
     public BookController(BookServiceClient bookService, AITranslateService aiTranslateService,
-                          BookSummaryFlaskService bookSummaryFlaskService) {
+                          BookSummaryFlaskService bookSummaryFlaskService,
+                          LibraryMembershipService libraryMembershipService) {
         this.bookService = bookService;
         this.aiTranslateService = aiTranslateService;
         this.bookSummaryFlaskService = bookSummaryFlaskService;
+        this.libraryMembershipService = libraryMembershipService;
     }
 
     @GetMapping({"/", "/home"})
@@ -70,8 +88,8 @@ public class BookController {
             String email = jwtUtil.extractEmail(token);
             String username = jwtUtil.extractUsername(token);
 
-            Map<String, Object> user = findOrCreateUser(token, keycloakSubject, email, username);
-            userId = Long.valueOf(user.get("id").toString());
+            UserDto user = findOrCreateUser(token, keycloakSubject, email, username);
+            userId = user.getId();
             model.addAttribute("userId", userId);
             model.addAttribute("user", user);
 
@@ -85,14 +103,15 @@ public class BookController {
                 searchQuery = genre;
             }
 
-            String url = "https://openlibrary.org/search.json?q=" + searchQuery +
+            String url = openLibraryUrl + "/search.json?q=" + searchQuery +
                     "&page=" + page + "&limit=" + size;
 
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+            ResponseEntity<OpenLibrarySearchResponse> response =
+                    restTemplate.getForEntity(url, OpenLibrarySearchResponse.class);
 
             if (response.getBody() != null) {
-                List<Map<String, Object>> books = (List<Map<String, Object>>) response.getBody().get("docs");
-                int numFound = (Integer) response.getBody().getOrDefault("numFound", 0);
+                List<OpenLibraryDoc> books = response.getBody().getDocs();
+                int numFound = response.getBody().getNumFound();
 
                 model.addAttribute("books", books);
                 model.addAttribute("query", q);
@@ -127,8 +146,8 @@ public class BookController {
             String email = jwtUtil.extractEmail(token);
             String username = jwtUtil.extractUsername(token);
 
-            Map<String, Object> user = findOrCreateUser(token, keycloakSubject, email, username);
-            Long userId = Long.valueOf(user.get("id").toString());
+            UserDto user = findOrCreateUser(token, keycloakSubject, email, username);
+            Long userId = user.getId();
 
             List<Map<String, Object>> libraryData = getUserLibraryTitlesWithSourceInternal(token, userId);
             List<String> apiBookTitles = libraryData.stream()
@@ -170,12 +189,12 @@ public class BookController {
 
         if (query != null && !query.isEmpty()) {
             try {
-                String url = "https://openlibrary.org/search.json?q=" + query + "&limit=20";
-                ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
+                String url = openLibraryUrl + "/search.json?q=" + query + "&limit=20";
+                ResponseEntity<OpenLibrarySearchResponse> response =
+                        restTemplate.getForEntity(url, OpenLibrarySearchResponse.class);
 
                 if (response.getBody() != null) {
-                    List<Map<String, Object>> books = (List<Map<String, Object>>) response.getBody().get("docs");
-                    model.addAttribute("books", books);
+                    model.addAttribute("books", response.getBody().getDocs());
                 }
             } catch (Exception e) {
                 System.err.println("Error searching books: " + e.getMessage());
@@ -201,24 +220,22 @@ public class BookController {
             String email = jwtUtil.extractEmail(token);
             String username = jwtUtil.extractUsername(token);
 
-            Map<String, Object> user = findOrCreateUser(token, keycloakSubject, email, username);
-            Long userId = Long.valueOf(user.get("id").toString());
+            UserDto user = findOrCreateUser(token, keycloakSubject, email, username);
+            Long userId = user.getId();
 
             ratingData.put("userId", userId);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(token);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(ratingData, headers);
+            // One key per rating attempt, made by the browser when the rating is picked and sent again with
+            // every resubmit; book-service then applies the attempt once however often it arrives
+            String idempotencyKey = request.getHeader("Idempotency-Key");
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                return Map.of("success", false, "message", "Missing Idempotency-Key");
+            }
 
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                    bookServiceUrl + "/api/v1/ratings",
-                    entity,
-                    Map.class
-            );
+            ResponseEntity<Map> response = bookService.rateBook(ratingData, token, idempotencyKey);
 
             if (response.getStatusCode().is2xxSuccessful()) {
+                fragmentCache.invalidate(keycloakSubject);
                 return Map.of("success", true, "data", response.getBody());
             }
             return Map.of("success", false, "message", "Failed to save rating");
@@ -231,51 +248,51 @@ public class BookController {
 
     @GetMapping("/api/ratings/books/{bookId}")
     @ResponseBody
-    public Map<String, Object> getBookRating(@PathVariable Long bookId, HttpServletRequest request) {
+    public RatingStatsDto getBookRating(@PathVariable Long bookId, HttpServletRequest request) {
+        RatingStatsDto stats = fetchRatingStats(List.of(bookId), request).get(bookId);
+        return stats != null ? stats : new RatingStatsDto();
+    }
+
+    // Rating stats and the caller's rating for a whole grid in one book-service call
+    @GetMapping("/api/ratings/books")
+    @ResponseBody
+    public Map<Long, RatingStatsDto> getBookRatings(@RequestParam("ids") List<Long> bookIds,
+                                                    HttpServletRequest request) {
+        return fetchRatingStats(bookIds, request);
+    }
+
+    private Map<Long, RatingStatsDto> fetchRatingStats(List<Long> bookIds, HttpServletRequest request) {
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
         String token = extractTokenFromCookie(request);
 
         try {
             HttpHeaders headers = new HttpHeaders();
-            if (token != null) {
-                headers.setBearerAuth(token);
-            }
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> statsResponse = restTemplate.exchange(
-                    bookServiceUrl + "/api/v1/ratings/book/" + bookId + "/stats",
-                    HttpMethod.GET,
-                    entity,
-                    Map.class
-            );
-
-            Map<String, Object> result = new HashMap<>();
-            if (statsResponse.getBody() != null) {
-                result.putAll(statsResponse.getBody());
-            }
+            UriComponentsBuilder url = UriComponentsBuilder
+                    .fromHttpUrl(bookServiceUrl + "/api/v1/ratings/books/stats")
+                    .queryParam("ids", bookIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
 
             if (token != null && jwtUtil.validateToken(token)) {
+                headers.setBearerAuth(token);
                 String keycloakSubject = jwtUtil.extractSubject(token);
                 String email = jwtUtil.extractEmail(token);
                 String username = jwtUtil.extractUsername(token);
-                Map<String, Object> user = findOrCreateUser(token, keycloakSubject, email, username);
-                Long userId = Long.valueOf(user.get("id").toString());
-
-                ResponseEntity<Map> userRatingResponse = restTemplate.exchange(
-                        bookServiceUrl + "/api/v1/ratings/user/" + userId + "/book/" + bookId,
-                        HttpMethod.GET,
-                        entity,
-                        Map.class
-                );
-
-                if (userRatingResponse.getBody() != null) {
-                    result.put("userRating", userRatingResponse.getBody());
-                }
+                UserDto user = findOrCreateUser(token, keycloakSubject, email, username);
+                url.queryParam("userId", user.getId());
             }
 
-            return result;
+            ResponseEntity<Map<Long, RatingStatsDto>> response = restTemplate.exchange(
+                    url.toUriString(),
+                    HttpMethod.GET,
+                    new HttpEntity<Void>(headers),
+                    new ParameterizedTypeReference<>() {}
+            );
 
+            return response.getBody() != null ? response.getBody() : Map.of();
         } catch (Exception e) {
-            return Map.of("averageRating", 0, "totalRatings", 0);
+            System.err.println("Error fetching rating stats: " + e.getMessage());
+            return Map.of();
         }
     }
 
@@ -288,33 +305,9 @@ public class BookController {
         }
 
         try {
-            String keycloakSubject = jwtUtil.extractSubject(token);
-            String email = jwtUtil.extractEmail(token);
-            String username = jwtUtil.extractUsername(token);
-
-            Map<String, Object> user = findOrCreateUser(token, keycloakSubject, email, username);
-            Long userId = Long.valueOf(user.get("id").toString());
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                    bookServiceUrl + "/api/v1/library/users/" + userId,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<>() {}
-            );
-
-            if (response.getBody() != null) {
-                return response.getBody().stream()
-                        .filter(item -> item.get("book") != null)
-                        .map(item -> {
-                            Map<String, Object> book = (Map<String, Object>) item.get("book");
-                            return (String) book.get("title");
-                        })
-                        .toList();
-            }
+            return getLibraryMembership(token).getEntries().stream()
+                    .map(LibraryTitleDto::getTitle)
+                    .toList();
         } catch (Exception e) {
             System.err.println("Error fetching library titles: " + e.getMessage());
         }
@@ -390,37 +383,9 @@ public class BookController {
         }
 
         try {
-            String keycloakSubject = jwtUtil.extractSubject(token);
-            String email = jwtUtil.extractEmail(token);
-            String username = jwtUtil.extractUsername(token);
-
-            Map<String, Object> user = findOrCreateUser(token, keycloakSubject, email, username);
-            Long userId = Long.valueOf(user.get("id").toString());
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                    bookServiceUrl + "/api/v1/library/users/" + userId,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<>() {}
-            );
-
-            if (response.getBody() != null) {
-                return response.getBody().stream()
-                        .filter(item -> item.get("book") != null)
-                        .map(item -> {
-                            Map<String, Object> book = (Map<String, Object>) item.get("book");
-                            Map<String, Object> result = new HashMap<>();
-                            result.put("title", book.get("title"));
-                            String coverUrl = (String) book.get("coverUrl");
-                            result.put("source", (coverUrl != null && !coverUrl.isEmpty()) ? "api" : "manual");
-                            return result;
-                        })
-                        .toList();
-            }
+            return getLibraryMembership(token).getEntries().stream()
+                    .map(this::toTitleWithSource)
+                    .toList();
         } catch (Exception e) {
             System.err.println("Error fetching library titles with source: " + e.getMessage());
         }
@@ -432,36 +397,33 @@ public class BookController {
             return List.of();
         }
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                    bookServiceUrl + "/api/v1/library/users/" + userId,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<>() {}
-            );
-
-            if (response.getBody() != null) {
-                return response.getBody().stream()
-                        .filter(item -> item.get("book") != null)
-                        .map(item -> {
-                            Map<String, Object> book = (Map<String, Object>) item.get("book");
-                            Map<String, Object> result = new HashMap<>();
-                            result.put("title", (String) book.get("title"));
-                            String coverUrl = (String) book.get("coverUrl");
-                            result.put("source", (coverUrl != null && !coverUrl.isEmpty()) ? "api" : "manual");
-                            return result;
-                        })
-                        .toList();
-            }
+            return libraryMembershipService.getMembership(jwtUtil.extractSubject(token), token, () -> userId)
+                    .getEntries().stream()
+                    .map(this::toTitleWithSource)
+                    .toList();
         } catch (Exception e) {
             System.err.println("Error fetching library with source tracking: " + e.getMessage());
         }
         return List.of();
     }
 
+    // Cached per user; only a cache miss resolves the user id and calls book-service
+    private LibraryMembershipService.LibraryMembership getLibraryMembership(String token) {
+        String keycloakSubject = jwtUtil.extractSubject(token);
+        return libraryMembershipService.getMembership(keycloakSubject, token, () -> {
+            String email = jwtUtil.extractEmail(token);
+            String username = jwtUtil.extractUsername(token);
+            return findOrCreateUser(token, keycloakSubject, email, username).getId();
+        });
+    }
+
+    private Map<String, Object> toTitleWithSource(LibraryTitleDto item) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("title", item.getTitle());
+        result.put("source", item.getSource());
+        return result;
+    }
+
     private boolean isUserLoggedIn(HttpServletRequest request) {
         if (request.getCookies() != null) {
             for (Cookie cookie : request.getCookies()) {
@@ -485,7 +447,7 @@ public class BookController {
         return null;
     }
 
-    private Map<String, Object> findOrCreateUser(String token, String keycloakId, String email, String name) {
+    private UserDto findOrCreateUser(String token, String keycloakId, String email, String name) {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(token);
@@ -498,16 +460,12 @@ public class BookController {
             body.put("name", name != null ? name : email.split("@")[0]);
 
             HttpEntity<Map<String, String>> request = new HttpEntity<>(body, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
+            ResponseEntity<UserDto> response = restTemplate.postForEntity(url, request, UserDto.class);
 
             return response.getBody();
         } catch (Exception e) {
             e.printStackTrace();
-            Map<String, Object> user = new HashMap<>();
-            user.put("id", (long) keycloakId.hashCode());
-            user.put("email", email);
-            user.put("name", name);
-            return user;
+            return new UserDto((long) keycloakId.hashCode(), name, email, null);
         }
     }
 
@@ -0,0 +1,75 @@
+package com.booktracker.vitrine.controller;
+
+import com.booktracker.vitrine.service.CoverCacheService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves Open Library covers from the local disk cache, so catalog pages never hotlink
+ * covers.openlibrary.org. A cover id and size never change content, hence the year-long
+ * immutable caching; the content hash is the ETag.
+ */
+@Controller
+public class CoverController {
+
+    private static final String CACHE_FOREVER = "public, max-age=31536000, immutable";
+
+    @Autowired
+    private CoverCacheService coverCacheService;
+
+    @GetMapping("/covers/{coverId:\\d+}-{size:[SML]}")
+    public void cover(@PathVariable long coverId, @PathVariable String size,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CoverCacheService.CoverFile cover;
+        try {
+            cover = coverCacheService.getCover(coverId, CoverCacheService.Size.valueOf(size));
+        } catch (IOException e) {
+            System.err.println("Error loading cover " + coverId + "-" + size + ": " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY);
+            return;
+        }
+        if (cover == null) {
+            // Missing covers stay missing for a while; spares the origin on every catalog page
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=86400");
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + cover.getHash() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_FOREVER);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(cover.getContentType());
+        response.setContentLengthLong(cover.getSize());
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Tomcat's NIO connector sends the file with sendfile(2) once this method returns
+            request.setAttribute("org.apache.tomcat.sendfile.filename", cover.getPath().toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", cover.getSize());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(cover.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < cover.getSize()) {
+                position += channel.transferTo(position, cover.getSize() - position, out);
+            }
+        }
+    }
+}
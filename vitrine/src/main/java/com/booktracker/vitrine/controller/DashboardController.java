@@ -1,6 +1,17 @@
 package com.booktracker.vitrine.controller;
 
+import com.booktracker.vitrine.dto.BookDto;
+import com.booktracker.vitrine.dto.LibraryEntryDto;
+import com.booktracker.vitrine.dto.RatingDto;
+import com.booktracker.vitrine.dto.UserDto;
+import com.booktracker.vitrine.dto.UserStatsDto;
+import com.booktracker.vitrine.service.BookEnrichmentWorker;
+import com.booktracker.vitrine.service.BookServiceClient;
+import com.booktracker.vitrine.service.DashboardEventRelay;
+import com.booktracker.vitrine.service.DashboardFragmentCache;
+import com.booktracker.vitrine.service.LibraryMembershipService;
 import com.booktracker.vitrine.util.JwtUtil;
+import com.booktracker.vitrine.util.LongIntMap;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +22,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
 
@@ -23,6 +35,21 @@ public class DashboardController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private LibraryMembershipService libraryMembershipService;
+
+    @Autowired
+    private DashboardEventRelay dashboardEventRelay;
+
+    @Autowired
+    private DashboardFragmentCache fragmentCache;
+
+    @Autowired
+    private BookEnrichmentWorker enrichmentWorker;
+
+    @Autowired
+    private BookServiceClient bookServiceClient;
+
     @Value("${book.service.url}")
     private String bookServiceUrl;
 
@@ -38,29 +65,72 @@ public class DashboardController {
         String email = jwtUtil.extractEmail(token);
         String keycloakSubject = jwtUtil.extractSubject(token);
 
-        Map<String, Object> user = findOrCreateUser(token, keycloakSubject, email, username);
-        Long userId = Long.valueOf(user.get("id").toString());
-
+        UserDto user = findOrCreateUser(token, keycloakSubject, email, username);
         model.addAttribute("user", user);
 
-        try {
-            List<Map<String, Object>> userLibrary = fetchUserLibrary(token, userId);
-            List<Map<String, Object>> enrichedLibrary = enrichLibraryData(userLibrary, token, userId);
-            model.addAttribute("userBooks", enrichedLibrary);
+        // Only the shell is rendered here; panels not cached yet are loaded by the page
+        model.addAttribute("statsHtml", fragmentCache.getIfCached(keycloakSubject, DashboardFragmentCache.STATS));
+        model.addAttribute("libraryHtml", fragmentCache.getIfCached(keycloakSubject, DashboardFragmentCache.LIBRARY));
 
-            Map<String, Object> stats = fetchUserStats(token, userId);
+        return "dashboard";
+    }
+
+    // Stats panel and library grid, rendered once per user and then served from the fragment cache
+    @GetMapping(value = "/dashboard/fragments/{panel}", produces = MediaType.TEXT_HTML_VALUE)
+    @ResponseBody
+    public ResponseEntity<String> fragment(@PathVariable String panel, HttpServletRequest request) {
+        String token = extractTokenFromCookie(request);
+        if (token == null || !jwtUtil.validateToken(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
 
-            List<Map<String, Object>> userRatings = fetchUserRatings(token, userId);
-            stats.put("totalRatings", userRatings != null ? userRatings.size() : 0);
+        String fragment = switch (panel) {
+            case "stats" -> DashboardFragmentCache.STATS;
+            case "library" -> DashboardFragmentCache.LIBRARY;
+            default -> null;
+        };
+        if (fragment == null) {
+            return ResponseEntity.notFound().build();
+        }
 
-            model.addAttribute("stats", stats);
+        String keycloakSubject = jwtUtil.extractSubject(token);
+        try {
+            String html = fragmentCache.getOrRender(keycloakSubject, fragment, () -> {
+                UserDto user = findOrCreateUser(token, keycloakSubject,
+                        jwtUtil.extractEmail(token), jwtUtil.extractUsername(token));
+                return panelModel(token, user.getId(), fragment);
+            });
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(html);
         } catch (Exception e) {
-            System.err.println("Error: " + e.getMessage());
-            model.addAttribute("userBooks", List.of());
-            model.addAttribute("stats", createEmptyStats());
+            System.err.println("Error rendering dashboard " + panel + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
         }
+    }
 
-        return "dashboard";
+    private Map<String, Object> panelModel(String token, Long userId, String fragment) {
+        List<RatingDto> userRatings = fetchUserRatings(token, userId);
+        if (DashboardFragmentCache.STATS.equals(fragment)) {
+            UserStatsDto stats = fetchUserStats(token, userId);
+            stats.setTotalRatings(userRatings.size());
+            return Map.of("stats", stats);
+        }
+        List<LibraryEntryDto> userLibrary = fetchUserLibrary(token, userId);
+        enrichLibraryData(userLibrary, userRatings);
+        return Map.of("userBooks", userLibrary);
+    }
+
+    // Live library, progress and rating changes for the open dashboard (Server-Sent Events)
+    @GetMapping(value = "/dashboard/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> events(HttpServletRequest request) {
+        String token = extractTokenFromCookie(request);
+        if (token == null || !jwtUtil.validateToken(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        UserDto user = findOrCreateUser(token, jwtUtil.extractSubject(token),
+                jwtUtil.extractEmail(token), jwtUtil.extractUsername(token));
+        return ResponseEntity.ok(dashboardEventRelay.subscribe(user.getId(), token));
     }
 
     @PostMapping("/dashboard/rate-book")
@@ -77,24 +147,22 @@ public class DashboardController {
             String email = jwtUtil.extractEmail(token);
             String username = jwtUtil.extractUsername(token);
 
-            Map<String, Object> user = findOrCreateUser(token, keycloakSubject, email, username);
-            Long userId = Long.valueOf(user.get("id").toString());
+            UserDto user = findOrCreateUser(token, keycloakSubject, email, username);
+            Long userId = user.getId();
 
             ratingData.put("userId", userId);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(token);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(ratingData, headers);
+            // One key per rating attempt, made by the browser when the rating is picked and sent again with
+            // every resubmit; book-service then applies the attempt once however often it arrives
+            String idempotencyKey = request.getHeader("Idempotency-Key");
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                return Map.of("success", false, "message", "Missing Idempotency-Key");
+            }
 
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                    bookServiceUrl + "/api/v1/ratings",
-                    entity,
-                    Map.class
-            );
+            ResponseEntity<Map> response = bookServiceClient.rateBook(ratingData, token, idempotencyKey);
 
             if (response.getStatusCode().is2xxSuccessful()) {
+                fragmentCache.invalidate(keycloakSubject);
                 return Map.of("success", true, "data", response.getBody());
             }
             return Map.of("success", false, "message", "Failed to save rating");
@@ -130,6 +198,7 @@ public class DashboardController {
                     entity,
                     Map.class
             );
+            fragmentCache.invalidate(jwtUtil.extractSubject(token));
 
             return Map.of("success", true, "data", response.getBody());
         } catch (Exception e) {
@@ -163,6 +232,7 @@ public class DashboardController {
                     entity,
                     Map.class
             );
+            fragmentCache.invalidate(jwtUtil.extractSubject(token));
 
             return Map.of("success", true, "data", response.getBody());
         } catch (Exception e) {
@@ -171,7 +241,7 @@ public class DashboardController {
         }
     }
 
-    private Map<String, Object> findOrCreateUser(String token, String keycloakId, String email, String name) {
+    private UserDto findOrCreateUser(String token, String keycloakId, String email, String name) {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(token);
@@ -184,16 +254,12 @@ public class DashboardController {
             body.put("name", name != null ? name : email.split("@")[0]);
 
             HttpEntity<Map<String, String>> request = new HttpEntity<>(body, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
+            ResponseEntity<UserDto> response = restTemplate.postForEntity(url, request, UserDto.class);
 
             return response.getBody();
         } catch (Exception e) {
             e.printStackTrace();
-            Map<String, Object> user = new HashMap<>();
-            user.put("id", (long) keycloakId.hashCode());
-            user.put("email", email);
-            user.put("name", name);
-            return user;
+            return new UserDto((long) keycloakId.hashCode(), name, email, null);
         }
     }
 
@@ -208,139 +274,62 @@ public class DashboardController {
         return null;
     }
 
-    private List<Map<String, Object>> fetchUserLibrary(String token, Long userId) {
-        try {
-            String url = bookServiceUrl + "/api/v1/library/users/" + userId;
+    // The panel fetches let failures propagate, so an empty panel from an outage is never cached
+    private List<LibraryEntryDto> fetchUserLibrary(String token, Long userId) {
+        String url = bookServiceUrl + "/api/v1/library/users/" + userId;
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<List<Map<String, Object>>> resp = restTemplate.exchange(
-                    url, HttpMethod.GET, entity,
-                    new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-            );
+        ResponseEntity<List<LibraryEntryDto>> resp = restTemplate.exchange(
+                url, HttpMethod.GET, entity,
+                new ParameterizedTypeReference<List<LibraryEntryDto>>() {}
+        );
 
-            return resp.getBody() != null ? resp.getBody() : List.of();
-        } catch (Exception e) {
-            System.err.println("Error fetching library: " + e.getMessage());
-            return List.of();
-        }
+        return resp.getBody() != null ? resp.getBody() : List.of();
     }
 
-    private List<Map<String, Object>> fetchUserRatings(String token, Long userId) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
+    private List<RatingDto> fetchUserRatings(String token, Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<List<Map<String, Object>>> resp = restTemplate.exchange(
-                    bookServiceUrl + "/api/v1/ratings/users/" + userId,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-            );
+        ResponseEntity<List<RatingDto>> resp = restTemplate.exchange(
+                bookServiceUrl + "/api/v1/ratings/users/" + userId,
+                HttpMethod.GET,
+                entity,
+                new ParameterizedTypeReference<List<RatingDto>>() {}
+        );
 
-            return resp.getBody();
-        } catch (Exception e) {
-            System.err.println("Error fetching ratings: " + e.getMessage());
-            return List.of();
-        }
+        return resp.getBody() != null ? resp.getBody() : List.of();
     }
 
-    private Map<String, Object> fetchUserStats(String token, Long userId) {
-        try {
-            String url = bookServiceUrl + "/api/v1/library/users/" + userId + "/stats";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
+    private UserStatsDto fetchUserStats(String token, Long userId) {
+        String url = bookServiceUrl + "/api/v1/library/users/" + userId + "/stats";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<Map> resp = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-            if (resp.getStatusCode().is2xxSuccessful() && resp.getBody() != null) {
-                Map<String, Object> body = resp.getBody();
-                if (body.containsKey("stats")) {
-                    return new HashMap<>((Map<String, Object>) body.get("stats"));
-                }
-                return new HashMap<>(body);
-            }
-            return createEmptyStats();
-        } catch (Exception e) {
-            System.err.println("Error fetching stats: " + e.getMessage());
-            return createEmptyStats();
-        }
+        ResponseEntity<UserStatsDto> resp = restTemplate.exchange(url, HttpMethod.GET, entity, UserStatsDto.class);
+        return resp.getBody() != null ? resp.getBody() : new UserStatsDto();
     }
 
-    private List<Map<String, Object>> enrichLibraryData(List<Map<String, Object>> libraryData,
-                                                        String token, Long userId) {
-        Map<Long, Integer> bookRatings = new HashMap<>();
-        try {
-            List<Map<String, Object>> ratings = fetchUserRatings(token, userId);
-            if (ratings != null) {
-                for (Map<String, Object> rating : ratings) {
-                    if (rating.get("book") != null) {
-                        Map<String, Object> book = (Map<String, Object>) rating.get("book");
-                        Long bookId = Long.valueOf(book.get("id").toString());
-                        Integer ratingValue = Integer.valueOf(rating.get("rating").toString());
-                        bookRatings.put(bookId, ratingValue);
-                    }
-                }
+    // Sets each entry's userRating in place; the template reads everything else straight off the DTOs
+    private void enrichLibraryData(List<LibraryEntryDto> libraryData, List<RatingDto> ratings) {
+        LongIntMap bookRatings = new LongIntMap(ratings.size());
+        for (RatingDto rating : ratings) {
+            if (rating.getBook() != null && rating.getBook().getId() != null && rating.getRating() != null) {
+                bookRatings.put(rating.getBook().getId(), rating.getRating());
             }
-        } catch (Exception e) {
-            System.err.println("Error fetching user ratings: " + e.getMessage());
         }
 
-        List<Map<String, Object>> enriched = new ArrayList<>();
-        for (Map<String, Object> item : libraryData) {
-            Map<String, Object> enrichedItem = new HashMap<>(item);
-
-            Object libraryId = item.get("id");
-            enrichedItem.put("libraryId", libraryId);
-
-            if (item.containsKey("book") && item.get("book") != null) {
-                Map<String, Object> book = (Map<String, Object>) item.get("book");
-                enrichedItem.put("title", book.get("title"));
-                enrichedItem.put("author", book.get("author"));
-                enrichedItem.put("coverUrl", book.get("coverUrl"));
-                enrichedItem.put("totalPages", book.get("totalPages"));
-                enrichedItem.put("bookId", book.get("id"));
-
-                Long bookId = Long.valueOf(book.get("id").toString());
-                enrichedItem.put("userRating", bookRatings.getOrDefault(bookId, 0));
-            }
-
-            if (item.containsKey("status")) {
-                enrichedItem.put("statusDisplay", getStatusDisplay(item.get("status").toString()));
-            }
-
-            if (item.containsKey("readingProgress") && item.get("readingProgress") != null) {
-                Map<String, Object> progress = (Map<String, Object>) item.get("readingProgress");
-                enrichedItem.putAll(progress);
+        for (LibraryEntryDto item : libraryData) {
+            Long bookId = item.getBookId();
+            if (bookId != null) {
+                item.setUserRating(bookRatings.getOrDefault(bookId, 0));
             }
-
-            enriched.add(enrichedItem);
         }
-        return enriched;
-    }
-
-    private String getStatusDisplay(String status) {
-        return switch (status) {
-            case "TO_READ" -> "To Read";
-            case "READING" -> "Reading";
-            case "COMPLETED" -> "Completed";
-            case "ON_HOLD" -> "On Hold";
-            case "DROPPED" -> "Dropped";
-            default -> status;
-        };
-    }
-
-    private Map<String, Object> createEmptyStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalBooks", 0);
-        stats.put("readingBooks", 0);
-        stats.put("completedBooks", 0);
-        stats.put("toReadBooks", 0);
-        stats.put("totalRatings", 0);
-        return stats;
     }
 
     @PostMapping("/dashboard/add-book")
@@ -356,25 +345,31 @@ public class DashboardController {
         String username = jwtUtil.extractUsername(token);
 
         try {
-            Map<String, Object> user = findOrCreateUser(token, keycloakSubject, email, username);
-            Long userId = Long.valueOf(user.get("id").toString());
+            UserDto user = findOrCreateUser(token, keycloakSubject, email, username);
+            Long userId = user.getId();
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
             headers.setBearerAuth(token);
 
+            // Get-or-create: a book with the same Open Library key or ISBN comes back as it is
             HttpEntity<Map<String, Object>> createRequest = new HttpEntity<>(bookData, headers);
-            ResponseEntity<Map> createResp = restTemplate.postForEntity(
+            ResponseEntity<BookDto> createResp = restTemplate.postForEntity(
                     bookServiceUrl + "/api/v1/books",
                     createRequest,
-                    Map.class
+                    BookDto.class
             );
 
             if (!createResp.getStatusCode().is2xxSuccessful() || createResp.getBody() == null) {
                 return Map.of("success", false, "message", "Failed to create book");
             }
 
-            Long bookId = Long.valueOf(createResp.getBody().get("id").toString());
+            BookDto book = createResp.getBody();
+            Long bookId = book.getId();
+            // Description, page count and publisher are looked up in the background
+            if (book.getEnrichedAt() == null && book.getOpenLibraryKey() != null) {
+                enrichmentWorker.submit(bookId, book.getOpenLibraryKey());
+            }
 
             Map<String, Object> libPayload = new HashMap<>();
             libPayload.put("userId", userId);
@@ -388,7 +383,12 @@ public class DashboardController {
                     Map.class
             );
 
-            if (libResp.getStatusCode().is2xxSuccessful()) {
+            libraryMembershipService.invalidate(keycloakSubject);
+            fragmentCache.invalidate(keycloakSubject);
+
+            if (libResp.getStatusCode() == HttpStatus.OK) {
+                return Map.of("success", true, "message", "Already in your library", "bookId", bookId);
+            } else if (libResp.getStatusCode().is2xxSuccessful()) {
                 return Map.of("success", true, "message", "Book added", "bookId", bookId);
             } else {
                 return Map.of("success", false, "message", "Failed to add to library");
@@ -417,6 +417,9 @@ public class DashboardController {
                     entity,
                     Void.class
             );
+            String keycloakSubject = jwtUtil.extractSubject(token);
+            libraryMembershipService.invalidate(keycloakSubject);
+            fragmentCache.invalidate(keycloakSubject);
             return Map.of("success", true);
         } catch (Exception e) {
             return Map.of("success", false, "message", e.getMessage());
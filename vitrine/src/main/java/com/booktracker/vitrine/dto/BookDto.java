@@ -1,13 +1,19 @@
 package com.booktracker.vitrine.dto;
 
-
+import java.time.LocalDateTime;
 
 public class BookDto {
     private Long id;
     private String title;
     private String author;
-    private String image;
-    private double price;
+    private String coverUrl;
+    private String isbn;
+    private String description;
+    private Integer publishYear;
+    private String publisher;
+    private Integer totalPages;
+    private String openLibraryKey;
+    private LocalDateTime enrichedAt;
 
     public BookDto() {}
     // getters & setters
@@ -17,8 +23,20 @@ public class BookDto {
     public void setTitle(String title) { this.title = title; }
     public String getAuthor() { return author; }
     public void setAuthor(String author) { this.author = author; }
-    public String getImage() { return image; }
-    public void setImage(String image) { this.image = image; }
-    public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
+    public String getCoverUrl() { return coverUrl; }
+    public void setCoverUrl(String coverUrl) { this.coverUrl = coverUrl; }
+    public String getIsbn() { return isbn; }
+    public void setIsbn(String isbn) { this.isbn = isbn; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Integer getPublishYear() { return publishYear; }
+    public void setPublishYear(Integer publishYear) { this.publishYear = publishYear; }
+    public String getPublisher() { return publisher; }
+    public void setPublisher(String publisher) { this.publisher = publisher; }
+    public Integer getTotalPages() { return totalPages; }
+    public void setTotalPages(Integer totalPages) { this.totalPages = totalPages; }
+    public String getOpenLibraryKey() { return openLibraryKey; }
+    public void setOpenLibraryKey(String openLibraryKey) { this.openLibraryKey = openLibraryKey; }
+    public LocalDateTime getEnrichedAt() { return enrichedAt; }
+    public void setEnrichedAt(LocalDateTime enrichedAt) { this.enrichedAt = enrichedAt; }
 }
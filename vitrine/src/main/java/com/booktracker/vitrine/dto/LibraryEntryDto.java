@@ -0,0 +1,61 @@
+package com.booktracker.vitrine.dto;
+
+import com.booktracker.vitrine.util.CoverUrls;
+
+import java.time.LocalDateTime;
+
+public class LibraryEntryDto {
+    private Long id;
+    private UserDto user;
+    private BookDto book;
+    private String status;
+    private ReadingProgressDto readingProgress;
+    private LocalDateTime addedAt;
+    // Filled in by vitrine from the user's ratings, not part of the book-service payload
+    private int userRating;
+
+    public LibraryEntryDto() {}
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public UserDto getUser() { return user; }
+    public void setUser(UserDto user) { this.user = user; }
+    public BookDto getBook() { return book; }
+    public void setBook(BookDto book) { this.book = book; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public ReadingProgressDto getReadingProgress() { return readingProgress; }
+    public void setReadingProgress(ReadingProgressDto readingProgress) { this.readingProgress = readingProgress; }
+    public LocalDateTime getAddedAt() { return addedAt; }
+    public void setAddedAt(LocalDateTime addedAt) { this.addedAt = addedAt; }
+    public int getUserRating() { return userRating; }
+    public void setUserRating(int userRating) { this.userRating = userRating; }
+
+    // Flattened accessors used by the dashboard template
+    public Long getLibraryId() { return id; }
+    public Long getBookId() { return book != null ? book.getId() : null; }
+    public String getTitle() { return book != null ? book.getTitle() : null; }
+    public String getAuthor() { return book != null ? book.getAuthor() : null; }
+    public String getCoverUrl() { return book != null ? book.getCoverUrl() : null; }
+    public String getCoverSrc() { return CoverUrls.proxied(getCoverUrl()); }
+    public Integer getTotalPages() {
+        if (readingProgress != null && readingProgress.getTotalPages() != null) {
+            return readingProgress.getTotalPages();
+        }
+        return book != null ? book.getTotalPages() : null;
+    }
+    public Integer getCurrentPage() { return readingProgress != null ? readingProgress.getCurrentPage() : null; }
+    public Double getProgressPercent() { return readingProgress != null ? readingProgress.getProgressPercent() : null; }
+    public String getNotes() { return readingProgress != null ? readingProgress.getNotes() : null; }
+    public String getStatusDisplay() {
+        if (status == null) return null;
+        return switch (status) {
+            case "TO_READ" -> "To Read";
+            case "READING" -> "Reading";
+            case "COMPLETED" -> "Completed";
+            case "ON_HOLD" -> "On Hold";
+            case "DROPPED" -> "Dropped";
+            default -> status;
+        };
+    }
+}
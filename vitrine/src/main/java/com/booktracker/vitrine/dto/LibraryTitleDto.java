@@ -0,0 +1,24 @@
+package com.booktracker.vitrine.dto;
+
+
+
+public class LibraryTitleDto {
+    private Long bookId;
+    private String title;
+    private String isbn;
+    private boolean hasCover;
+
+    public LibraryTitleDto() {}
+    // getters & setters
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getIsbn() { return isbn; }
+    public void setIsbn(String isbn) { this.isbn = isbn; }
+    public boolean isHasCover() { return hasCover; }
+    public void setHasCover(boolean hasCover) { this.hasCover = hasCover; }
+
+    // Books with an OpenLibrary cover were added from the catalog, the rest were typed in manually
+    public String getSource() { return hasCover ? "api" : "manual"; }
+}
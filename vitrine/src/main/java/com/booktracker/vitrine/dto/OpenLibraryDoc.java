@@ -0,0 +1,57 @@
+package com.booktracker.vitrine.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+// One entry of the "docs" array returned by openlibrary.org/search.json
+public class OpenLibraryDoc {
+    private String key;
+    private String title;
+    @JsonProperty("author_name")
+    private List<String> authorName;
+    @JsonProperty("cover_i")
+    private Long coverId;
+    @JsonProperty("first_publish_year")
+    private Integer firstPublishYear;
+    @JsonProperty("number_of_pages_median")
+    private Integer numberOfPagesMedian;
+    private List<String> isbn;
+    private List<String> publisher;
+    private List<String> subject;
+    @JsonProperty("first_sentence")
+    private List<String> firstSentence;
+
+    public OpenLibraryDoc() {}
+    // getters & setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public List<String> getAuthorName() { return authorName; }
+    public void setAuthorName(List<String> authorName) { this.authorName = authorName; }
+    public Long getCoverId() { return coverId; }
+    public void setCoverId(Long coverId) { this.coverId = coverId; }
+    public Integer getFirstPublishYear() { return firstPublishYear; }
+    public void setFirstPublishYear(Integer firstPublishYear) { this.firstPublishYear = firstPublishYear; }
+    public Integer getNumberOfPagesMedian() { return numberOfPagesMedian; }
+    public void setNumberOfPagesMedian(Integer numberOfPagesMedian) { this.numberOfPagesMedian = numberOfPagesMedian; }
+    public List<String> getIsbn() { return isbn; }
+    public void setIsbn(List<String> isbn) { this.isbn = isbn; }
+    public List<String> getPublisher() { return publisher; }
+    public void setPublisher(List<String> publisher) { this.publisher = publisher; }
+    public List<String> getSubject() { return subject; }
+    public void setSubject(List<String> subject) { this.subject = subject; }
+    public List<String> getFirstSentence() { return firstSentence; }
+    public void setFirstSentence(List<String> firstSentence) { this.firstSentence = firstSentence; }
+
+    // Convenience accessors for templates
+    public String getPrimaryAuthor() { return first(authorName, "Unknown Author"); }
+    public String getPrimaryIsbn() { return first(isbn, "Not available"); }
+    public String getPrimaryPublisher() { return first(publisher, "Not specified"); }
+    public String getDescription() { return first(firstSentence, "No description available"); }
+
+    private static String first(List<String> values, String fallback) {
+        return values != null && !values.isEmpty() ? values.get(0) : fallback;
+    }
+}
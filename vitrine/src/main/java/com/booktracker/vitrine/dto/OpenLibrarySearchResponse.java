@@ -0,0 +1,16 @@
+package com.booktracker.vitrine.dto;
+
+import java.util.List;
+
+// Body of openlibrary.org/search.json
+public class OpenLibrarySearchResponse {
+    private int numFound;
+    private List<OpenLibraryDoc> docs;
+
+    public OpenLibrarySearchResponse() {}
+    // getters & setters
+    public int getNumFound() { return numFound; }
+    public void setNumFound(int numFound) { this.numFound = numFound; }
+    public List<OpenLibraryDoc> getDocs() { return docs; }
+    public void setDocs(List<OpenLibraryDoc> docs) { this.docs = docs; }
+}
@@ -0,0 +1,21 @@
+package com.booktracker.vitrine.dto;
+
+import java.time.LocalDateTime;
+
+public class RatingDto {
+    private Long id;
+    private BookDto book;
+    private Integer rating;
+    private LocalDateTime ratedAt;
+
+    public RatingDto() {}
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public BookDto getBook() { return book; }
+    public void setBook(BookDto book) { this.book = book; }
+    public Integer getRating() { return rating; }
+    public void setRating(Integer rating) { this.rating = rating; }
+    public LocalDateTime getRatedAt() { return ratedAt; }
+    public void setRatedAt(LocalDateTime ratedAt) { this.ratedAt = ratedAt; }
+}
@@ -0,0 +1,18 @@
+package com.booktracker.vitrine.dto;
+
+
+
+public class RatingStatsDto {
+    private double averageRating;
+    private int totalRatings;
+    private int userRating;
+
+    public RatingStatsDto() {}
+    // getters & setters
+    public double getAverageRating() { return averageRating; }
+    public void setAverageRating(double averageRating) { this.averageRating = averageRating; }
+    public int getTotalRatings() { return totalRatings; }
+    public void setTotalRatings(int totalRatings) { this.totalRatings = totalRatings; }
+    public int getUserRating() { return userRating; }
+    public void setUserRating(int userRating) { this.userRating = userRating; }
+}
@@ -0,0 +1,24 @@
+package com.booktracker.vitrine.dto;
+
+
+
+public class UserStatsDto {
+    private long totalBooks;
+    private long readingBooks;
+    private long completedBooks;
+    private long toReadBooks;
+    private long totalRatings;
+
+    public UserStatsDto() {}
+    // getters & setters
+    public long getTotalBooks() { return totalBooks; }
+    public void setTotalBooks(long totalBooks) { this.totalBooks = totalBooks; }
+    public long getReadingBooks() { return readingBooks; }
+    public void setReadingBooks(long readingBooks) { this.readingBooks = readingBooks; }
+    public long getCompletedBooks() { return completedBooks; }
+    public void setCompletedBooks(long completedBooks) { this.completedBooks = completedBooks; }
+    public long getToReadBooks() { return toReadBooks; }
+    public void setToReadBooks(long toReadBooks) { this.toReadBooks = toReadBooks; }
+    public long getTotalRatings() { return totalRatings; }
+    public void setTotalRatings(long totalRatings) { this.totalRatings = totalRatings; }
+}
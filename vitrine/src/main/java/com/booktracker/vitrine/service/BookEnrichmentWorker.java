@@ -0,0 +1,163 @@
+package com.booktracker.vitrine.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up description, page count, publisher and ISBN of added books on Open Library, off the
+ * "add to library" click. Books are queued in memory and handled in batches: one search request
+ * for the page counts, publishers and ISBNs of the whole batch, then the work JSON of each book
+ * for its description, written back with PATCH /api/v1/books/{id}/enrichment.
+ * The queue is bounded and not persisted: a book left without details (full queue, restart,
+ * Open Library down) is queued again the next time someone adds it.
+ */
+@Service
+public class BookEnrichmentWorker {
+
+    private final OpenLibraryService openLibraryService;
+    private final RestTemplate restTemplate;
+
+    @Value("${book.service.url}")
+    private String bookServiceUrl;
+
+    @Value("${enrichment.batch-size:20}")
+    private int batchSize;
+
+    @Value("${enrichment.batch-window-ms:500}")
+    private long batchWindowMs;
+
+    @Value("${enrichment.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private record Job(Long bookId, String workKey) {
+    }
+
+    private BlockingQueue<Job> queue;
+    // Books queued or in progress: a book added by many users at once is looked up once
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private ExecutorService worker;
+
+    public BookEnrichmentWorker(OpenLibraryService openLibraryService, RestTemplate restTemplate) {
+        this.openLibraryService = openLibraryService;
+        this.restTemplate = restTemplate;
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-enrichment");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.submit(this::run);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // Queues a book; false when it is already queued or the queue is full
+    public boolean submit(Long bookId, String workKey) {
+        if (bookId == null || workKey == null || !pending.add(bookId)) {
+            return false;
+        }
+        if (!queue.offer(new Job(bookId, workKey))) {
+            pending.remove(bookId);
+            System.err.println("[ENRICH] Queue full, book " + bookId + " not queued");
+            return false;
+        }
+        return true;
+    }
+
+    private void run() {
+        List<Job> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                // Let a burst of clicks fill the batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindowMs);
+                while (batch.size() < batchSize) {
+                    Job job = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (job == null) {
+                        break;
+                    }
+                    batch.add(job);
+                }
+                enrich(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("[ENRICH] Batch failed: " + e.getMessage());
+            } finally {
+                batch.forEach(job -> pending.remove(job.bookId()));
+                batch.clear();
+            }
+        }
+    }
+
+    private void enrich(List<Job> batch) {
+        Map<String, Map<String, Object>> summaries = openLibraryService.getWorkSummaries(
+                batch.stream().map(Job::workKey).distinct().toList());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        int enriched = 0;
+        for (Job job : batch) {
+            Map<String, Object> summary = summaries.get(job.workKey());
+            Map<String, Object> work = openLibraryService.getBookDetails(job.workKey());
+            if (summary == null && work == null) {
+                // Unknown work or Open Library unreachable: left for the next add
+                continue;
+            }
+
+            Map<String, Object> details = new HashMap<>();
+            details.put("description", work != null ? description(work.get("description")) : null);
+            if (summary != null) {
+                details.put("totalPages", summary.get("number_of_pages_median"));
+                details.put("publisher", summary.get("publisher") instanceof List<?> publishers && !publishers.isEmpty()
+                        ? publishers.get(0) : null);
+                details.put("publishYear", summary.get("first_publish_year"));
+                details.put("isbn", summary.get("isbn") instanceof List<?> isbns && !isbns.isEmpty()
+                        ? isbns.get(0) : null);
+            }
+            try {
+                restTemplate.exchange(bookServiceUrl + "/api/v1/books/{id}/enrichment", HttpMethod.PATCH,
+                        new HttpEntity<>(details, headers), Void.class, job.bookId());
+                enriched++;
+            } catch (RestClientException e) {
+                System.err.println("[ENRICH] Book " + job.bookId() + " not updated: " + e.getMessage());
+            }
+        }
+        System.out.println("[ENRICH] " + enriched + "/" + batch.size() + " books enriched");
+    }
+
+    // A work description is either a string or {"type": "/type/text", "value": "..."}
+    private static String description(Object description) {
+        if (description instanceof Map<?, ?> text) {
+            description = text.get("value");
+        }
+        return description instanceof String value && !value.isBlank() ? value : null;
+    }
+}
@@ -1,5 +1,5 @@
-
 package com.booktracker.vitrine.service;
+import com.booktracker.vitrine.dto.BookDto;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -9,6 +9,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +18,10 @@ import java.util.Map;
 @Service
 public class BookServiceClient {
 
+    // Rating POSTs: attempts in all, and the pause before the second one (doubling)
+    private static final int RATING_ATTEMPTS = 3;
+    private static final long RATING_RETRY_BACKOFF_MS = 200;
+
     private final RestTemplate restTemplate;
 
 
@@ -29,71 +35,101 @@ public class BookServiceClient {
     }
 
     // GET /api/v1/books - Get all books
-    public List<Map<String, Object>> getAllBooks() {
+    public List<BookDto> getAllBooks() {
         String url = bookServiceUrl + "/api/v1/books";
-        ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+        ResponseEntity<List<BookDto>> response = restTemplate.exchange(
                 url,
                 HttpMethod.GET,
                 null,
-                new ParameterizedTypeReference<List<Map<String, Object>>>() {}
+                new ParameterizedTypeReference<List<BookDto>>() {}
         );
         return response.getBody();
     }
 
     // GET /api/v1/books/{id} - Get book by ID
-    public Map<String, Object> getBookById(Long id) {
+    public BookDto getBookById(Long id) {
         String url = bookServiceUrl + "/api/v1/books/" + id;
-        return restTemplate.getForObject(url, Map.class);
+        return restTemplate.getForObject(url, BookDto.class);
     }
 
     // GET /api/v1/books/search?q={query} - Search books
-    public List<Map<String, Object>> searchBooks(String query) {
+    public List<BookDto> searchBooks(String query) {
         String url = bookServiceUrl + "/api/v1/books/search?q=" + query;
-        ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+        ResponseEntity<List<BookDto>> response = restTemplate.exchange(
                 url,
                 HttpMethod.GET,
                 null,
-                new ParameterizedTypeReference<List<Map<String, Object>>>() {}
+                new ParameterizedTypeReference<List<BookDto>>() {}
         );
         return response.getBody();
     }
 
     // POST /api/v1/books - Create book
-    public Map<String, Object> createBook(Map<String, Object> book) {
+    public BookDto createBook(BookDto book) {
         String url = bookServiceUrl + "/api/v1/books";
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(book, headers);
+        HttpEntity<BookDto> request = new HttpEntity<>(book, headers);
 
-        ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
+        ResponseEntity<BookDto> response = restTemplate.postForEntity(url, request, BookDto.class);
         return response.getBody();
     }
 
     // PUT /api/v1/books/{id} - Full update
-    public Map<String, Object> updateBook(Long id, Map<String, Object> book) {
+    public BookDto updateBook(Long id, BookDto book) {
         String url = bookServiceUrl + "/api/v1/books/" + id;
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(book, headers);
+        HttpEntity<BookDto> request = new HttpEntity<>(book, headers);
 
         restTemplate.put(url, request);
         return book;
     }
 
     // PATCH /api/v1/books/{id} - Partial update
-    public Map<String, Object> partialUpdateBook(Long id, Map<String, Object> bookUpdates) {
+    public BookDto partialUpdateBook(Long id, BookDto bookUpdates) {
         String url = bookServiceUrl + "/api/v1/books/" + id;
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(bookUpdates, headers);
+        HttpEntity<BookDto> request = new HttpEntity<>(bookUpdates, headers);
 
-        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.PATCH, request, Map.class);
+        ResponseEntity<BookDto> response = restTemplate.exchange(url, HttpMethod.PATCH, request, BookDto.class);
         return response.getBody();
     }
 
+    // POST /api/v1/ratings - Rate a book as the token's user. Timeouts, I/O errors and 5xx are retried
+    // with the same Idempotency-Key, so book-service applies the rating once and replays its answer
+    public ResponseEntity<Map> rateBook(Map<String, Object> rating, String token, String idempotencyKey) {
+        String url = bookServiceUrl + "/api/v1/ratings";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(token);
+        headers.set("Idempotency-Key", idempotencyKey);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(rating, headers);
+
+        long backoffMs = RATING_RETRY_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return restTemplate.postForEntity(url, request, Map.class);
+            } catch (ResourceAccessException | HttpServerErrorException e) {
+                if (attempt == RATING_ATTEMPTS) {
+                    throw e;
+                }
+                System.err.println("[RATINGS] Attempt " + attempt + " failed, retrying with the same key: " + e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoffMs *= 2;
+            }
+        }
+    }
+
     // DELETE /api/v1/books/{id} - Delete book
     public void deleteBook(Long id) {
         String url = bookServiceUrl + "/api/v1/books/" + id;
         restTemplate.delete(url);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,452 @@
+package com.booktracker.vitrine.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of Open Library covers behind the /covers proxy.
+ * Originals (size L) are fetched once; S and M thumbnails are resized from them in a small
+ * worker pool as soon as the original arrives. Images are stored content-addressed
+ * (blobs/&lt;sha-256&gt;.&lt;ext&gt;) with one ref file per cover and size pointing at its blob,
+ * and the least recently used blobs are deleted once the store exceeds its size cap.
+ * A blob handed out for serving is pinned for a while, so eviction cannot delete it before
+ * the response has opened it; covers Open Library does not have are remembered for a while too.
+ */
+@Service
+public class CoverCacheService {
+
+    public enum Size {
+        S(80), M(180), L(0);
+
+        private final int width;
+
+        Size(int width) {
+            this.width = width;
+        }
+    }
+
+    // A cached image ready to be served; the hash doubles as ETag
+    public static class CoverFile {
+        private final Path path;
+        private final String hash;
+        private final long size;
+        private final String contentType;
+
+        CoverFile(Path path, String hash, long size, String contentType) {
+            this.path = path;
+            this.hash = hash;
+            this.size = size;
+            this.contentType = contentType;
+        }
+
+        public Path getPath() { return path; }
+        public String getHash() { return hash; }
+        public long getSize() { return size; }
+        public String getContentType() { return contentType; }
+    }
+
+    private static class Blob {
+        private final String fileName;
+        private final long size;
+
+        Blob(String fileName, long size) {
+            this.fileName = fileName;
+            this.size = size;
+        }
+    }
+
+    private static final long FETCH_TIMEOUT_SECONDS = 10;
+    private static final long RESIZE_TIMEOUT_SECONDS = 10;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    // LRU over the blobs on disk (hash -> blob), access ordered; guarded by itself
+    private final LinkedHashMap<String, Blob> blobs = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    // Blob hash -> time (millis) until which eviction keeps it; guarded by the blobs lock
+    private final Map<String, Long> pinnedUntil = new HashMap<>();
+
+    // "coverId-size" -> blob hash; backed by the ref files so it survives restarts
+    private final Map<String, String> refs = new ConcurrentHashMap<>();
+
+    // Fetches and resizes in progress, so concurrent requests for one cover share the work
+    private final Map<String, CompletableFuture<CoverFile>> pending = new ConcurrentHashMap<>();
+
+    @Value("${covers.origin-url:https://covers.openlibrary.org/b/id/}")
+    private String originUrl;
+
+    @Value("${covers.cache-dir}")
+    private String cacheDir;
+
+    @Value("${covers.cache-max-mb:512}")
+    private long maxMegabytes;
+
+    @Value("${covers.resize-threads:2}")
+    private int resizeThreads;
+
+    // Sendfile opens the file only after the controller returned; once open, deleting it is harmless
+    @Value("${covers.serve-pin-seconds:60}")
+    private long servePinSeconds;
+
+    @Value("${covers.missing-ttl-minutes:60}")
+    private long missingTtlMinutes;
+
+    // Cover ids Open Library answered 404 for; /covers is public, so each miss must not reach the origin
+    private Cache<Long, Boolean> missing;
+
+    private Path blobDir;
+    private Path refDir;
+    private Path tmpDir;
+    private ExecutorService resizePool;
+
+    @PostConstruct
+    void init() throws IOException {
+        Path root = Paths.get(cacheDir);
+        blobDir = Files.createDirectories(root.resolve("blobs"));
+        refDir = Files.createDirectories(root.resolve("refs"));
+        tmpDir = Files.createDirectories(root.resolve("tmp"));
+        missing = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(missingTtlMinutes))
+                .maximumSize(100_000)
+                .build();
+
+        // Leftovers of writes interrupted by a shutdown
+        try (Stream<Path> files = Files.list(tmpDir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        // Rebuild the LRU from disk, oldest files first
+        try (Stream<Path> files = Files.list(blobDir)) {
+            List<Path> sorted = files
+                    .filter(file -> file.getFileName().toString().indexOf('.') > 0)
+                    .sorted((a, b) -> lastModified(a).compareTo(lastModified(b)))
+                    .toList();
+            synchronized (blobs) {
+                for (Path file : sorted) {
+                    String fileName = file.getFileName().toString();
+                    long size = Files.size(file);
+                    blobs.put(fileName.substring(0, fileName.indexOf('.')), new Blob(fileName, size));
+                    totalBytes += size;
+                }
+                evictOverCap();
+            }
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        resizePool = Executors.newFixedThreadPool(resizeThreads, runnable -> {
+            Thread thread = new Thread(runnable, "cover-resize-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        System.out.println("[COVERS] Cache at " + root.toAbsolutePath() + ": " + blobs.size() + " images, "
+                + (totalBytes / 1024) + " KB");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        resizePool.shutdownNow();
+    }
+
+    /**
+     * The cached image of a cover in the given size, fetching or resizing it on a miss.
+     * Returns null when Open Library has no such cover.
+     */
+    public CoverFile getCover(long coverId, Size size) throws IOException {
+        if (missing.getIfPresent(coverId) != null) {
+            return null;
+        }
+        String key = coverId + "-" + size;
+        CoverFile cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (size == Size.L) {
+            return fetchOriginal(coverId);
+        }
+
+        CoverFile original = getCover(coverId, Size.L);
+        if (original == null) {
+            return null;
+        }
+        return await(resizeAsync(coverId, size, original), RESIZE_TIMEOUT_SECONDS);
+    }
+
+    private CoverFile lookup(String key) throws IOException {
+        String hash = refs.get(key);
+        if (hash == null) {
+            Path ref = refDir.resolve(key);
+            if (!Files.exists(ref)) {
+                return null;
+            }
+            hash = Files.readString(ref, StandardCharsets.US_ASCII).trim();
+            refs.put(key, hash);
+        }
+        Blob blob;
+        synchronized (blobs) {
+            blob = blobs.get(hash);
+            if (blob != null) {
+                pin(hash);
+            }
+        }
+        if (blob == null) {
+            // Evicted; fetched or resized again on this request
+            refs.remove(key, hash);
+            return null;
+        }
+        return new CoverFile(blobDir.resolve(blob.fileName), hash, blob.size, contentType(blob.fileName));
+    }
+
+    private CoverFile fetchOriginal(long coverId) throws IOException {
+        String key = coverId + "-" + Size.L;
+        CompletableFuture<CoverFile> fetch = new CompletableFuture<>();
+        CompletableFuture<CoverFile> inProgress = pending.putIfAbsent(key, fetch);
+        if (inProgress != null) {
+            return await(inProgress, FETCH_TIMEOUT_SECONDS * 2);
+        }
+
+        try {
+            // default=false: a 404 instead of Open Library's blank placeholder image
+            HttpRequest request = HttpRequest.newBuilder(URI.create(originUrl + coverId + "-L.jpg?default=false"))
+                    .timeout(Duration.ofSeconds(FETCH_TIMEOUT_SECONDS))
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            CoverFile original = null;
+            if (response.statusCode() == 200 && response.body().length > 0) {
+                original = store(key, response.body());
+                // Thumbnails are usually requested next, have them ready
+                resizeAsync(coverId, Size.M, original);
+                resizeAsync(coverId, Size.S, original);
+            } else if (response.statusCode() == 404) {
+                missing.put(coverId, Boolean.TRUE);
+            } else {
+                throw new IOException("Open Library returned HTTP " + response.statusCode() + " for cover " + coverId);
+            }
+            fetch.complete(original);
+            return original;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IOException failure = new InterruptedIOException("Interrupted while fetching cover " + coverId);
+            fetch.completeExceptionally(failure);
+            throw failure;
+        } catch (IOException | RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            pending.remove(key, fetch);
+        }
+    }
+
+    private CompletableFuture<CoverFile> resizeAsync(long coverId, Size size, CoverFile original) {
+        String key = coverId + "-" + size;
+        CompletableFuture<CoverFile> resize = pending.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+            try {
+                CoverFile cached = lookup(key);
+                return cached != null ? cached : resize(key, original, size.width);
+            } catch (IOException e) {
+                throw new IllegalStateException("Resizing cover " + key + " failed: " + e.getMessage(), e);
+            }
+        }, resizePool));
+        resize.whenComplete((file, e) -> pending.remove(key, resize));
+        return resize;
+    }
+
+    private CoverFile resize(String key, CoverFile original, int width) throws IOException {
+        BufferedImage source;
+        try {
+            source = ImageIO.read(original.getPath().toFile());
+        } catch (IOException e) {
+            // e.g. CMYK JPEGs, which ImageIO cannot decode
+            source = null;
+        }
+        if (source == null || source.getWidth() <= width) {
+            // Unreadable or already small enough: the thumbnail is the original blob
+            return link(key, original.getHash());
+        }
+
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, "jpg", out);
+        return store(key, out.toByteArray());
+    }
+
+    // Writes the image under its content hash (once) and points the cover's ref at it
+    private CoverFile store(String key, byte[] image) throws IOException {
+        String hash = sha256(image);
+        String fileName = hash + "." + extension(image);
+        Path blobPath = blobDir.resolve(fileName);
+
+        boolean known;
+        synchronized (blobs) {
+            known = blobs.get(hash) != null;
+        }
+        if (!known) {
+            Path tmp = Files.createTempFile(tmpDir, hash, ".part");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(image);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tmp, blobPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (blobs) {
+                if (blobs.put(hash, new Blob(fileName, image.length)) == null) {
+                    totalBytes += image.length;
+                }
+                // About to be served; otherwise, with older blobs pinned, the new one would be the victim
+                pin(hash);
+                evictOverCap();
+            }
+        }
+        return link(key, hash);
+    }
+
+    private CoverFile link(String key, String hash) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, key, ".ref");
+        Files.writeString(tmp, hash, StandardCharsets.US_ASCII);
+        Files.move(tmp, refDir.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        refs.put(key, hash);
+
+        CoverFile file = lookup(key);
+        if (file == null) {
+            throw new IOException("Cover " + key + " was evicted while being stored");
+        }
+        return file;
+    }
+
+    // Caller holds the blobs lock
+    private void pin(String hash) {
+        pinnedUntil.put(hash, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(servePinSeconds));
+    }
+
+    // Caller holds the blobs lock; refs to evicted blobs are dropped lazily by lookup().
+    // Pinned blobs are skipped, so the store can stay over its cap until their pins lapse.
+    private void evictOverCap() {
+        long maxBytes = maxMegabytes * 1024 * 1024;
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Blob>> eldest = blobs.entrySet().iterator();
+        while (totalBytes > maxBytes && blobs.size() > 1 && eldest.hasNext()) {
+            Map.Entry<String, Blob> entry = eldest.next();
+            Long pin = pinnedUntil.get(entry.getKey());
+            if (pin != null && pin > now) {
+                continue;
+            }
+            pinnedUntil.remove(entry.getKey());
+            Blob blob = entry.getValue();
+            eldest.remove();
+            totalBytes -= blob.size;
+            try {
+                Files.deleteIfExists(blobDir.resolve(blob.fileName));
+            } catch (IOException e) {
+                System.err.println("[COVERS] Could not delete " + blob.fileName + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static CoverFile await(CompletableFuture<CoverFile> future, long timeoutSeconds) throws IOException {
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a cover");
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out waiting for a cover", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Sniffed from the magic bytes; Open Library serves JPEG almost always
+    private static String extension(byte[] image) {
+        if (image.length >= 4 && (image[0] & 0xFF) == 0x89 && image[1] == 'P' && image[2] == 'N' && image[3] == 'G') {
+            return "png";
+        }
+        if (image.length >= 4 && image[0] == 'G' && image[1] == 'I' && image[2] == 'F') {
+            return "gif";
+        }
+        return "jpg";
+    }
+
+    private static String contentType(String fileName) {
+        if (fileName.endsWith(".png")) {
+            return "image/png";
+        }
+        return fileName.endsWith(".gif") ? "image/gif" : "image/jpeg";
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime();
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.booktracker.vitrine.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Relays book-service domain events (library, progress, rating changes) to open dashboards over SSE.
+ * All tabs of a user share one upstream event stream, opened with the first tab's token
+ * and closed when the last tab disconnects. Event payloads are forwarded untouched.
+ */
+@Service
+public class DashboardEventRelay {
+
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+
+    // Non-blocking client: an open stream holds no thread while it waits for events
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private final Map<Long, Upstream> upstreams = new ConcurrentHashMap<>();
+
+    @Value("${book.service.url}")
+    private String bookServiceUrl;
+
+    public SseEmitter subscribe(Long userId, String token) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Upstream created = new Upstream(userId);
+        Upstream upstream = upstreams.compute(userId,
+                (id, existing) -> existing != null && existing.open ? existing : created);
+        if (upstream == created) {
+            connect(created, token);
+        }
+        upstream.emitters.add(emitter);
+        if (!upstream.open) {
+            // Closed while we were joining; the browser reconnects on its own
+            emitter.complete();
+            return emitter;
+        }
+
+        Runnable release = () -> {
+            upstream.emitters.remove(emitter);
+            if (upstream.emitters.isEmpty()) {
+                upstream.close();
+            }
+        };
+        emitter.onCompletion(release);
+        emitter.onTimeout(release);
+        emitter.onError(e -> release.run());
+        return emitter;
+    }
+
+    private void connect(Upstream upstream, String token) {
+        Long userId = upstream.userId;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(bookServiceUrl + "/api/v1/events/users/" + userId))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+
+        httpClient.sendAsync(request, responseInfo -> responseInfo.statusCode() == 200
+                        ? HttpResponse.BodySubscribers.fromLineSubscriber(upstream)
+                        : HttpResponse.BodySubscribers.replacing(null))
+                .whenComplete((response, e) -> {
+                    if (e != null || response.statusCode() != 200) {
+                        System.err.println("Event stream for user " + userId + " unavailable: "
+                                + (e != null ? e.getMessage() : "HTTP " + response.statusCode()));
+                        upstream.close();
+                    }
+                });
+    }
+
+    // One book-service event stream, parsed line by line and fanned out to the user's tabs
+    private class Upstream implements Flow.Subscriber<String> {
+        private final Long userId;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile boolean open = true;
+        private volatile Flow.Subscription subscription;
+
+        private String eventName;
+        private final StringBuilder data = new StringBuilder();
+
+        Upstream(Long userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (open) {
+                subscription.request(Long.MAX_VALUE);
+            } else {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.isEmpty()) {
+                dispatch();
+            } else if (line.startsWith(":")) {
+                // Heartbeat comment: pass on so idle browser connections stay open too
+                String comment = line.substring(1).trim();
+                send(() -> SseEmitter.event().comment(comment));
+            } else if (line.startsWith("event:")) {
+                eventName = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) {
+                    data.append('\n');
+                }
+                data.append(line.substring(5).trim());
+            }
+        }
+
+        private void dispatch() {
+            if (data.length() > 0) {
+                String name = eventName;
+                String payload = data.toString();
+                send(() -> name != null ? SseEmitter.event().name(name).data(payload) : SseEmitter.event().data(payload));
+            }
+            eventName = null;
+            data.setLength(0);
+        }
+
+        // A builder can only be sent once, so each tab gets its own
+        private void send(Supplier<SseEmitter.SseEventBuilder> event) {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(event.get());
+                } catch (IOException | IllegalStateException e) {
+                    emitters.remove(emitter);
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            close();
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+        }
+
+        void close() {
+            if (!open) {
+                return;
+            }
+            open = false;
+            upstreams.remove(userId, this);
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            emitters.forEach(SseEmitter::complete);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.booktracker.vitrine.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of the rendered dashboard panels (dashboard-panels.html).
+ * Keyed by Keycloak subject like {@link LibraryMembershipService}: the dashboard write
+ * endpoints evict a user's panels after every change, the TTL covers changes made elsewhere.
+ * At most MAX_USERS users are kept; a user idle for the TTL is dropped as a whole.
+ */
+@Service
+public class DashboardFragmentCache {
+
+    public static final String STATS = "statsPanel";
+    public static final String LIBRARY = "libraryGrid";
+
+    private static final String TEMPLATE = "dashboard-panels";
+    private static final int MAX_USERS = 10_000;
+
+    private final ITemplateEngine templateEngine;
+
+    private final long ttlSeconds;
+
+    // Every lookup counts as access; the panels inside still expire one by one
+    private final Cache<String, UserFragments> cache;
+
+    public DashboardFragmentCache(ITemplateEngine templateEngine,
+                                  @Value("${dashboard.fragments.cache-ttl-seconds:300}") long ttlSeconds) {
+        this.templateEngine = templateEngine;
+        this.ttlSeconds = ttlSeconds;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(MAX_USERS)
+                .build();
+    }
+
+    private static class RenderedFragment {
+        private final String html;
+        private final long timestamp;
+
+        RenderedFragment(String html) {
+            this.html = html;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
+
+    // A user's panels; replaced as a whole on invalidation
+    private static class UserFragments extends ConcurrentHashMap<String, RenderedFragment> {
+    }
+
+    // Cached HTML of a panel, or null when it has to be rendered
+    public String getIfCached(String keycloakSubject, String fragment) {
+        UserFragments fragments = keycloakSubject != null ? cache.getIfPresent(keycloakSubject) : null;
+        RenderedFragment rendered = fragments != null ? fragments.get(fragment) : null;
+        return rendered != null && !isExpired(rendered) ? rendered.html : null;
+    }
+
+    /**
+     * Cached HTML of a panel, rendering it from the supplied model on a miss.
+     * If the model supplier throws, nothing is cached and the exception propagates.
+     */
+    public String getOrRender(String keycloakSubject, String fragment, Supplier<Map<String, Object>> model) {
+        UserFragments fragments = cache.get(keycloakSubject, subject -> new UserFragments());
+        RenderedFragment rendered = fragments.get(fragment);
+        if (rendered != null && !isExpired(rendered)) {
+            return rendered.html;
+        }
+
+        Context context = new Context(LocaleContextHolder.getLocale(), model.get());
+        String html = templateEngine.process(TEMPLATE, Set.of(fragment), context);
+        // Invalidated while rendering: the map is already detached, so this stale copy is dropped with it
+        fragments.put(fragment, new RenderedFragment(html));
+        return html;
+    }
+
+    public void invalidate(String keycloakSubject) {
+        if (keycloakSubject != null) {
+            cache.invalidate(keycloakSubject);
+        }
+    }
+
+    private boolean isExpired(RenderedFragment rendered) {
+        return System.currentTimeMillis() - rendered.timestamp > TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+}
@@ -0,0 +1,91 @@
+package com.booktracker.vitrine.service;
+
+import com.booktracker.vitrine.dto.LibraryTitleDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user cache of which books are already in the library.
+ * Keyed by Keycloak subject so a cache hit needs no book-service call at all;
+ * the dashboard invalidates an entry whenever it adds or removes a book.
+ * Entries expire 10 minutes after they were loaded, and at most MAX_USERS are kept.
+ */
+@Service
+public class LibraryMembershipService {
+
+    private static final Duration CACHE_DURATION = Duration.ofMinutes(10);
+    private static final int MAX_USERS = 10_000;
+
+    private final RestTemplate restTemplate;
+
+    private final Cache<String, LibraryMembership> cache = Caffeine.newBuilder()
+            .expireAfterWrite(CACHE_DURATION)
+            .maximumSize(MAX_USERS)
+            .build();
+
+    // Bumped by every invalidation: a load that started before one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${book.service.url}")
+    private String bookServiceUrl;
+
+    public LibraryMembershipService(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    public static class LibraryMembership {
+        private final List<LibraryTitleDto> entries;
+
+        LibraryMembership(List<LibraryTitleDto> entries) {
+            this.entries = entries;
+        }
+
+        public List<LibraryTitleDto> getEntries() {
+            return entries;
+        }
+    }
+
+    public LibraryMembership getMembership(String keycloakSubject, String token, LongSupplier userId) {
+        LibraryMembership cached = cache.getIfPresent(keycloakSubject);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+
+        List<LibraryTitleDto> entries = restTemplate.exchange(
+                bookServiceUrl + "/api/v1/library/users/" + userId.getAsLong() + "/titles",
+                HttpMethod.GET,
+                new HttpEntity<Void>(headers),
+                new ParameterizedTypeReference<List<LibraryTitleDto>>() {}
+        ).getBody();
+
+        LibraryMembership membership = new LibraryMembership(entries != null ? entries : List.of());
+        // Invalidated while loading: the result may predate the change, so it is returned but not kept.
+        // compute() and invalidate() on one key are serialized, and the generation is bumped first.
+        cache.asMap().compute(keycloakSubject,
+                (subject, current) -> generation.get() == loadGeneration ? membership : current);
+        return membership;
+    }
+
+    public void invalidate(String keycloakSubject) {
+        if (keycloakSubject != null) {
+            generation.incrementAndGet();
+            cache.invalidate(keycloakSubject);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.booktracker.vitrine.service;
 
+import com.booktracker.vitrine.dto.LibraryEntryDto;
+import com.booktracker.vitrine.dto.ReadingProgressDto;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
@@ -22,7 +24,7 @@ public class LibraryServiceClient {
         this.restTemplate = restTemplate;
     }
 
-    public Map<String, Object> addBookToLibrary(Long userId, Long bookId, String status) {
+    public LibraryEntryDto addBookToLibrary(Long userId, Long bookId, String status) {
         String url = bookServiceUrl + "/api/v1/library";  // CHANGED
 
         Map<String, Object> request = new HashMap<>();
@@ -30,32 +32,32 @@ public class LibraryServiceClient {
         request.put("bookId", bookId);
         request.put("status", status);
 
-        return restTemplate.postForObject(url, request, Map.class);
+        return restTemplate.postForObject(url, request, LibraryEntryDto.class);
     }
 
-    public List<Map<String, Object>> getUserLibrary(Long userId) {
+    public List<LibraryEntryDto> getUserLibrary(Long userId) {
         String url = bookServiceUrl + "/api/v1/library/users/" + userId;  // CHANGED
 
         return restTemplate.exchange(
                 url,
                 HttpMethod.GET,
                 null,
-                new ParameterizedTypeReference<List<Map<String, Object>>>() {}
+                new ParameterizedTypeReference<List<LibraryEntryDto>>() {}
         ).getBody();
     }
 
-    public List<Map<String, Object>> getBooksByStatus(Long userId, String status) {
+    public List<LibraryEntryDto> getBooksByStatus(Long userId, String status) {
         String url = bookServiceUrl + "/api/v1/library/users/" + userId + "/status/" + status;  // CHANGED
 
         return restTemplate.exchange(
                 url,
                 HttpMethod.GET,
                 null,
-                new ParameterizedTypeReference<List<Map<String, Object>>>() {}
+                new ParameterizedTypeReference<List<LibraryEntryDto>>() {}
         ).getBody();
     }
 
-    public Map<String, Object> updateStatus(Long libraryId, String status) {
+    public LibraryEntryDto updateStatus(Long libraryId, String status) {
         String url = bookServiceUrl + "/api/v1/library/" + libraryId + "/status";  // CHANGED
 
         Map<String, String> request = new HashMap<>();
@@ -65,11 +67,11 @@ public class LibraryServiceClient {
                 url,
                 HttpMethod.PUT,
                 new org.springframework.http.HttpEntity<>(request),
-                Map.class
+                LibraryEntryDto.class
         ).getBody();
     }
 
-    public Map<String, Object> updateProgress(Long libraryId, Integer currentPage, Integer totalPages, String notes) {
+    public ReadingProgressDto updateProgress(Long libraryId, Integer currentPage, Integer totalPages, String notes) {
         String url = bookServiceUrl + "/api/v1/library/" + libraryId + "/progress";  // CHANGED
 
         Map<String, Object> request = new HashMap<>();
@@ -83,13 +85,13 @@ public class LibraryServiceClient {
                 url,
                 HttpMethod.PUT,
                 new org.springframework.http.HttpEntity<>(request),
-                Map.class
+                ReadingProgressDto.class
         ).getBody();
     }
 
-    public Map<String, Object> getProgress(Long libraryId) {
+    public ReadingProgressDto getProgress(Long libraryId) {
         String url = bookServiceUrl + "/api/v1/library/" + libraryId + "/progress";  // CHANGED
-        return restTemplate.getForObject(url, Map.class);
+        return restTemplate.getForObject(url, ReadingProgressDto.class);
     }
 
     public void removeBookFromLibrary(Long libraryId) {
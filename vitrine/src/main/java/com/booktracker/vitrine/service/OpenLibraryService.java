@@ -1,11 +1,15 @@
 package com.booktracker.vitrine.service;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -14,7 +18,9 @@ import org.springframework.web.util.UriComponentsBuilder;
 @Service
 public class OpenLibraryService {
 
-    private final String BASE_URL = "https://openlibrary.org/search.json";
+    @Value("${openlibrary.url}")
+    private String openLibraryUrl;
+
     private final RestTemplate restTemplate;
 
     private final ConcurrentHashMap<String, CachedResult> cache = new ConcurrentHashMap<>();
@@ -58,7 +64,7 @@ public class OpenLibraryService {
             // Fetch 3x to have good buffer after filtering
             int fetchLimit = pageSize * 3;
 
-            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(BASE_URL)
+            UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(openLibraryUrl + "/search.json")
                     .queryParam("q", query)
                     .queryParam("offset", offset)
                     .queryParam("limit", fetchLimit)
@@ -150,11 +156,42 @@ public class OpenLibraryService {
 
     public Map<String, Object> getBookDetails(String key) {
         try {
-            String url = "https://openlibrary.org" + key + ".json";
+            String url = openLibraryUrl + key + ".json";
             return restTemplate.getForObject(url, Map.class);
         } catch (Exception e) {
             System.err.println("Error fetching book details: " + e.getMessage());
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Search docs of several works in one request (q=key:(... OR ...)), by work key.
+     * Carries what the work JSON lacks: median page count, publishers and ISBNs. Empty on error.
+     */
+    public Map<String, Map<String, Object>> getWorkSummaries(Collection<String> workKeys) {
+        Map<String, Map<String, Object>> summaries = new HashMap<>();
+        if (workKeys.isEmpty()) {
+            return summaries;
+        }
+        try {
+            URI url = UriComponentsBuilder.fromHttpUrl(openLibraryUrl + "/search.json")
+                    .queryParam("q", "key:(" + String.join(" OR ", workKeys) + ")")
+                    .queryParam("limit", workKeys.size())
+                    .queryParam("fields", "key,number_of_pages_median,publisher,first_publish_year,isbn")
+                    .encode()
+                    .build()
+                    .toUri();
+            Map<String, Object> responseBody = restTemplate.getForObject(url, Map.class);
+            if (responseBody != null && responseBody.get("docs") instanceof List<?> docs) {
+                for (Object doc : docs) {
+                    if (doc instanceof Map<?, ?> map && map.get("key") instanceof String key) {
+                        summaries.put(key, (Map<String, Object>) map);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error fetching work summaries from OpenLibrary: " + e.getMessage());
+        }
+        return summaries;
+    }
+}
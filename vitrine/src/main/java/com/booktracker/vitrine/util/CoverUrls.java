@@ -0,0 +1,22 @@
+package com.booktracker.vitrine.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Rewrites Open Library cover URLs to the local cover proxy (/covers/{id}-{size}); other URLs are kept
+public final class CoverUrls {
+
+    private static final Pattern OPEN_LIBRARY_COVER =
+            Pattern.compile("^https?://covers\\.openlibrary\\.org/b/id/(\\d+)-([SML])\\.jpg$");
+
+    private CoverUrls() {
+    }
+
+    public static String proxied(String coverUrl) {
+        if (coverUrl == null) {
+            return null;
+        }
+        Matcher matcher = OPEN_LIBRARY_COVER.matcher(coverUrl);
+        return matcher.matches() ? "/covers/" + matcher.group(1) + "-" + matcher.group(2) : coverUrl;
+    }
+}
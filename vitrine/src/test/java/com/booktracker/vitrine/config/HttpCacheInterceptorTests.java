@@ -0,0 +1,163 @@
+package com.booktracker.vitrine.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Revalidation and eviction of {@link HttpCacheInterceptor}, against a scripted book-service.
+ */
+class HttpCacheInterceptorTests {
+
+    private static final String BOOK_SERVICE = "http://book-service";
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    // If-None-Match sent with each call, null when there was none
+    private final List<String> sentETags = new ArrayList<>();
+
+    @Test
+    void notModifiedReplaysTheCachedBody() throws IOException {
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(BOOK_SERVICE, 1024);
+
+        ClientHttpResponse first = get(interceptor, "/api/v1/books/1", ok("\"v1\"", "{\"id\":1}"));
+        assertEquals("{\"id\":1}", body(first));
+
+        ClientHttpResponse second = get(interceptor, "/api/v1/books/1", notModified());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals("{\"id\":1}", body(second));
+        assertEquals("\"v1\"", second.getHeaders().getETag());
+        assertEquals(List.of("none", "\"v1\""), sentETags);
+    }
+
+    @Test
+    void changedResourceReplacesTheCachedBody() throws IOException {
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(BOOK_SERVICE, 1024);
+        get(interceptor, "/api/v1/books/1", ok("\"v1\"", "old"));
+        get(interceptor, "/api/v1/books/1", ok("\"v2\"", "new"));
+
+        assertEquals("new", body(get(interceptor, "/api/v1/books/1", notModified())));
+        assertEquals("\"v2\"", sentETags.get(2));
+    }
+
+    @Test
+    void errorDropsTheCachedResponse() throws IOException {
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(BOOK_SERVICE, 1024);
+        get(interceptor, "/api/v1/books/1", ok("\"v1\"", "{}"));
+        get(interceptor, "/api/v1/books/1", new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND));
+        get(interceptor, "/api/v1/books/1", ok("\"v1\"", "{}"));
+
+        assertEquals("none", sentETags.get(2));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedAboveTheByteCap() throws IOException {
+        // Room for two one-byte bodies
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(BOOK_SERVICE, 2);
+        get(interceptor, "/a", ok("\"a\"", "a"));
+        get(interceptor, "/b", ok("\"b\"", "b"));
+        get(interceptor, "/a", notModified());
+        // /b is now the least recently used one
+        get(interceptor, "/c", ok("\"c\"", "c"));
+
+        sentETags.clear();
+        get(interceptor, "/a", notModified());
+        get(interceptor, "/b", ok("\"b\"", "b"));
+        assertEquals(List.of("\"a\"", "none"), sentETags);
+    }
+
+    @Test
+    void bodyLargerThanTheCapIsNotKept() throws IOException {
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(BOOK_SERVICE, 2);
+        get(interceptor, "/a", ok("\"a\"", "a"));
+        get(interceptor, "/big", ok("\"big\"", "big"));
+
+        get(interceptor, "/a", notModified());
+        get(interceptor, "/big", ok("\"big\"", "big"));
+        assertEquals(List.of("none", "none", "\"a\"", "none"), sentETags);
+    }
+
+    @Test
+    void acceptIsPartOfTheKey() throws IOException {
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(BOOK_SERVICE, 1024);
+        get(interceptor, "/api/v1/books/1", MediaType.APPLICATION_JSON, ok("\"json\"", "{}"));
+
+        get(interceptor, "/api/v1/books/1", SMILE, ok("\"smile\"", "smile"));
+        assertEquals("smile", body(get(interceptor, "/api/v1/books/1", SMILE, notModified())));
+        assertEquals(List.of("none", "none", "\"smile\""), sentETags);
+    }
+
+    @Test
+    void otherMethodsAreNotCached() throws IOException {
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(BOOK_SERVICE, 1024);
+        MockClientHttpRequest post = new MockClientHttpRequest(HttpMethod.POST, URI.create(BOOK_SERVICE + "/api/v1/books"));
+        interceptor.intercept(post, new byte[0], (request, body) -> ok("\"v1\"", "{}"));
+        MockClientHttpRequest get = new MockClientHttpRequest(HttpMethod.GET, URI.create(BOOK_SERVICE + "/api/v1/books"));
+        interceptor.intercept(get, new byte[0], (request, body) -> ok("\"v1\"", "{}"));
+
+        assertNull(get.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void otherHostsAndAuthenticatedCallsAreNotCached() throws IOException {
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(BOOK_SERVICE, 1024);
+        for (int i = 0; i < 2; i++) {
+            MockClientHttpRequest openLibrary = new MockClientHttpRequest(HttpMethod.GET,
+                    URI.create("https://openlibrary.org/search.json?q=dune"));
+            interceptor.intercept(openLibrary, new byte[0], (request, body) -> ok("\"v1\"", "{}"));
+            assertNull(openLibrary.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+
+            MockClientHttpRequest authenticated = new MockClientHttpRequest(HttpMethod.GET,
+                    URI.create(BOOK_SERVICE + "/api/v1/books/1"));
+            authenticated.getHeaders().setBearerAuth("token");
+            interceptor.intercept(authenticated, new byte[0], (request, body) -> ok("\"v1\"", "{}"));
+            assertNull(authenticated.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+        }
+    }
+
+    private ClientHttpResponse get(HttpCacheInterceptor interceptor, String path, MockClientHttpResponse response)
+            throws IOException {
+        return get(interceptor, path, MediaType.APPLICATION_JSON, response);
+    }
+
+    private ClientHttpResponse get(HttpCacheInterceptor interceptor, String path, MediaType accept,
+                                   MockClientHttpResponse response) throws IOException {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create(BOOK_SERVICE + path));
+        request.getHeaders().setAccept(List.of(accept));
+        ClientHttpRequestExecution execution = (sent, body) -> {
+            String eTag = sent.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            sentETags.add(eTag != null ? eTag : "none");
+            return response;
+        };
+        return interceptor.intercept(request, new byte[0], execution);
+    }
+
+    private static MockClientHttpResponse ok(String eTag, String body) {
+        MockClientHttpResponse response = new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+        response.getHeaders().setETag(eTag);
+        return response;
+    }
+
+    private static MockClientHttpResponse notModified() {
+        return new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+    }
+
+    private static String body(ClientHttpResponse response) throws IOException {
+        return StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+package com.booktracker.vitrine.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Retries of {@link BookServiceClient#rateBook}, against a mocked book-service.
+ */
+class BookServiceClientTests {
+
+    private static final String RATINGS = "http://book-service/api/v1/ratings";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final BookServiceClient client = new BookServiceClient(restTemplate);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(client, "bookServiceUrl", "http://book-service");
+    }
+
+    @Test
+    void retryAfterServerErrorSendsTheSameKey() {
+        server.expect(requestTo(RATINGS)).andExpect(method(HttpMethod.POST))
+                .andExpect(header("Idempotency-Key", "key-1"))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(requestTo(RATINGS)).andExpect(header("Idempotency-Key", "key-1"))
+                .andRespond(withSuccess("{\"rating\":4}", MediaType.APPLICATION_JSON));
+
+        assertEquals(4, client.rateBook(Map.of("bookId", 3, "rating", 4), "token", "key-1").getBody().get("rating"));
+        server.verify();
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        server.expect(ExpectedCount.times(3), requestTo(RATINGS))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertThrows(HttpServerErrorException.class,
+                () -> client.rateBook(Map.of("bookId", 3, "rating", 4), "token", "key-1"));
+        server.verify();
+    }
+}
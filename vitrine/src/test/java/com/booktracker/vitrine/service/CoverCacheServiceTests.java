@@ -0,0 +1,147 @@
+package com.booktracker.vitrine.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fetching, negative caching and eviction of {@link CoverCacheService}, against a local origin.
+ * The images are random bytes: they cannot be decoded, so thumbnails link to the original blob.
+ */
+class CoverCacheServiceTests {
+
+    // Two of these exceed the 1 MB cap of the cache under test
+    private static final int IMAGE_BYTES = 600 * 1024;
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer origin;
+    private final Map<Long, byte[]> images = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> fetches = new ConcurrentHashMap<>();
+
+    private CoverCacheService service;
+
+    @BeforeEach
+    void startOrigin() throws IOException {
+        origin = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        origin.createContext("/b/id/", exchange -> {
+            String name = exchange.getRequestURI().getPath().substring("/b/id/".length());
+            long coverId = Long.parseLong(name.substring(0, name.indexOf('-')));
+            fetches.computeIfAbsent(coverId, id -> new AtomicInteger()).incrementAndGet();
+            byte[] image = images.get(coverId);
+            if (image == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                exchange.sendResponseHeaders(200, image.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(image);
+                }
+            }
+            exchange.close();
+        });
+        origin.start();
+        images.put(1L, randomImage(1));
+        images.put(2L, randomImage(2));
+    }
+
+    @AfterEach
+    void stop() {
+        if (service != null) {
+            service.shutdown();
+        }
+        origin.stop(0);
+    }
+
+    @Test
+    void coverIsFetchedOnceThenServedFromDisk() throws IOException {
+        start(0);
+
+        CoverCacheService.CoverFile first = service.getCover(1, CoverCacheService.Size.L);
+        assertNotNull(first);
+        assertEquals(IMAGE_BYTES, Files.size(first.getPath()));
+        assertEquals(first.getHash(), service.getCover(1, CoverCacheService.Size.L).getHash());
+        // Undecodable, so the thumbnail is the original
+        assertEquals(first.getHash(), service.getCover(1, CoverCacheService.Size.M).getHash());
+        assertEquals(1, fetches.get(1L).get());
+    }
+
+    @Test
+    void missingCoverIsNotAskedForAgain() throws IOException {
+        start(0);
+
+        assertNull(service.getCover(99, CoverCacheService.Size.L));
+        assertNull(service.getCover(99, CoverCacheService.Size.L));
+        assertNull(service.getCover(99, CoverCacheService.Size.S));
+        assertEquals(1, fetches.get(99L).get());
+    }
+
+    @Test
+    void leastRecentlyUsedBlobIsEvictedAboveTheCap() throws IOException {
+        start(0);
+
+        CoverCacheService.CoverFile first = fetchWithThumbnails(1);
+        fetchWithThumbnails(2);
+
+        assertFalse(Files.exists(first.getPath()));
+        // The evicted cover is fetched again on its next request
+        assertNotNull(service.getCover(1, CoverCacheService.Size.L));
+        assertEquals(2, fetches.get(1L).get());
+    }
+
+    @Test
+    void blobBeingServedIsNotEvicted() throws IOException {
+        start(60);
+
+        CoverCacheService.CoverFile first = fetchWithThumbnails(1);
+        fetchWithThumbnails(2);
+
+        assertTrue(Files.exists(first.getPath()));
+        assertEquals(first.getHash(), service.getCover(1, CoverCacheService.Size.L).getHash());
+        assertEquals(1, fetches.get(1L).get());
+    }
+
+    private void start(long servePinSeconds) throws IOException {
+        service = new CoverCacheService();
+        ReflectionTestUtils.setField(service, "originUrl", "http://localhost:" + origin.getAddress().getPort() + "/b/id/");
+        ReflectionTestUtils.setField(service, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(service, "maxMegabytes", 1L);
+        ReflectionTestUtils.setField(service, "resizeThreads", 1);
+        ReflectionTestUtils.setField(service, "servePinSeconds", servePinSeconds);
+        ReflectionTestUtils.setField(service, "missingTtlMinutes", 60L);
+        service.init();
+    }
+
+    // Waits for the background thumbnails too, so they cannot touch the blob later
+    private CoverCacheService.CoverFile fetchWithThumbnails(long coverId) throws IOException {
+        CoverCacheService.CoverFile original = service.getCover(coverId, CoverCacheService.Size.L);
+        service.getCover(coverId, CoverCacheService.Size.M);
+        service.getCover(coverId, CoverCacheService.Size.S);
+        return original;
+    }
+
+    private static byte[] randomImage(long seed) {
+        byte[] image = new byte[IMAGE_BYTES];
+        new Random(seed).nextBytes(image);
+        return image;
+    }
+}
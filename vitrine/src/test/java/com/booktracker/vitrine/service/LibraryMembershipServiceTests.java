@@ -0,0 +1,63 @@
+package com.booktracker.vitrine.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.response.DefaultResponseCreator;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Caching and invalidation of {@link LibraryMembershipService}, against a mocked book-service.
+ */
+class LibraryMembershipServiceTests {
+
+    private static final String TITLES = "http://book-service/api/v1/library/users/7/titles";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final LibraryMembershipService service = new LibraryMembershipService(restTemplate);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "bookServiceUrl", "http://book-service");
+    }
+
+    @Test
+    void secondCallIsServedFromTheCache() {
+        server.expect(ExpectedCount.once(), requestTo(TITLES)).andRespond(titles("Dune"));
+
+        service.getMembership("kc-7", "token", () -> 7L);
+        assertEquals("Dune", service.getMembership("kc-7", "token", () -> 7L).getEntries().get(0).getTitle());
+        server.verify();
+    }
+
+    @Test
+    void invalidationDuringALoadDoesNotCacheItsResult() {
+        // The book is added while the old library is on its way back
+        server.expect(requestTo(TITLES)).andRespond(request -> {
+            service.invalidate("kc-7");
+            return titles("Dune").createResponse(request);
+        });
+        server.expect(requestTo(TITLES)).andRespond(titles("Dune", "Emma"));
+
+        assertEquals(1, service.getMembership("kc-7", "token", () -> 7L).getEntries().size());
+        assertEquals(2, service.getMembership("kc-7", "token", () -> 7L).getEntries().size());
+        server.verify();
+    }
+
+    private static DefaultResponseCreator titles(String... titles) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < titles.length; i++) {
+            json.append(i > 0 ? "," : "").append("{\"bookId\":").append(i + 1)
+                    .append(",\"title\":\"").append(titles[i]).append("\"}");
+        }
+        return withSuccess(json.append("]").toString(), MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,35 @@
+package com.booktracker.vitrine.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Which cover URLs {@link CoverUrls} sends through the local /covers proxy.
+ */
+class CoverUrlsTests {
+
+    @Test
+    void openLibraryCoversAreProxied() {
+        assertEquals("/covers/8231856-L", CoverUrls.proxied("https://covers.openlibrary.org/b/id/8231856-L.jpg"));
+        assertEquals("/covers/12-M", CoverUrls.proxied("http://covers.openlibrary.org/b/id/12-M.jpg"));
+        assertEquals("/covers/12-S", CoverUrls.proxied("https://covers.openlibrary.org/b/id/12-S.jpg"));
+    }
+
+    @Test
+    void otherUrlsAreKept() {
+        String[] kept = {
+                "https://example.com/cover.jpg",
+                "https://covers.openlibrary.org/b/isbn/9780140328721-L.jpg",
+                "https://covers.openlibrary.org/b/id/12-XL.jpg",
+                "https://covers.openlibrary.org/b/id/12-L.jpg?default=false",
+                "https://covers.openlibrary.org.evil.com/b/id/12-L.jpg",
+                "/covers/12-L"
+        };
+        for (String url : kept) {
+            assertEquals(url, CoverUrls.proxied(url));
+        }
+        assertNull(CoverUrls.proxied(null));
+    }
+}
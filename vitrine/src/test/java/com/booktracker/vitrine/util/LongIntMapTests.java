@@ -0,0 +1,71 @@
+package com.booktracker.vitrine.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Probing, growth and lookups of {@link LongIntMap}.
+ */
+class LongIntMapTests {
+
+    @Test
+    void collidingKeysKeepTheirOwnValues() {
+        // Smallest table has 8 slots: find keys that hash to the same one
+        long first = 1;
+        long second = 2;
+        while (slotOf(second) != slotOf(first)) {
+            second++;
+        }
+        long third = second + 1;
+        while (slotOf(third) != slotOf(first)) {
+            third++;
+        }
+        LongIntMap map = new LongIntMap(3);
+        map.put(first, 10);
+        map.put(second, 20);
+        map.put(third, 30);
+
+        assertEquals(10, map.getOrDefault(first, -1));
+        assertEquals(20, map.getOrDefault(second, -1));
+        assertEquals(30, map.getOrDefault(third, -1));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void growsPastTheExpectedSize() {
+        LongIntMap map = new LongIntMap(1);
+        for (long key = 0; key < 10_000; key++) {
+            map.put(key * 31, (int) key);
+        }
+        assertEquals(10_000, map.size());
+        for (long key = 0; key < 10_000; key++) {
+            assertEquals((int) key, map.getOrDefault(key * 31, -1));
+        }
+    }
+
+    @Test
+    void putReplacesTheValueOfAKnownKey() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(42, 1);
+        map.put(42, 5);
+        assertEquals(5, map.getOrDefault(42, -1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void missingKeysGiveTheDefault() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(7, 3);
+        assertEquals(-1, map.getOrDefault(8, -1));
+        assertEquals(-1, map.getOrDefault(Long.MIN_VALUE, -1));
+        assertEquals(0, new LongIntMap(0).getOrDefault(7, 0));
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 1));
+    }
+
+    // Home slot in the smallest table, the same hash as LongIntMap
+    private static int slotOf(long key) {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L) & 7;
+    }
+}